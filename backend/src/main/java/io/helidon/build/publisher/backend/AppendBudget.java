@@ -0,0 +1,91 @@
+package io.helidon.build.publisher.backend;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Admission control for the appends based on the number of bytes in flight.
+ * The bytes are accounted globally and per shard (i.e. per pipeline) so that a single pipeline cannot use the whole
+ * budget. A payload larger than a budget is admitted when nothing else is in flight for that budget, so that it can
+ * still be processed.
+ */
+final class AppendBudget {
+
+    private static final Logger LOGGER = Logger.getLogger(AppendBudget.class.getName());
+
+    private final long maxBytes;
+    private final long maxShardBytes;
+    private final Map<String, Long> shards;
+    private long total;
+
+    /**
+     * Create a new budget.
+     * @param maxBytes the maximum number of bytes in flight
+     * @param maxShardBytes the maximum number of bytes in flight per shard
+     */
+    AppendBudget(long maxBytes, long maxShardBytes) {
+        if (maxBytes <= 0 || maxShardBytes <= 0) {
+            throw new IllegalArgumentException("Invalid budget, maxBytes=" + maxBytes
+                    + ", maxShardBytes=" + maxShardBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.maxShardBytes = maxShardBytes;
+        this.shards = new HashMap<>();
+    }
+
+    /**
+     * Reserve bytes.
+     * @param shard the shard
+     * @param nbytes the number of bytes to reserve
+     * @return {@code true} if the bytes are reserved, {@code false} if the budget is exceeded
+     */
+    synchronized boolean tryAcquire(String shard, long nbytes) {
+        long shardBytes = shards.getOrDefault(shard, 0L);
+        if (exceeded(shardBytes, nbytes)) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Budget exceeded, shard={0}, shardBytes={1}, total={2}, nbytes={3}",
+                        new Object[]{
+                            shard,
+                            shardBytes,
+                            total,
+                            nbytes
+                        });
+            }
+            return false;
+        }
+        shards.put(shard, shardBytes + nbytes);
+        total += nbytes;
+        return true;
+    }
+
+    /**
+     * Test if bytes can currently be reserved, without reserving them.
+     * @param shard the shard
+     * @param nbytes the number of bytes
+     * @return {@code true} if the bytes can be reserved, {@code false} if the budget is exceeded
+     */
+    synchronized boolean available(String shard, long nbytes) {
+        return !exceeded(shards.getOrDefault(shard, 0L), nbytes);
+    }
+
+    private boolean exceeded(long shardBytes, long nbytes) {
+        return (total > 0 && total + nbytes > maxBytes) || (shardBytes > 0 && shardBytes + nbytes > maxShardBytes);
+    }
+
+    /**
+     * Release bytes reserved with {@link #tryAcquire(String, long)}.
+     * @param shard the shard
+     * @param nbytes the number of bytes to release
+     */
+    synchronized void release(String shard, long nbytes) {
+        long shardBytes = shards.getOrDefault(shard, 0L) - nbytes;
+        if (shardBytes > 0) {
+            shards.put(shard, shardBytes);
+        } else {
+            shards.remove(shard);
+        }
+        total -= nbytes;
+    }
+}
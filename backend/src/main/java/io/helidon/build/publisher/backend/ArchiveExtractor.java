@@ -0,0 +1,441 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipException;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+/**
+ * Archive extractor.
+ * Unpacks a {@code tar} stream into a directory as the data arrives, the stream is inflated first if it is
+ * {@code gzip} compressed. The chunks are processed one at a time on a thread pool, the next chunk is requested when
+ * the previous one is written. Only the regular files and directories are extracted, the {@code ustar} name prefix
+ * and the GNU long names are supported, the other entries (e.g. links, pax headers) are skipped. The files are
+ * hashed while written and stored in a {@link BlobStore}.
+ */
+final class ArchiveExtractor {
+
+    private static final Logger LOGGER = Logger.getLogger(ArchiveExtractor.class.getName());
+    private static final int BLOCK_SIZE = 512;
+    private static final int MAX_LONG_NAME = 64 * 1024;
+
+    private final ExecutorService executors;
+    private final BufferPool bufferPool;
+    private final BlobStore blobs;
+
+    /**
+     * Create a new archive extractor.
+     * @param executors the thread pool used to write the files
+     * @param bufferPool the pool of buffers used for decompressed data
+     * @param blobs the blob store of the extracted files
+     */
+    ArchiveExtractor(ExecutorService executors, BufferPool bufferPool, BlobStore blobs) {
+        this.executors = executors;
+        this.bufferPool = bufferPool;
+        this.blobs = blobs;
+    }
+
+    /**
+     * Extract the archive of a publisher into a directory.
+     * @param chunks the archive data
+     * @param dir the target directory
+     * @param compressed true if the archive is {@code gzip} compressed
+     * @return a future that completes normally when the archive is extracted or exceptionally if an error occurred,
+     * an invalid archive completes the future with an {@link IllegalArgumentException}
+     */
+    CompletionStage<Void> extract(Publisher<DataChunk> chunks, Path dir, boolean compressed) {
+        Extractor extractor = new Extractor(dir.toAbsolutePath().normalize(), compressed);
+        extractor.future.whenComplete((r, ex) -> {
+            if (ex != null) {
+                LOGGER.log(Level.WARNING, "Extract error, dir=" + dir, ex);
+            } else if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Archive extracted, dir={0}, entries={1}", new Object[]{
+                    dir,
+                    extractor.entries
+                });
+            }
+        });
+        chunks.subscribe(extractor);
+        return extractor.future;
+    }
+
+    private enum State {
+        HEADER,
+        DATA,
+        PADDING,
+        END
+    }
+
+    /**
+     * Subscriber that extracts one archive, the signals are processed in order on the thread pool.
+     */
+    private final class Extractor implements Subscriber<DataChunk> {
+
+        private final Path dir;
+        private final GzipInflater inflater;
+        private final List<ByteBuffer> buffers;
+        private final Set<Path> directories;
+        private final byte[] header;
+        private final MessageDigest digest;
+        private final CompletableFuture<Void> future;
+        private CompletableFuture<Void> tail;
+        private Subscription subscription;
+        private State state;
+        private int headerLength;
+        private long remaining;
+        private int padding;
+        private FileChannel channel;
+        private Path tmpFile;
+        private Path target;
+        private ByteArrayOutputStream longName;
+        private String nextName;
+        private int entries;
+
+        Extractor(Path dir, boolean compressed) {
+            this.dir = dir;
+            this.inflater = compressed ? new GzipInflater(bufferPool) : null;
+            this.buffers = new LinkedList<>();
+            this.directories = new HashSet<>();
+            this.header = new byte[BLOCK_SIZE];
+            this.digest = BlobStore.digest();
+            this.future = new CompletableFuture<>();
+            this.tail = CompletableFuture.completedFuture(null);
+            this.state = State.HEADER;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            schedule(() -> {
+                try {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    if (inflater != null) {
+                        inflater.inflate(item.data(), buffers);
+                        for (ByteBuffer buffer : buffers) {
+                            process(buffer);
+                        }
+                    } else {
+                        process(item.data());
+                    }
+                } catch (Throwable ex) {
+                    subscription.cancel();
+                    fail(ex);
+                    return;
+                } finally {
+                    item.release();
+                    for (ByteBuffer buffer : buffers) {
+                        bufferPool.release(buffer);
+                    }
+                    buffers.clear();
+                }
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+            schedule(() -> fail(ex));
+        }
+
+        @Override
+        public void onComplete() {
+            schedule(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    if (inflater != null) {
+                        inflater.finish();
+                        inflater.end();
+                    }
+                    if (!(state == State.END || (state == State.HEADER && headerLength == 0 && nextName == null))) {
+                        throw new ArchiveException("Truncated archive");
+                    }
+                } catch (Throwable ex) {
+                    fail(ex);
+                    return;
+                }
+                future.complete(null);
+            });
+        }
+
+        private void schedule(Runnable task) {
+            tail = tail.thenRunAsync(task, executors);
+        }
+
+        private void fail(Throwable ex) {
+            if (future.isDone()) {
+                return;
+            }
+            if (inflater != null) {
+                inflater.end();
+            }
+            closeEntry();
+            if (ex instanceof ArchiveException || ex instanceof ZipException) {
+                future.completeExceptionally(new IllegalArgumentException("Invalid archive: " + ex.getMessage(), ex));
+            } else {
+                future.completeExceptionally(ex);
+            }
+        }
+
+        private void process(ByteBuffer data) throws IOException {
+            while (data.hasRemaining() && state != State.END) {
+                int n;
+                switch (state) {
+                    case HEADER:
+                        n = Math.min(BLOCK_SIZE - headerLength, data.remaining());
+                        data.get(header, headerLength, n);
+                        headerLength += n;
+                        if (headerLength == BLOCK_SIZE) {
+                            headerLength = 0;
+                            readHeader();
+                        }
+                        break;
+                    case DATA:
+                        n = (int) Math.min(remaining, data.remaining());
+                        ByteBuffer slice = data.duplicate();
+                        slice.limit(slice.position() + n);
+                        if (channel != null) {
+                            digest.update(slice.duplicate());
+                            while (slice.hasRemaining()) {
+                                channel.write(slice);
+                            }
+                        } else if (longName != null) {
+                            if (longName.size() + n > MAX_LONG_NAME) {
+                                throw new ArchiveException("Long name too long");
+                            }
+                            while (slice.hasRemaining()) {
+                                longName.write(slice.get());
+                            }
+                        }
+                        data.position(data.position() + n);
+                        remaining -= n;
+                        if (remaining == 0) {
+                            endEntry();
+                        }
+                        break;
+                    case PADDING:
+                        n = Math.min(padding, data.remaining());
+                        data.position(data.position() + n);
+                        padding -= n;
+                        if (padding == 0) {
+                            state = State.HEADER;
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Invalid state: " + state);
+                }
+            }
+        }
+
+        private void readHeader() throws IOException {
+            if (isZeroBlock()) {
+                // end of archive marker, the remaining data is ignored
+                state = State.END;
+                return;
+            }
+            if (parseNumber(148, 8) != checksum()) {
+                throw new ArchiveException("Invalid header checksum");
+            }
+            long size = parseNumber(124, 12);
+            if (size < 0) {
+                throw new ArchiveException("Invalid entry size");
+            }
+            String name = nextName;
+            nextName = null;
+            if (name == null) {
+                name = parseString(0, 100);
+                if (parseString(257, 5).equals("ustar")) {
+                    String prefix = parseString(345, 155);
+                    if (!prefix.isEmpty()) {
+                        name = prefix + "/" + name;
+                    }
+                }
+            }
+            byte type = header[156];
+            switch (type) {
+                case 'L':
+                    longName = new ByteArrayOutputStream();
+                    break;
+                case '5':
+                    createDirectories(resolve(name));
+                    break;
+                case '0':
+                case '7':
+                case 0:
+                    if (name.endsWith("/")) {
+                        createDirectories(resolve(name));
+                    } else {
+                        target = resolve(name);
+                        tmpFile = blobs.tempFile();
+                        channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE);
+                        digest.reset();
+                        entries++;
+                    }
+                    break;
+                default:
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.log(Level.FINE, "Skipping archive entry, dir={0}, name={1}, type={2}",
+                                new Object[]{
+                                    dir,
+                                    name,
+                                    (char) type
+                                });
+                    }
+            }
+            remaining = size;
+            padding = (int) ((BLOCK_SIZE - (size % BLOCK_SIZE)) % BLOCK_SIZE);
+            if (size == 0) {
+                endEntry();
+            } else {
+                state = State.DATA;
+            }
+        }
+
+        private void endEntry() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                blobs.commit(tmpFile, BlobStore.hash(digest), target);
+                tmpFile = null;
+            }
+            if (longName != null) {
+                nextName = trimNul(new String(longName.toByteArray(), StandardCharsets.UTF_8));
+                longName = null;
+            }
+            state = padding > 0 ? State.PADDING : State.HEADER;
+        }
+
+        private void closeEntry() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.FINE, "Error while closing archive entry", ex);
+                }
+                channel = null;
+            }
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ex) {
+                    LOGGER.log(Level.FINE, "Error while deleting archive entry", ex);
+                }
+                tmpFile = null;
+            }
+        }
+
+        private Path resolve(String name) throws ArchiveException {
+            Path path = dir.resolve(name).normalize();
+            if (name.isEmpty() || !path.startsWith(dir) || path.equals(dir)) {
+                throw new ArchiveException("Invalid entry name: " + name);
+            }
+            return path;
+        }
+
+        private void createDirectories(Path path) throws IOException {
+            if (directories.add(path)) {
+                Files.createDirectories(path);
+            }
+        }
+
+        private boolean isZeroBlock() {
+            for (byte b : header) {
+                if (b != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long checksum() {
+            long sum = 0;
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                // the checksum field is summed as spaces
+                sum += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xFF);
+            }
+            return sum;
+        }
+
+        private long parseNumber(int offset, int length) throws ArchiveException {
+            if ((header[offset] & 0x80) != 0) {
+                // GNU base-256 encoding
+                long value = header[offset] & 0x7F;
+                for (int i = offset + 1; i < offset + length; i++) {
+                    if ((value >>> 55) != 0) {
+                        throw new ArchiveException("Number too large");
+                    }
+                    value = (value << 8) | (header[i] & 0xFF);
+                }
+                return value;
+            }
+            long value = 0;
+            for (int i = offset; i < offset + length; i++) {
+                byte b = header[i];
+                if (b == 0 || b == ' ') {
+                    if (value > 0) {
+                        break;
+                    }
+                    continue;
+                }
+                if (b < '0' || b > '7') {
+                    throw new ArchiveException("Invalid octal number");
+                }
+                value = (value << 3) + (b - '0');
+            }
+            return value;
+        }
+
+        private String parseString(int offset, int length) {
+            int end = offset;
+            while (end < offset + length && header[end] != 0) {
+                end++;
+            }
+            return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String trimNul(String str) {
+        int end = str.indexOf('\0');
+        return end >= 0 ? str.substring(0, end) : str;
+    }
+
+    /**
+     * Error raised when the archive is not valid.
+     */
+    private static final class ArchiveException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        ArchiveException(String message) {
+            super(message);
+        }
+    }
+}
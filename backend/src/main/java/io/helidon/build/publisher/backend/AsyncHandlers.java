@@ -1,6 +1,7 @@
 package io.helidon.build.publisher.backend;
 
 import io.helidon.common.http.Http;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -60,6 +61,10 @@ final class AsyncHandlers {
 
         @Override
         public Void apply(Throwable ex) {
+            if (ex instanceof CompletionException && ex.getCause() != null) {
+                // thrown by the dependent stages
+                ex = ex.getCause();
+            }
             if (ex instanceof IllegalStateException
                     || ex instanceof IllegalArgumentException) {
                 request.next(new BadRequestException(ex.getMessage(), ex));
@@ -1,25 +1,42 @@
 package io.helidon.build.publisher.backend;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 import io.helidon.common.http.Http;
+import io.helidon.common.http.MediaType;
 import io.helidon.webserver.BadRequestException;
 import io.helidon.webserver.Routing;
 import io.helidon.webserver.ServerRequest;
 import io.helidon.webserver.ServerResponse;
 import io.helidon.webserver.Service;
 
-import io.helidon.build.publisher.model.DescriptorFileManager;
+import io.helidon.build.publisher.model.DescriptorJournalManager;
 import io.helidon.build.publisher.model.EventProcessor;
-import io.helidon.build.publisher.model.events.PipelineEvents;
+import io.helidon.build.publisher.model.JacksonSupport;
+import io.helidon.build.publisher.model.PipelineIndex;
+import io.helidon.build.publisher.model.PipelineInfoWriter;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.StepCompletedEvent;
 
 import static io.helidon.common.CollectionsHelper.listOf;
 import static io.helidon.common.http.Http.Status.CREATED_201;
 import static io.helidon.common.http.Http.Status.OK_200;
+import static io.helidon.common.http.Http.Status.SERVICE_UNAVAILABLE_503;
+import static io.helidon.common.http.Http.Status.UNSUPPORTED_MEDIA_TYPE_415;
 
 /**
  * This service implements the endpoints used by the Jenkins plugin.
@@ -27,17 +44,39 @@ import static io.helidon.common.http.Http.Status.OK_200;
 final class BackendService implements Service {
 
     private static final Logger LOGGER = Logger.getLogger(BackendService.class.getName());
+    private static final long DEFAULT_CONTENT_LENGTH = 256 * 1024; // estimate used for chunked requests without hint
+    private static final int RETRY_AFTER = 2; // delay in seconds advertised when the budget is exceeded
+    private static final int BUFFER_SIZE = 64 * 1024; // size of the buffers used for decompressed data
+    private static final int MAX_POOLED_BUFFERS = 64;
+    private static final String ACCEPT_PUT = "Accept-Put";
+    private static final MediaType SMILE_MEDIA_TYPE = MediaType.parse(JacksonSupport.SMILE_CONTENT_TYPE);
     private final Path storagePath;
-    private final EventProcessor eventProcessor;
+    private final EventScheduler eventScheduler;
     private final FileAppender appender;
+    private final ArchiveExtractor extractor;
+    private final BlobStore blobs;
+    private final ExecutorService executors;
+    private final boolean blockLogs;
+    private final AppendBudget budget;
+    private final BufferPool bufferPool;
 
     /**
      * Create a new instance.
      * @param path storage path
-     * @param appenderThreads number of threads used for appending data
+     * @param eventThreads number of threads used for applying events
+     * @param appenderThreads number of threads used for appending data, extracting archives and linking blobs
+     * @param maxOpenFiles maximum number of files kept open between appends
+     * @param appenderBudget maximum number of bytes in flight for the appends
+     * @param appenderPipelineBudget maximum number of bytes in flight for the appends of a pipeline
+     * @param blockLogs {@code true} if the step logs should be stored as block compressed logs
+     * @param cacheSize maximum number of running pipelines kept in memory
+     * @param flushInterval interval in seconds between writes of the cached pipelines
      */
-    BackendService(Path storagePath, int appenderThreads) {
+    BackendService(Path storagePath, int eventThreads, int appenderThreads, int maxOpenFiles, long appenderBudget,
+            long appenderPipelineBudget, boolean blockLogs, int cacheSize, int flushInterval) {
+
         this.storagePath = storagePath;
+        this.blockLogs = blockLogs;
         if (!Files.exists(storagePath)) {
             try {
                 Files.createDirectories(storagePath);
@@ -45,58 +84,301 @@ final class BackendService implements Service {
                 throw new RuntimeException(ex);
             }
         }
-        this.appender = new FileAppender(appenderThreads);
-        // TODO implement a hook for new pipeline descriptor saved
-        // and implement a simple chronological index of pipelines in a CSV file (id repourl ref)
-        // this will avoid the frontend-api listing files in the storage directory
-        this.eventProcessor = new EventProcessor(new DescriptorFileManager(storagePath), listOf(new GitHubInfoAugmenter()));
-        LOGGER.log(Level.INFO, "Creating backend service, storagePath={0}, appender nThreads={1}", new Object[]{
+        this.bufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+        this.appender = new FileAppender(appenderThreads, maxOpenFiles, bufferPool);
+        this.executors = Executors.newFixedThreadPool(appenderThreads);
+        this.blobs = new BlobStore(storagePath);
+        this.extractor = new ArchiveExtractor(executors, bufferPool, blobs);
+        this.budget = new AppendBudget(appenderBudget, appenderPipelineBudget);
+        PipelineIndex index = new PipelineIndex(storagePath);
+        if (!index.exists()) {
+            index.rebuild();
+        }
+        PipelineCache cache = new PipelineCache(new DescriptorJournalManager(storagePath), cacheSize, flushInterval);
+        EventProcessor eventProcessor = new EventProcessor(cache, listOf(new GitHubInfoAugmenter()),
+                listOf(index, new PipelineInfoWriter(storagePath), this::onEvent));
+        this.eventScheduler = new EventScheduler(eventProcessor, eventThreads);
+        LOGGER.log(Level.INFO, "Creating backend service, storagePath={0}, event nThreads={1}, appender nThreads={2},"
+                + " maxOpenFiles={3}, appenderBudget={4}, appenderPipelineBudget={5}, blockLogs={6}, cacheSize={7},"
+                + " flushInterval={8}", new Object[]{
             storagePath,
-            appenderThreads
+            eventThreads,
+            appenderThreads,
+            maxOpenFiles,
+            appenderBudget,
+            appenderPipelineBudget,
+            blockLogs,
+            cacheSize,
+            flushInterval
         });
     }
 
     @Override
     public void update(Routing.Rules rules) {
         rules.get("/ping", this::ping)
+             .get("/budget/{pipelineId}", this::checkBudget)
              .put("/events", this::processEvents)
              .put("/output/{pipelineId}/{stepId}", this::appendOutput)
-             .post("/files/{pipelineId}/{filepath:.+}", this::uploadFile);
+             .post("/files/{pipelineId}/{filepath:.+}", this::uploadFile)
+             .post("/archive/{pipelineId}/{stepsId}", this::uploadArchive)
+             .post("/blobs/{pipelineId}/{stepsId}", this::linkBlobs);
     }
 
     private void ping(ServerRequest req, ServerResponse res) {
         res.status(OK_200).send();
     }
 
+    /**
+     * Test if a payload would currently be admitted, so that a client can wait before re-sending a rejected payload.
+     * @param req request
+     * @param res response
+     */
+    private void checkBudget(ServerRequest req, ServerResponse res) {
+        if (!budget.available(req.path().param("pipelineId"), requestLength(req))) {
+            res.headers().put(Http.Header.RETRY_AFTER, String.valueOf(RETRY_AFTER));
+            res.status(SERVICE_UNAVAILABLE_503).send();
+            return;
+        }
+        res.status(OK_200).send();
+    }
+
     private void processEvents(ServerRequest req, ServerResponse res) {
-        req.content().as(PipelineEvents.class).thenAccept(pipelineEvents -> {
-            eventProcessor.process(pipelineEvents.events());
-            res.status(OK_200).send();
-        }).exceptionally(AsyncHandlers.error(req));
+        // advertise the supported request content codings (RFC 7694)
+        res.headers().put(Http.Header.ACCEPT_ENCODING, "gzip");
+        // advertise the supported request media types, preferred first (modeled after Accept-Patch)
+        res.headers().put(ACCEPT_PUT, JacksonSupport.SMILE_CONTENT_TYPE + ", " + MediaType.APPLICATION_JSON);
+        MediaType contentType = req.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+        boolean smile = SMILE_MEDIA_TYPE.test(contentType);
+        boolean json = MediaType.APPLICATION_JSON.test(contentType);
+        String encoding = req.headers().value(Http.Header.CONTENT_ENCODING).orElse("identity");
+        if (!(smile || json) || !("identity".equals(encoding) || "gzip".equals(encoding))) {
+            res.status(UNSUPPORTED_MEDIA_TYPE_415).send();
+            return;
+        }
+        EventsSubscriber subscriber;
+        try {
+            subscriber = new EventsSubscriber(eventScheduler, isCompressed(req) ? bufferPool : null, smile);
+        } catch (IOException ex) {
+            req.next(ex);
+            return;
+        }
+        req.content().subscribe(subscriber);
+        subscriber.future()
+                .thenAccept(AsyncHandlers.status(res, OK_200))
+                .exceptionally(AsyncHandlers.error(req));
+    }
+
+    /**
+     * Close the files of the completed steps and pipelines.
+     * @param event event
+     */
+    private void onEvent(PipelineEvent event) {
+        switch (event.eventType()) {
+            case STEP_COMPLETED:
+                appender.close(stepOutputPath(event.pipelineId(), ((StepCompletedEvent) event).id()));
+                break;
+            case PIPELINE_COMPLETED:
+                appender.closeAll(storagePath.resolve(event.pipelineId()));
+                break;
+            default:
+        }
     }
 
     private void appendOutput(ServerRequest req, ServerResponse res) {
-        Path pipelinePath = storagePath.resolve(req.path().param("pipelineId"));
-        Path path = pipelinePath.resolve("step-" + req.path().param("stepId") + ".log");
+        Path pipelinePath = pipelinePath(req);
+        Path path = stepOutputPath(req.path().param("pipelineId"), req.path().param("stepId"));
         if (!path.getParent().equals(pipelinePath)) {
             throw new BadRequestException("Invalid stepId");
         }
-        appender.append(req.content(), path, isCompressed(req))
-                .thenAccept(AsyncHandlers.status(res, OK_200))
-                .exceptionally(AsyncHandlers.error(req));
+        boolean compressed = isCompressed(req);
+        // a log keeps the format it was created with
+        if (appender.isBlockLog(path, blockLogs)) {
+            admit(req, res, OK_200, () -> appender.appendBlocks(req.content(), path, compressed));
+        } else {
+            admit(req, res, OK_200, () -> appender.appendLog(req.content(), path, compressed));
+        }
     }
 
     private void uploadFile(ServerRequest req, ServerResponse res) {
-        Path pipelinePath = storagePath.resolve(req.path().param("pipelineId"));
-        Path path = pipelinePath.resolve(req.path().param("filepath"));
-        if (!path.startsWith(pipelinePath)) {
+        Path pipelinePath = pipelinePath(req);
+        Path path = pipelinePath.resolve(req.path().param("filepath")).normalize();
+        if (!path.startsWith(pipelinePath) || path.equals(pipelinePath)) {
             throw new BadRequestException("Invalid path");
         }
-        appender.append(req.content(), path, isCompressed(req))
-                .thenAccept(AsyncHandlers.status(res, CREATED_201))
+        Path relativePath = pipelinePath.relativize(path);
+        if (relativePath.getNameCount() > 2 && "artifacts".equals(relativePath.getName(1).toString())) {
+            // {stepsId}/artifacts/{filepath}
+            boolean compressed = isCompressed(req);
+            admit(req, res, CREATED_201, () -> uploadBlob(req, path, compressed));
+        } else {
+            append(req, res, path, /* keepOpen */ false, CREATED_201);
+        }
+    }
+
+    private void uploadArchive(ServerRequest req, ServerResponse res) {
+        Path stepsPath = stepsPath(req);
+        boolean compressed = isCompressed(req);
+        admit(req, res, CREATED_201,
+                () -> extractor.extract(req.content(), stepsPath.resolve("artifacts"), compressed));
+    }
+
+    /**
+     * Link the artifacts of a steps stage to the existing blobs.
+     * The request content is a list of hashes and artifact filenames in the {@code sha256sum} format, the response
+     * content is the list of filenames that do not match any blob and need to be uploaded.
+     * @param req request
+     * @param res response
+     */
+    private void linkBlobs(ServerRequest req, ServerResponse res) {
+        Path artifactsPath = stepsPath(req).resolve("artifacts");
+        req.content().as(String.class)
+                .thenApplyAsync((content) -> linkBlobs(artifactsPath, content), executors)
+                .thenAccept((missing) -> {
+                    res.headers().contentType(MediaType.TEXT_PLAIN);
+                    res.status(OK_200).send(String.join("\n", missing));
+                })
                 .exceptionally(AsyncHandlers.error(req));
     }
 
+    private List<String> linkBlobs(Path dir, String content) {
+        List<String> missing = new LinkedList<>();
+        for (String line : content.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            // <hash><space><space or *><filename>
+            String hash = line.length() > 66 ? line.substring(0, 64) : null;
+            String filename = hash != null ? line.substring(66) : null;
+            Path path = filename != null ? dir.resolve(filename).normalize() : null;
+            if (!BlobStore.isValid(hash) || line.charAt(64) != ' ' || !path.startsWith(dir) || path.equals(dir)) {
+                throw new IllegalArgumentException("Invalid line: " + line);
+            }
+            try {
+                if (!blobs.link(hash, path)) {
+                    missing.add(filename);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Write the request content to a temporary file while computing its hash and store it as a blob.
+     * @param req request
+     * @param path the path to link to the blob
+     * @param compressed true if the request content is {@code gzip} compressed
+     * @return a future that completes when the blob is linked
+     */
+    private CompletionStage<Void> uploadBlob(ServerRequest req, Path path, boolean compressed) {
+        Path tmpFile;
+        try {
+            tmpFile = blobs.tempFile();
+        } catch (IOException ex) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        MessageDigest digest = BlobStore.digest();
+        return appender.append(req.content(), tmpFile, compressed, /* keepOpen */ false, digest)
+                .thenRun(() -> {
+                    try {
+                        blobs.commit(tmpFile, BlobStore.hash(digest), path);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .whenComplete((r, ex) -> {
+                    if (ex != null) {
+                        try {
+                            Files.deleteIfExists(tmpFile);
+                        } catch (IOException e) {
+                            LOGGER.log(Level.FINE, "Unable to delete temporary file: " + tmpFile, e);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Append the request content to a file.
+     * @param req request
+     * @param res response
+     * @param path file path
+     * @param keepOpen true if the file should be kept open for subsequent appends
+     * @param status response status on success
+     */
+    private void append(ServerRequest req, ServerResponse res, Path path, boolean keepOpen, Http.Status status) {
+        boolean compressed = isCompressed(req);
+        admit(req, res, status, () -> appender.append(req.content(), path, compressed, keepOpen));
+    }
+
+    /**
+     * Write the request content if the budget of the pipeline allows it.
+     * If the budget is exceeded, the request is rejected with {@code 503} and {@code Retry-After} without reading the
+     * content so that the client can retry later.
+     * @param req request
+     * @param res response
+     * @param status response status on success
+     * @param action the action that consumes the request content
+     */
+    private void admit(ServerRequest req, ServerResponse res, Http.Status status,
+            Supplier<CompletionStage<Void>> action) {
+
+        String pipelineId = req.path().param("pipelineId");
+        long nbytes = requestLength(req);
+        if (!budget.tryAcquire(pipelineId, nbytes)) {
+            res.headers().put(Http.Header.RETRY_AFTER, String.valueOf(RETRY_AFTER));
+            res.status(SERVICE_UNAVAILABLE_503).send();
+            return;
+        }
+        action.get()
+                .whenComplete((r, ex) -> budget.release(pipelineId, nbytes))
+                .thenAccept(AsyncHandlers.status(res, status))
+                .exceptionally(AsyncHandlers.error(req));
+    }
+
+    /**
+     * Get the number of bytes accounted for a request.
+     * The {@code Content-Length} is used if present, otherwise the size hint given by the client with the
+     * {@code bytes} query parameter, e.g. for a chunked archive.
+     * @param req request
+     * @return number of bytes
+     */
+    private static long requestLength(ServerRequest req) {
+        OptionalLong contentLength = req.headers().contentLength();
+        if (contentLength.isPresent()) {
+            return contentLength.getAsLong();
+        }
+        try {
+            return req.queryParams().first("bytes").map(Long::parseLong).orElse(DEFAULT_CONTENT_LENGTH);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid bytes");
+        }
+    }
+
+    private Path pipelinePath(ServerRequest req) {
+        String pipelineId = req.path().param("pipelineId");
+        if (pipelineId.startsWith(".")) {
+            // reserved, e.g. .blobs
+            throw new BadRequestException("Invalid pipelineId");
+        }
+        return storagePath.resolve(pipelineId);
+    }
+
+    private Path stepsPath(ServerRequest req) {
+        Path pipelinePath = pipelinePath(req);
+        Path stepsPath = pipelinePath.resolve(req.path().param("stepsId")).normalize();
+        if (!stepsPath.getParent().equals(pipelinePath)) {
+            throw new BadRequestException("Invalid stepsId");
+        }
+        return stepsPath;
+    }
+
+    private Path stepOutputPath(String pipelineId, String stepId) {
+        return storagePath.resolve(pipelineId).resolve("step-" + stepId + ".log");
+    }
+
     private static boolean isCompressed(ServerRequest request) {
         return request.headers().value(Http.Header.CONTENT_ENCODING).map(hdr -> "gzip".equals(hdr)).orElse(false);
     }
@@ -0,0 +1,162 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Content addressed blob store.
+ * The blobs are stored by {@code SHA-256} hash under {@code .blobs/<2 first hex digits>/<hex digest>} in the storage
+ * directory. The files in the pipeline directories are hard links to the blobs, they are copied if the file system
+ * does not support hard links. Blobs are never modified once stored, the links are replaced instead.
+ */
+final class BlobStore {
+
+    private static final Logger LOGGER = Logger.getLogger(BlobStore.class.getName());
+    private static final String ALGORITHM = "SHA-256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path dir;
+    private final Path tmpDir;
+
+    /**
+     * Create a new blob store.
+     * @param storagePath storage path
+     */
+    BlobStore(Path storagePath) {
+        this.dir = storagePath.resolve(".blobs");
+        this.tmpDir = dir.resolve("tmp");
+        try {
+            Files.createDirectories(tmpDir);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Create a new message digest to compute the hash of a blob.
+     * @return MessageDigest
+     */
+    static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Get the hexadecimal representation of a computed digest.
+     * @param digest digest
+     * @return hash
+     */
+    static String hash(MessageDigest digest) {
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Test if the given string is a valid hash.
+     * @param hash the string to test
+     * @return {@code true} if valid, {@code false} otherwise
+     */
+    static boolean isValid(String hash) {
+        if (hash == null || hash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create a temporary file to write a new blob.
+     * @return temporary file path
+     * @throws IOException if an IO error occurs
+     */
+    Path tempFile() throws IOException {
+        return Files.createTempFile(tmpDir, "blob", null);
+    }
+
+    /**
+     * Store a temporary file as a blob and link it to the given target.
+     * The temporary file is deleted if the blob already exists.
+     * @param tmpFile the temporary file created with {@link #tempFile()}
+     * @param hash the hash of the temporary file
+     * @param target the path to link
+     * @throws IOException if an IO error occurs
+     */
+    void commit(Path tmpFile, String hash, Path target) throws IOException {
+        Path blob = blobPath(hash);
+        if (Files.exists(blob)) {
+            Files.delete(tmpFile);
+        } else {
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(tmpFile, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException ex) {
+                // concurrently stored
+                Files.delete(tmpFile);
+            }
+        }
+        createLink(blob, target);
+    }
+
+    /**
+     * Link a blob to the given target if it exists.
+     * @param hash the blob hash
+     * @param target the path to link
+     * @return {@code true} if the blob exists, {@code false} otherwise
+     * @throws IOException if an IO error occurs
+     */
+    boolean link(String hash, Path target) throws IOException {
+        Path blob = blobPath(hash);
+        if (!Files.exists(blob)) {
+            return false;
+        }
+        createLink(blob, target);
+        return true;
+    }
+
+    private Path blobPath(String hash) {
+        if (!isValid(hash)) {
+            throw new IllegalArgumentException("Invalid hash: " + hash);
+        }
+        return dir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void createLink(Path blob, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, blob);
+        } catch (UnsupportedOperationException | FileSystemException ex) {
+            if (ex instanceof FileAlreadyExistsException) {
+                throw (FileAlreadyExistsException) ex;
+            }
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Unable to create link, copying blob, blob={0}, target={1}", new Object[]{
+                    blob,
+                    target
+                });
+            }
+            Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
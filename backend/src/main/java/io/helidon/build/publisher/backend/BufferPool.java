@@ -0,0 +1,55 @@
+package io.helidon.build.publisher.backend;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of fixed size heap buffers.
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers;
+    private final AtomicInteger size;
+
+    /**
+     * Create a new buffer pool.
+     * @param bufferSize the size of the buffers
+     * @param maxBuffers the maximum number of idle buffers kept in the pool
+     */
+    BufferPool(int bufferSize, int maxBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.buffers = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Get a cleared buffer from the pool, or allocate a new one if the pool is empty.
+     * @return ByteBuffer
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(bufferSize);
+        }
+        size.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool.
+     * The buffer is discarded if the pool is full.
+     * @param buffer buffer acquired from this pool
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && size.incrementAndGet() <= maxBuffers) {
+            buffers.offer(buffer);
+        } else if (buffer.capacity() == bufferSize) {
+            size.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.BlockLog;
+import io.helidon.build.publisher.model.BlockLogWriter;
+import io.helidon.build.publisher.model.LineIndexWriter;
+
+/**
+ * Cache of open append channels.
+ * The channels are kept open between appends to the same file along with the end-of-file position, they are closed
+ * when the file is completed, when idle or when they are the least recently used above the capacity. The writers of
+ * {@link BlockLog block compressed logs} are cached the same way.
+ * The directories created or found are also remembered so that a cached append does not require any metadata
+ * operation.
+ */
+final class ChannelCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ChannelCache.class.getName());
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    private final ExecutorService executor;
+    private final int maxEntries;
+    private final LinkedHashMap<Path, Entry> entries;
+    private final Set<Path> directories;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Create a new channel cache.
+     * @param executor the executor used by the channels to complete the writes
+     * @param maxEntries the maximum number of channels to keep open
+     */
+    ChannelCache(ExecutorService executor, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid maxEntries: " + maxEntries);
+        }
+        this.executor = executor;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, /* access order */ true);
+        this.directories = ConcurrentHashMap.newKeySet();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        long interval = IDLE_TIMEOUT / 2;
+        scheduler.scheduleWithFixedDelay(this::closeIdle, interval, interval, TimeUnit.MILLISECONDS);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Creating channel cache, maxEntries={0}", maxEntries);
+        }
+    }
+
+    /**
+     * Get a channel positioned at the end of a file.
+     * The entry must be released with {@link #release(Entry, boolean)} when the append is done.
+     * @param path the file path
+     * @param keepOpen {@code true} if the channel should be cached, {@code false} if it should be closed on release
+     * @return Entry
+     * @throws IOException if an error occurs while opening the channel
+     */
+    Entry acquire(Path path, boolean keepOpen) throws IOException {
+        // use the cached channel if any, even if keepOpen is false, to keep the cached position valid
+        Entry entry = cached(path);
+        if (entry != null) {
+            return entry;
+        }
+        AsynchronousFileChannel channel = open(path);
+        return add(new Entry(path, channel, null, channel.size(), keepOpen));
+    }
+
+    /**
+     * Get the writer of a block compressed log, the writer is cached.
+     * The entry must be released with {@link #release(Entry, boolean)} when the append is done.
+     * @param path the log path
+     * @return Entry
+     * @throws IOException if an error occurs while opening the writer
+     */
+    Entry acquireBlocks(Path path) throws IOException {
+        Entry entry = cached(path);
+        if (entry != null) {
+            return entry;
+        }
+        Path dir = path.getParent();
+        createDirectories(dir);
+        BlockLogWriter writer;
+        try {
+            writer = new BlockLogWriter(path);
+        } catch (NoSuchFileException ex) {
+            // the directory was removed
+            directories.remove(dir);
+            createDirectories(dir);
+            writer = new BlockLogWriter(path);
+        }
+        return add(new Entry(path, null, writer, writer.size(), /* cached */ true));
+    }
+
+    /**
+     * Get a cached entry.
+     * @param path the file path
+     * @return the entry, or {@code null} if not cached
+     */
+    private Entry cached(Path path) {
+        synchronized (entries) {
+            Entry entry = entries.get(path);
+            if (entry != null) {
+                entry.users++;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Add a new entry to the cache, unless the entry is not cached.
+     * @param entry the new entry
+     * @return the entry to use
+     */
+    private Entry add(Entry entry) {
+        if (!entry.cached) {
+            return entry;
+        }
+        entry.users = 1;
+        Entry existing;
+        List<Entry> eldest = null;
+        synchronized (entries) {
+            existing = entries.get(entry.path);
+            if (existing != null) {
+                // opened concurrently
+                existing.users++;
+            } else {
+                entries.put(entry.path, entry);
+                eldest = eldest();
+            }
+        }
+        if (existing != null) {
+            close(entry);
+            return existing;
+        }
+        close(eldest);
+        return entry;
+    }
+
+    /**
+     * Release an entry acquired with {@link #acquire(Path, boolean)} or {@link #acquireBlocks(Path)}.
+     * @param entry the entry to release
+     * @param invalid {@code true} if the channel or position should not be re-used, e.g. after a failed write
+     */
+    void release(Entry entry, boolean invalid) {
+        if (!entry.cached) {
+            close(entry);
+            return;
+        }
+        boolean close;
+        synchronized (entries) {
+            entry.users--;
+            entry.lastAccess = System.currentTimeMillis();
+            if (invalid && entries.get(entry.path) == entry) {
+                entries.remove(entry.path);
+                entry.removed = true;
+            }
+            close = entry.removed && entry.users == 0;
+        }
+        if (close) {
+            close(entry);
+        }
+    }
+
+    /**
+     * Close the cached channel of a file.
+     * If the channel is in use, it is closed when released.
+     * @param path the file path
+     */
+    void close(Path path) {
+        Entry entry;
+        synchronized (entries) {
+            entry = remove(path);
+        }
+        if (entry != null) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Closing completed file, path={0}", path);
+            }
+            close(entry);
+        }
+    }
+
+    /**
+     * Close the cached channels of all the files under a directory and forget the directory.
+     * @param dir the directory
+     */
+    void closeAll(Path dir) {
+        List<Entry> closed = new LinkedList<>();
+        synchronized (entries) {
+            for (Path path : new LinkedList<>(entries.keySet())) {
+                if (path.startsWith(dir)) {
+                    Entry entry = remove(path);
+                    if (entry != null) {
+                        closed.add(entry);
+                    }
+                }
+            }
+        }
+        directories.removeIf((path) -> path.startsWith(dir));
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Closing files, dir={0}, count={1}", new Object[]{
+                dir,
+                closed.size()
+            });
+        }
+        close(closed);
+    }
+
+    /**
+     * Remove an entry from the cache.
+     * Must be called while holding the lock on {@code entries}.
+     * @param path the file path
+     * @return the entry to close, or {@code null} if there is no entry or if the entry is in use
+     */
+    private Entry remove(Path path) {
+        Entry entry = entries.remove(path);
+        if (entry == null) {
+            return null;
+        }
+        entry.removed = true;
+        return entry.users == 0 ? entry : null;
+    }
+
+    /**
+     * Remove the least recently used entries that exceed the cache capacity.
+     * Entries in use are skipped. Must be called while holding the lock on {@code entries}.
+     * @return entries to close
+     */
+    private List<Entry> eldest() {
+        List<Entry> eldest = new LinkedList<>();
+        Iterator<Entry> it = entries.values().iterator();
+        int count = entries.size() - maxEntries;
+        while (count > 0 && it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.users == 0) {
+                it.remove();
+                entry.removed = true;
+                eldest.add(entry);
+                count--;
+            }
+        }
+        return eldest;
+    }
+
+    /**
+     * Close the channels that have not been used since the idle timeout.
+     */
+    private void closeIdle() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Entry> idle = new LinkedList<>();
+            synchronized (entries) {
+                Iterator<Entry> it = entries.values().iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next();
+                    if (entry.users == 0 && now - entry.lastAccess > IDLE_TIMEOUT) {
+                        it.remove();
+                        entry.removed = true;
+                        idle.add(entry);
+                    }
+                }
+            }
+            if (!idle.isEmpty() && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Closing idle files, count={0}", idle.size());
+            }
+            close(idle);
+        } catch (Throwable ex) {
+            LOGGER.log(Level.WARNING, "Unexpected error while closing idle files", ex);
+        }
+    }
+
+    private void createDirectories(Path dir) throws IOException {
+        if (!directories.contains(dir)) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Creating directory: {0}", dir);
+            }
+            Files.createDirectories(dir);
+            directories.add(dir);
+        }
+    }
+
+    private AsynchronousFileChannel open(Path path) throws IOException {
+        Path dir = path.getParent();
+        createDirectories(dir);
+        try {
+            return AsynchronousFileChannel.open(path, EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+                    executor);
+        } catch (NoSuchFileException ex) {
+            // the directory was removed
+            directories.remove(dir);
+            Files.createDirectories(dir);
+            directories.add(dir);
+            return AsynchronousFileChannel.open(path, EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+                    executor);
+        }
+    }
+
+    private static void close(List<Entry> entries) {
+        for (Entry entry : entries) {
+            close(entry);
+        }
+    }
+
+    private static void close(Entry entry) {
+        try {
+            if (entry.channel != null) {
+                entry.channel.close();
+            } else {
+                entry.writer.close();
+            }
+            if (entry.lineIndex != null) {
+                entry.lineIndex.close();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to close file, path=" + entry.path, ex);
+        }
+    }
+
+    /**
+     * An open channel or block log writer, the position of the end of the file and the writer of its line index if any.
+     */
+    static final class Entry {
+
+        private final Path path;
+        private final AsynchronousFileChannel channel;
+        private final BlockLogWriter writer;
+        private final boolean cached;
+        private volatile long position;
+        private volatile LineIndexWriter lineIndex;
+        private volatile long lastAccess;
+        private int users;
+        private boolean removed;
+
+        private Entry(Path path, AsynchronousFileChannel channel, BlockLogWriter writer, long position,
+                boolean cached) {
+
+            this.path = path;
+            this.channel = channel;
+            this.writer = writer;
+            this.position = position;
+            this.cached = cached;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        /**
+         * Get the channel.
+         * @return AsynchronousFileChannel, or {@code null} if the entry is a block compressed log
+         */
+        AsynchronousFileChannel channel() {
+            return channel;
+        }
+
+        /**
+         * Get the block compressed log writer.
+         * @return BlockLogWriter, or {@code null} if the entry is a channel
+         */
+        BlockLogWriter writer() {
+            return writer;
+        }
+
+        /**
+         * Get the position of the end of the file.
+         * @return position
+         */
+        long position() {
+            return position;
+        }
+
+        /**
+         * Set the position of the end of the file.
+         * @param position new position
+         */
+        void position(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Get the line index writer.
+         * @return LineIndexWriter or {@code null} if not set
+         */
+        LineIndexWriter lineIndex() {
+            return lineIndex;
+        }
+
+        /**
+         * Set the line index writer, it is closed with the channel.
+         * @param lineIndex line index writer
+         */
+        void lineIndex(LineIndexWriter lineIndex) {
+            this.lineIndex = lineIndex;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.helidon.build.publisher.backend;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.EventProcessor;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.metrics.RegistryFactory;
+
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Timer;
+
+/**
+ * Event scheduler.
+ * The events are grouped by pipeline and dispatched to shards by pipeline id. Each shard is a queue processed by a
+ * dedicated thread, thus the events of a pipeline are applied in order and the events of different pipelines are
+ * applied in parallel. Each work item is applied separately, thus an invalid event only fails the work item that
+ * contains it.
+ */
+final class EventScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(EventScheduler.class.getName());
+
+    private final Shard[] shards;
+
+    /**
+     * Create a new event scheduler.
+     * @param processor the processor used to apply the events
+     * @param nshards the number of shards
+     */
+    EventScheduler(EventProcessor processor, int nshards) {
+        if (nshards <= 0) {
+            throw new IllegalArgumentException("Invalid nshards: " + nshards);
+        }
+        MetricRegistry registry = RegistryFactory.getInstance().getRegistry(MetricRegistry.Type.APPLICATION);
+        this.shards = new Shard[nshards];
+        for (int i = 0; i < nshards; i++) {
+            Shard shard = new Shard(i, processor, registry.timer("eventScheduler.shard." + i + ".latency"));
+            // replace the gauge of a previous scheduler
+            registry.remove("eventScheduler.shard." + i + ".queueDepth");
+            registry.register("eventScheduler.shard." + i + ".queueDepth", (Gauge<Integer>) shard.queue::size);
+            Thread thread = new Thread(shard, "event-scheduler-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            shards[i] = shard;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Creating event scheduler, nshards={0}", nshards);
+        }
+    }
+
+    /**
+     * Schedule the given mixed events that may belong to different pipelines.
+     * @param events the events to apply
+     * @return a future that completes normally when all the events are applied or exceptionally if an error occurred
+     */
+    CompletionStage<Void> submit(List<PipelineEvent> events) {
+        Map<String, List<PipelineEvent>> groups = new LinkedHashMap<>();
+        for (PipelineEvent event : events) {
+            groups.computeIfAbsent(event.pipelineId(), (id) -> new LinkedList<>()).add(event);
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<PipelineEvent>> group : groups.entrySet()) {
+            WorkItem workItem = new WorkItem(group.getKey(), group.getValue());
+            schedule(workItem);
+            futures.add(workItem.future);
+        }
+        if (futures.size() == 1) {
+            return futures.get(0);
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private void schedule(WorkItem workItem) {
+        shards[Math.floorMod(workItem.pipelineId.hashCode(), shards.length)].queue.add(workItem);
+    }
+
+    private static final class WorkItem {
+
+        private final String pipelineId;
+        private final List<PipelineEvent> events;
+        private final CompletableFuture<Void> future;
+        private final long time;
+
+        WorkItem(String pipelineId, List<PipelineEvent> events) {
+            this.pipelineId = pipelineId;
+            this.events = events;
+            this.future = new CompletableFuture<>();
+            this.time = System.nanoTime();
+        }
+    }
+
+    /**
+     * A shard is a queue of work items processed by a single thread.
+     */
+    private static final class Shard implements Runnable {
+
+        private final int id;
+        private final EventProcessor processor;
+        private final BlockingQueue<WorkItem> queue;
+        private final Timer latency;
+
+        Shard(int id, EventProcessor processor, Timer latency) {
+            this.id = id;
+            this.processor = processor;
+            this.latency = latency;
+            this.queue = new LinkedBlockingQueue<>();
+        }
+
+        @Override
+        public void run() {
+            List<WorkItem> workItems = new ArrayList<>();
+            while (true) {
+                try {
+                    workItems.add(queue.take());
+                    queue.drainTo(workItems);
+                    for (WorkItem workItem : workItems) {
+                        process(workItem);
+                    }
+                } catch (InterruptedException ex) {
+                    LOGGER.log(Level.WARNING, "Event scheduler thread interrupted, shard={0}", id);
+                    return;
+                } finally {
+                    workItems.clear();
+                }
+            }
+        }
+
+        private void process(WorkItem workItem) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Processing events, shard={0}, pipelineId={1}, events={2}",
+                        new Object[]{
+                            id,
+                            workItem.pipelineId,
+                            workItem.events.size()
+                        });
+            }
+            try {
+                processor.process(workItem.events);
+                workItem.future.complete(null);
+            } catch (Throwable ex) {
+                workItem.future.completeExceptionally(ex);
+            } finally {
+                latency.update(System.nanoTime() - workItem.time, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.helidon.build.publisher.model.PipelineEventsParser;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+/**
+ * Subscriber that parses the request content of the events endpoint.
+ * The events are scheduled in runs, a run is the consecutive events of one pipeline parsed from one chunk of the
+ * content. The content is either JSON or Smile, and is inflated first if it is {@code gzip} compressed.
+ * <p>
+ * The content is not validated before the events are applied: if the content is invalid, the runs parsed before the
+ * invalid part may have been applied when the future completes exceptionally.
+ */
+final class EventsSubscriber implements Subscriber<DataChunk> {
+
+    private final EventScheduler scheduler;
+    private final PipelineEventsParser parser;
+    private final BufferPool pool;
+    private final GzipInflater inflater;
+    private final List<ByteBuffer> buffers;
+    private List<PipelineEvent> run;
+    private final CompletableFuture<Void> future;
+    private final AtomicInteger pending;
+    private volatile Throwable error;
+    private Subscription subscription;
+
+    /**
+     * Create a new subscriber.
+     * @param scheduler the scheduler used to apply the events
+     * @param pool the pool of buffers used to inflate the content, or {@code null} if the content is not compressed
+     * @param smile {@code true} if the content is Smile, {@code false} if it is JSON
+     * @throws IOException if an error occurs while creating the parser
+     */
+    EventsSubscriber(EventScheduler scheduler, BufferPool pool, boolean smile) throws IOException {
+        this.scheduler = scheduler;
+        this.parser = new PipelineEventsParser(this::submit, smile);
+        this.pool = pool;
+        this.inflater = pool != null ? new GzipInflater(pool) : null;
+        this.buffers = new ArrayList<>();
+        this.run = new ArrayList<>();
+        this.future = new CompletableFuture<>();
+        // the request content counts as one pending item until completed
+        this.pending = new AtomicInteger(1);
+    }
+
+    /**
+     * Get the future that completes when all the events are applied.
+     * @return CompletionStage
+     */
+    CompletionStage<Void> future() {
+        return future;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(DataChunk item) {
+        try {
+            if (inflater != null) {
+                inflater.inflate(item.data(), buffers);
+                for (ByteBuffer buffer : buffers) {
+                    parser.parse(buffer);
+                }
+            } else {
+                parser.parse(item.data());
+            }
+            flush();
+        } catch (IOException ex) {
+            subscription.cancel();
+            end();
+            failed(new IllegalArgumentException("Invalid events: " + ex.getMessage(), ex));
+            return;
+        } finally {
+            item.release();
+            for (ByteBuffer buffer : buffers) {
+                pool.release(buffer);
+            }
+            buffers.clear();
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable ex) {
+        end();
+        failed(ex);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            if (inflater != null) {
+                inflater.finish();
+            }
+            parser.end();
+            flush();
+        } catch (IOException ex) {
+            end();
+            failed(new IllegalArgumentException("Invalid events: " + ex.getMessage(), ex));
+            return;
+        }
+        end();
+        completed();
+    }
+
+    private void end() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+    private void submit(PipelineEvent event) {
+        if (!run.isEmpty() && !run.get(0).pipelineId().equals(event.pipelineId())) {
+            flush();
+        }
+        run.add(event);
+    }
+
+    /**
+     * Schedule the current run.
+     */
+    private void flush() {
+        if (run.isEmpty()) {
+            return;
+        }
+        pending.incrementAndGet();
+        scheduler.submit(run).whenComplete((r, ex) -> {
+            if (ex != null && error == null) {
+                error = ex;
+            }
+            completed();
+        });
+        run = new ArrayList<>();
+    }
+
+    /**
+     * Complete the request content with an error.
+     * The future completes when the runs already scheduled are applied.
+     * @param ex error
+     */
+    private void failed(Throwable ex) {
+        error = ex;
+        completed();
+    }
+
+    private void completed() {
+        if (pending.decrementAndGet() == 0) {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(null);
+            }
+        }
+    }
+}
@@ -1,24 +1,27 @@
 package io.helidon.build.publisher.backend;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.concurrent.BlockingQueue;
+import java.security.MessageDigest;
+import java.util.LinkedList;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
 
+import io.helidon.build.publisher.model.BlockLog;
+import io.helidon.build.publisher.model.BlockLogWriter;
+import io.helidon.build.publisher.model.LineIndex;
+import io.helidon.build.publisher.model.LineIndexWriter;
 import io.helidon.common.http.DataChunk;
 import io.helidon.common.reactive.Flow.Publisher;
 import io.helidon.common.reactive.Flow.Subscriber;
@@ -26,24 +29,42 @@ import io.helidon.common.reactive.Flow.Subscription;
 
 /**
  * File appender.
+ * The data is written with asynchronous file channels, the next chunk is requested when the previous one is written.
+ * Appends to the same file are chained in order of submission. The channels of the files being actively appended
+ * are kept open in a {@link ChannelCache}. The appends are not bounded, admission control is done by the caller with
+ * an {@link AppendBudget}. Logs can also be appended as {@link BlockLog block compressed logs}, those are written with
+ * blocking IO on the thread pool and their writers are also kept open in the {@link ChannelCache}.
  */
 final class FileAppender {
 
     private static final Logger LOGGER = Logger.getLogger(FileAppender.class.getName());
-    private static final int QUEUE_SIZE = 1024; // max number of append action in the queue
+    private static final String TAIL_SUFFIX = ".log.tail";
 
     private final ExecutorService executors;
-    private final BlockingQueue<WorkItem>[] workQueues;
+    private final ConcurrentHashMap<Path, CompletableFuture<Void>> tails;
+    private final ConcurrentHashMap<Path, Boolean> blockLogs;
+    private final AtomicInteger pending;
+    private final BufferPool bufferPool;
+    private final ChannelCache channels;
 
     /**
      * Create a new file appender.
-     * @param nthreads the thread pool size
+     * @param nthreads the size of the thread pool used to complete the file writes
+     * @param maxOpenFiles the maximum number of files kept open between appends
+     * @param bufferPool the pool of buffers used for decompressed data
      */
-    FileAppender(int nthreads) {
+    FileAppender(int nthreads, int maxOpenFiles, BufferPool bufferPool) {
         this.executors = Executors.newFixedThreadPool(nthreads);
-        this.workQueues = new BlockingQueue[nthreads];
+        this.channels = new ChannelCache(executors, maxOpenFiles);
+        this.tails = new ConcurrentHashMap<>();
+        this.blockLogs = new ConcurrentHashMap<>();
+        this.pending = new AtomicInteger();
+        this.bufferPool = bufferPool;
         if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.log(Level.FINE, "Creating file appender nThreads={0}", nthreads);
+            LOGGER.log(Level.FINE, "Creating file appender nThreads={0}, maxOpenFiles={1}", new Object[]{
+                nthreads,
+                maxOpenFiles
+            });
         }
     }
 
@@ -52,133 +73,208 @@ final class FileAppender {
      * @param chunks the data
      * @param filePath the file path
      * @param compressed true if the payload is {@code gzip} compressed
+     * @param keepOpen true if the file should be kept open for subsequent appends
      * @return a future that completes normally when the data is appended or exceptionally if an error occurred
      */
-    CompletionStage<Void> append(Publisher<DataChunk> chunks, Path filePath, boolean compressed) {
-        int queueId = Math.floorMod(filePath.hashCode(), workQueues.length);
-        BlockingQueue<WorkItem> queue = workQueues[queueId];
-        if (queue == null) {
-            queue = new LinkedBlockingQueue<>(QUEUE_SIZE);
-            workQueues[queueId] = queue;
-            if (LOGGER.isLoggable(Level.FINE)) {
-                LOGGER.log(Level.FINE, "creating appender thread for queueId: #{0}", queueId);
-            }
-            executors.submit(new AppenderThread(queue, queueId));
-        }
-        CompletableFuture<Void> future = new CompletableFuture<>();
-        WorkItem workItem = new WorkItem(chunks, filePath, compressed, future);
-        if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.log(Level.FINE, "Adding work item to queue, queueId={0}, queueSize={1}, workItem={2}",
-                    new Object[]{
-                        queueId,
-                        queue.size(),
-                        workItem
-                    });
-        }
-        if (!queue.offer(workItem)) {
-            LOGGER.log(Level.WARNING, "Queue full, draining work item, queueId={0}, workItem={1}", new Object[]{
-                queueId,
-                workItem
-            });
-            chunks.subscribe(new Subscriber<DataChunk>() {
-                @Override
-                public void onSubscribe(Subscription subscription) {
-                    subscription.request(Long.MAX_VALUE);
-                }
+    CompletionStage<Void> append(Publisher<DataChunk> chunks, Path filePath, boolean compressed, boolean keepOpen) {
+        return append(chunks, filePath, compressed, keepOpen, null);
+    }
 
-                @Override
-                public void onNext(DataChunk item) {
-                    item.release();
-                }
+    /**
+     * Append the data of a publisher to a file in the storage at the given path and compute its digest.
+     * @param chunks the data
+     * @param filePath the file path
+     * @param compressed true if the payload is {@code gzip} compressed
+     * @param keepOpen true if the file should be kept open for subsequent appends
+     * @param digest the digest updated with the appended data (after decompression), may be {@code null}
+     * @return a future that completes normally when the data is appended or exceptionally if an error occurred
+     */
+    CompletionStage<Void> append(Publisher<DataChunk> chunks, Path filePath, boolean compressed, boolean keepOpen,
+            MessageDigest digest) {
 
-                @Override
-                public void onError(Throwable throwable) {
-                }
+        return submit(new WorkItem(chunks, filePath, compressed, keepOpen, /* lines */ false, /* blocks */ false,
+                digest));
+    }
 
-                @Override
-                public void onComplete() {
-                }
+    /**
+     * Append the data of a publisher to a log and maintain its {@link LineIndex line index}.
+     * The file is kept open for subsequent appends.
+     * @param chunks the data
+     * @param logPath the log path
+     * @param compressed true if the payload is {@code gzip} compressed
+     * @return a future that completes normally when the data is appended or exceptionally if an error occurred
+     */
+    CompletionStage<Void> appendLog(Publisher<DataChunk> chunks, Path logPath, boolean compressed) {
+        return submit(new WorkItem(chunks, logPath, compressed, /* keepOpen */ true, /* lines */ true,
+                /* blocks */ false, null));
+    }
+
+    /**
+     * Append the data of a publisher to a {@link BlockLog block compressed log} and maintain its
+     * {@link LineIndex line index}. The log is kept open for subsequent appends, the partial block is compressed when
+     * the log is closed with {@link #close(Path)} or {@link #closeAll(Path)}.
+     * @param chunks the data
+     * @param logPath the log path
+     * @param compressed true if the payload is {@code gzip} compressed
+     * @return a future that completes normally when the data is appended or exceptionally if an error occurred
+     */
+    CompletionStage<Void> appendBlocks(Publisher<DataChunk> chunks, Path logPath, boolean compressed) {
+        return submit(new WorkItem(chunks, logPath, compressed, /* keepOpen */ true, /* lines */ true,
+                /* blocks */ true, null));
+    }
+
+    /**
+     * Test if a log is a {@link BlockLog block compressed log}.
+     * A log keeps the format it was created with. The format is looked up in the file system on first use only and is
+     * recorded until the log is closed with {@link #close(Path)} or {@link #closeAll(Path)}.
+     * @param logPath the log path
+     * @param create {@code true} if a log that does not exist is created as a block compressed log
+     * @return {@code true} if the log is block compressed
+     */
+    boolean isBlockLog(Path logPath, boolean create) {
+        return blockLogs.computeIfAbsent(logPath, (path) -> BlockLog.exists(path) || (create && !Files.exists(path)));
+    }
+
+    private CompletionStage<Void> submit(WorkItem workItem) {
+        CompletableFuture<Void> future = workItem.future;
+        Path filePath = workItem.filePath;
+        int size = pending.incrementAndGet();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Adding work item, pending={0}, workItem={1}", new Object[]{
+                size,
+                workItem
             });
-            future.completeExceptionally(new IllegalStateException("queue is full"));
         }
+        future.whenComplete((r, ex) -> {
+            pending.decrementAndGet();
+            tails.remove(filePath, future);
+            if (ex != null) {
+                LOGGER.log(Level.WARNING, "Append error, workItem=" + workItem, ex);
+            } else if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "End of work item processing, workItem={0}", workItem);
+            }
+        });
+        chain(filePath, future, () -> start(workItem));
         return future;
     }
 
-    private OutputStream outputStream(Path filePath) {
+    /**
+     * Chain a task with the appends to the same file.
+     * @param filePath the file path
+     * @param future the future completed by the task
+     * @param task the task to start
+     */
+    private void chain(Path filePath, CompletableFuture<Void> future, Runnable task) {
+        CompletableFuture<Void> previous = tails.put(filePath, future);
+        if (previous == null) {
+            task.run();
+        } else {
+            previous.whenComplete((r, ex) -> task.run());
+        }
+    }
+
+    private void start(WorkItem workItem) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "New work item processing, workItem={0}", workItem);
+        }
         try {
-            if (!Files.exists(filePath.getParent())) {
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.log(Level.FINE, "Creating directory: {0}", filePath.getParent());
-                }
-                Files.createDirectories(filePath.getParent());
+            if (workItem.blocks) {
+                workItem.chunks.subscribe(new BlockAppender(executors, channels, workItem.filePath, bufferPool,
+                        workItem.compressed, workItem.future));
+                return;
             }
-            if (!Files.exists(filePath)) {
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.log(Level.FINE, "Creating file: {0}", filePath);
+            ChannelCache.Entry entry = channels.acquire(workItem.filePath, workItem.keepOpen);
+            if (workItem.lines && entry.lineIndex() == null) {
+                try {
+                    entry.lineIndex(LineIndexWriter.open(workItem.filePath, entry.position()));
+                } catch (Throwable ex) {
+                    channels.release(entry, /* invalid */ true);
+                    throw ex;
                 }
-                Files.createFile(filePath);
             }
-            return Files.newOutputStream(filePath, StandardOpenOption.APPEND);
-        } catch (IOException ex) {
-            throw new IllegalStateException(ex);
+            workItem.chunks.subscribe(new Appender(channels, entry, bufferPool, workItem.compressed, workItem.digest,
+                    workItem.future));
+        } catch (Throwable ex) {
+            workItem.future.completeExceptionally(ex);
         }
     }
 
-    private final class AppenderThread implements Runnable {
-
-        private final BlockingQueue<WorkItem> queue;
-        private final int queueId;
-
-        AppenderThread(BlockingQueue<WorkItem> queue, int queueId) {
-            this.queue = queue;
-            this.queueId = queueId;
+    /**
+     * Close a file kept open, e.g. when the corresponding step is completed.
+     * @param filePath the file path
+     */
+    void close(Path filePath) {
+        channels.close(filePath);
+        Boolean blocks = blockLogs.remove(filePath);
+        if (blocks != null ? blocks : BlockLog.exists(filePath)) {
+            finishBlocks(filePath);
         }
+    }
 
-        @Override
-        public void run() {
-            while (true) {
-                try {
-                    WorkItem workItem = queue.take();
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.log(Level.FINE, "New work item processing, queueId={0}, workItem={1}", new Object[]{
-                            queueId,
-                            workItem
-                        });
-                    }
-                    Appender appender = new Appender(outputStream(workItem.filePath), workItem.compressed, workItem.future);
-                    workItem.chunks.subscribe(appender);
-                    workItem.future.get(2, TimeUnit.MINUTES);
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.log(Level.FINE, "End of work item processing, queueId={0}, workItem={1}", new Object[]{
-                            queueId,
-                            workItem
-                        });
-                    }
-                } catch (InterruptedException ex) {
-                    LOGGER.log(Level.WARNING, "Appender thread interupted, queueId={0}", queueId);
-                } catch (TimeoutException ex) {
-                    LOGGER.log(Level.WARNING, "Append timeout, queueId={0}", queueId);
-                } catch (ExecutionException ex) {
-                    LOGGER.log(Level.WARNING, "Append execution error, queueId=" + queueId, ex);
-                } catch (Throwable ex) {
-                    LOGGER.log(Level.WARNING, "Append unexpected error, queueId=" + queueId, ex);
-                } 
+    /**
+     * Close all the files kept open under a directory, e.g. when the corresponding pipeline is completed.
+     * @param dir the directory
+     */
+    void closeAll(Path dir) {
+        channels.closeAll(dir);
+        blockLogs.keySet().removeIf((path) -> path.startsWith(dir));
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + TAIL_SUFFIX)) {
+            for (Path tail : stream) {
+                String fname = tail.getFileName().toString();
+                finishBlocks(tail.resolveSibling(fname.substring(0, fname.length() - TAIL_SUFFIX.length())));
             }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to list block logs, dir=" + dir, ex);
         }
     }
 
+    /**
+     * Compress the partial block of a block compressed log after the pending appends.
+     * @param logPath the log path
+     */
+    private void finishBlocks(Path logPath) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.whenComplete((r, ex) -> {
+            tails.remove(logPath, future);
+            if (ex != null) {
+                LOGGER.log(Level.WARNING, "Unable to finish block log, path=" + logPath, ex);
+            }
+        });
+        chain(logPath, future, () -> executors.execute(() -> {
+            try (BlockLogWriter writer = new BlockLogWriter(logPath)) {
+                writer.finish();
+                future.complete(null);
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        }));
+    }
+
     private final class WorkItem {
 
         private final Path filePath;
         private final Publisher<DataChunk> chunks;
         private final boolean compressed;
+        private final boolean keepOpen;
+        private final boolean lines;
+        private final boolean blocks;
+        private final MessageDigest digest;
         private final CompletableFuture<Void> future;
 
-        WorkItem(Publisher<DataChunk> chunks, Path filePath, boolean compressed, CompletableFuture<Void> future) {
+        WorkItem(Publisher<DataChunk> chunks, Path filePath, boolean compressed, boolean keepOpen, boolean lines,
+                boolean blocks, MessageDigest digest) {
+
             this.chunks = chunks;
             this.filePath = filePath;
             this.compressed = compressed;
-            this.future = future;
+            this.keepOpen = keepOpen;
+            this.lines = lines;
+            this.blocks = blocks;
+            this.digest = digest;
+            this.future = new CompletableFuture<>();
         }
 
         @Override
@@ -186,67 +282,322 @@ final class FileAppender {
             return WorkItem.class.getSimpleName() + " {"
                     + " path=" + filePath
                     + ", compressed=" + compressed
+                    + ", keepOpen=" + keepOpen
+                    + ", lines=" + lines
+                    + ", blocks=" + blocks
                     + " }";
         }
 
     }
 
-    private static final class Appender implements Subscriber<DataChunk> {
+    /**
+     * Subscriber that writes the chunks at the end of the file, one chunk at a time.
+     * Compressed chunks are inflated into pooled buffers that are returned to the pool once written. The line index
+     * entries of a chunk are written after the chunk.
+     */
+    private static final class Appender implements Subscriber<DataChunk>, CompletionHandler<Integer, ByteBuffer> {
 
         private Subscription subscription;
-        private final OutputStream os;
+        private final ChannelCache channels;
+        private final ChannelCache.Entry entry;
+        private final AsynchronousFileChannel channel;
         private final CompletableFuture<Void> future;
-        private final boolean compressed;
+        private final BufferPool pool;
+        private final GzipInflater inflater;
+        private final LinkedList<ByteBuffer> buffers;
+        private final MessageDigest digest;
+        private final LineIndexWriter lineIndex;
+        private long position;
+        private DataChunk chunk;
+        private boolean writing;
+        private boolean done;
+        private Throwable error;
 
-        Appender(OutputStream os, boolean compressed, CompletableFuture<Void> future) {
-            this.os = os;
-            this.compressed = compressed;
+        Appender(ChannelCache channels, ChannelCache.Entry entry, BufferPool pool, boolean compressed,
+                MessageDigest digest, CompletableFuture<Void> future) {
+
+            this.channels = channels;
+            this.entry = entry;
+            this.channel = entry.channel();
+            this.position = entry.position();
+            this.pool = pool;
+            this.inflater = compressed ? new GzipInflater(pool) : null;
+            this.buffers = new LinkedList<>();
+            this.digest = digest;
+            this.lineIndex = entry.lineIndex();
             this.future = future;
         }
 
         @Override
         public void onSubscribe(Subscription subscription) {
             this.subscription = subscription;
-            subscription.request(Long.MAX_VALUE);
+            subscription.request(1);
         }
 
         @Override
         public void onNext(DataChunk item) {
-            try {
-                byte[] data = item.bytes();
-                if (!compressed) {
-                    os.write(data);
-                } else {
-                    try (GZIPInputStream is = new GZIPInputStream(new ByteArrayInputStream(data))) {
-                        byte[] buf = new byte[1024];
-                        int len;
-                        while ((len = is.read(buf)) != -1) {
-                            os.write(buf, 0, len);
-                        }
+            if (inflater != null) {
+                try {
+                    inflater.inflate(item.data(), buffers);
+                } catch (IOException ex) {
+                    subscription.cancel();
+                    close(ex);
+                    return;
+                } finally {
+                    item.release();
+                }
+                if (buffers.isEmpty()) {
+                    subscription.request(1);
+                    return;
+                }
+            } else {
+                chunk = item;
+                buffers.add(item.data());
+            }
+            if (digest != null) {
+                for (ByteBuffer buffer : buffers) {
+                    digest.update(buffer.duplicate());
+                }
+            }
+            if (lineIndex != null) {
+                long pos = position;
+                for (ByteBuffer buffer : buffers) {
+                    lineIndex.update(buffer, pos);
+                    pos += buffer.remaining();
+                }
+            }
+            synchronized (this) {
+                writing = true;
+            }
+            ByteBuffer data = buffers.peek();
+            channel.write(data, position, data, this);
+        }
+
+        @Override
+        public void completed(Integer nbytes, ByteBuffer data) {
+            position += nbytes;
+            if (!data.hasRemaining()) {
+                buffers.poll();
+                if (inflater != null) {
+                    pool.release(data);
+                }
+                data = buffers.peek();
+            }
+            if (data != null) {
+                channel.write(data, position, data, this);
+                return;
+            }
+            if (lineIndex != null) {
+                try {
+                    lineIndex.flush();
+                } catch (IOException ex) {
+                    failed(ex, null);
+                    return;
+                }
+            }
+            boolean completed;
+            synchronized (this) {
+                releaseChunk();
+                writing = false;
+                completed = done;
+            }
+            if (completed) {
+                close(error);
+            } else {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void failed(Throwable ex, ByteBuffer data) {
+            synchronized (this) {
+                releaseChunk();
+                writing = false;
+            }
+            subscription.cancel();
+            close(ex);
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+            synchronized (this) {
+                if (writing) {
+                    // close when the pending write completes
+                    done = true;
+                    error = ex;
+                    return;
+                }
+            }
+            close(ex);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (writing) {
+                    // close when the pending write completes
+                    done = true;
+                    return;
+                }
+            }
+            close(null);
+        }
+
+        private void releaseChunk() {
+            if (chunk != null) {
+                chunk.release();
+                chunk = null;
+            }
+            if (inflater != null) {
+                for (ByteBuffer buffer : buffers) {
+                    pool.release(buffer);
+                }
+            }
+            buffers.clear();
+        }
+
+        private void close(Throwable ex) {
+            if (inflater != null) {
+                if (ex == null) {
+                    try {
+                        inflater.finish();
+                    } catch (IOException e) {
+                        ex = e;
                     }
                 }
-                item.release();
-            } catch (IOException ex) {
-                subscription.cancel();
+                inflater.end();
+            }
+            entry.position(position);
+            channels.release(entry, /* invalid */ ex != null);
+            if (ex != null) {
                 future.completeExceptionally(ex);
-                LOGGER.log(Level.SEVERE, ex.getMessage(), ex);
+            } else {
+                future.complete(null);
             }
         }
+    }
+
+    /**
+     * Subscriber that writes the chunks to a block compressed log, one chunk at a time.
+     * The signals are processed in order on the thread pool as the log is written with blocking IO, the writer is
+     * acquired from the cache with the first chunk.
+     */
+    private static final class BlockAppender implements Subscriber<DataChunk> {
+
+        private final ExecutorService executors;
+        private final ChannelCache channels;
+        private final Path logPath;
+        private final BufferPool pool;
+        private final GzipInflater inflater;
+        private final LinkedList<ByteBuffer> buffers;
+        private final CompletableFuture<Void> future;
+        private CompletableFuture<Void> tail;
+        private Subscription subscription;
+        private ChannelCache.Entry entry;
+        private BlockLogWriter writer;
+        private LineIndexWriter lineIndex;
+
+        BlockAppender(ExecutorService executors, ChannelCache channels, Path logPath, BufferPool pool,
+                boolean compressed, CompletableFuture<Void> future) {
+
+            this.executors = executors;
+            this.channels = channels;
+            this.logPath = logPath;
+            this.pool = pool;
+            this.inflater = compressed ? new GzipInflater(pool) : null;
+            this.buffers = new LinkedList<>();
+            this.future = future;
+            this.tail = CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(DataChunk item) {
+            schedule(() -> {
+                try {
+                    if (future.isDone()) {
+                        return;
+                    }
+                    if (entry == null) {
+                        entry = channels.acquireBlocks(logPath);
+                        writer = entry.writer();
+                        if (entry.lineIndex() == null) {
+                            entry.lineIndex(LineIndexWriter.open(logPath, writer.size()));
+                        }
+                        lineIndex = entry.lineIndex();
+                    }
+                    if (inflater != null) {
+                        inflater.inflate(item.data(), buffers);
+                    } else {
+                        buffers.add(item.data());
+                    }
+                    for (ByteBuffer buffer : buffers) {
+                        if (lineIndex != null) {
+                            lineIndex.update(buffer, writer.size());
+                        }
+                        writer.write(buffer);
+                    }
+                    if (lineIndex != null) {
+                        lineIndex.flush();
+                    }
+                } catch (Throwable ex) {
+                    subscription.cancel();
+                    close(ex);
+                    return;
+                } finally {
+                    item.release();
+                    if (inflater != null) {
+                        for (ByteBuffer buffer : buffers) {
+                            pool.release(buffer);
+                        }
+                    }
+                    buffers.clear();
+                }
+                subscription.request(1);
+            });
+        }
 
         @Override
         public void onError(Throwable ex) {
-            future.completeExceptionally(ex);
-            LOGGER.log(Level.SEVERE, ex.getMessage(), ex);
+            schedule(() -> close(ex));
         }
 
         @Override
         public void onComplete() {
-            try {
-                os.flush();
-                os.close();
+            schedule(() -> close(null));
+        }
+
+        private void schedule(Runnable task) {
+            tail = tail.thenRunAsync(task, executors);
+        }
+
+        private void close(Throwable ex) {
+            if (future.isDone()) {
+                return;
+            }
+            if (inflater != null) {
+                if (ex == null) {
+                    try {
+                        inflater.finish();
+                    } catch (IOException e) {
+                        ex = e;
+                    }
+                }
+                inflater.end();
+            }
+            if (entry != null) {
+                entry.position(writer.size());
+                channels.release(entry, /* invalid */ ex != null);
+            }
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
                 future.complete(null);
-            } catch (IOException ex) {
-                LOGGER.log(Level.SEVERE, ex.getMessage(), ex);
             }
         }
     }
@@ -0,0 +1,245 @@
+package io.helidon.build.publisher.backend;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Streaming {@code gzip} decoder.
+ * The input is fed one buffer at a time, the state is kept across buffers so that the header, the compressed data and
+ * the trailer of a {@code gzip} member can span any number of input buffers. Concatenated members are supported.
+ * Instances are not thread safe.
+ */
+final class GzipInflater {
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private enum State {
+        HEADER,
+        EXTRA_LEN,
+        EXTRA,
+        NAME,
+        COMMENT,
+        HEADER_CRC,
+        DATA,
+        TRAILER
+    }
+
+    private final Inflater inflater;
+    private final CRC32 crc;
+    private final BufferPool pool;
+    private final byte[] field;
+    private byte[] input;
+    private State state;
+    private int fieldLen;
+    private int flags;
+    private int skip;
+    private long size;
+
+    /**
+     * Create a new inflater.
+     * @param pool pool used for the decompressed buffers
+     */
+    GzipInflater(BufferPool pool) {
+        this.pool = pool;
+        this.inflater = new Inflater(/* nowrap */ true);
+        this.crc = new CRC32();
+        this.field = new byte[10];
+        this.state = State.HEADER;
+    }
+
+    /**
+     * Decompress a buffer.
+     * The input buffer is fully consumed, the decompressed data is added to the given list as flipped buffers
+     * acquired from the pool.
+     * @param in compressed data
+     * @param out list of decompressed buffers
+     * @throws ZipException if the data is not valid {@code gzip}
+     */
+    void inflate(ByteBuffer in, List<ByteBuffer> out) throws ZipException {
+        ByteBuffer buffer = null;
+        try {
+            while (in.hasRemaining()) {
+                switch (state) {
+                    case HEADER:
+                        field[fieldLen++] = in.get();
+                        if (fieldLen == 10) {
+                            fieldLen = 0;
+                            readHeader();
+                        }
+                        break;
+                    case EXTRA_LEN:
+                        field[fieldLen++] = in.get();
+                        if (fieldLen == 2) {
+                            fieldLen = 0;
+                            skip = (field[0] & 0xff) | ((field[1] & 0xff) << 8);
+                            state = State.EXTRA;
+                        }
+                        break;
+                    case EXTRA:
+                        int n = Math.min(skip, in.remaining());
+                        in.position(in.position() + n);
+                        skip -= n;
+                        if (skip == 0) {
+                            nextHeaderState(State.EXTRA);
+                        }
+                        break;
+                    case NAME:
+                    case COMMENT:
+                        if (in.get() == 0) {
+                            nextHeaderState(state);
+                        }
+                        break;
+                    case HEADER_CRC:
+                        in.get();
+                        if (--skip == 0) {
+                            nextHeaderState(State.HEADER_CRC);
+                        }
+                        break;
+                    case DATA:
+                        buffer = inflateData(in, buffer, out);
+                        break;
+                    case TRAILER:
+                        field[fieldLen++] = in.get();
+                        if (fieldLen == 8) {
+                            fieldLen = 0;
+                            readTrailer();
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown state: " + state);
+                }
+            }
+        } finally {
+            if (buffer != null) {
+                if (buffer.position() > 0) {
+                    buffer.flip();
+                    out.add(buffer);
+                } else {
+                    pool.release(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verify that the input ended at a member boundary.
+     * An empty input, i.e. without any member, is accepted as empty content.
+     * @throws ZipException if the input ended in the middle of a member
+     */
+    void finish() throws ZipException {
+        if (state != State.HEADER || fieldLen > 0) {
+            throw new ZipException("Unexpected end of gzip input");
+        }
+    }
+
+    /**
+     * Release the native resources of the inflater.
+     */
+    void end() {
+        inflater.end();
+    }
+
+    private ByteBuffer inflateData(ByteBuffer in, ByteBuffer buffer, List<ByteBuffer> out) throws ZipException {
+        int offset;
+        int len = in.remaining();
+        byte[] data;
+        if (in.hasArray()) {
+            data = in.array();
+            offset = in.arrayOffset() + in.position();
+        } else {
+            // direct buffer, the inflater only accepts arrays
+            if (input == null || input.length < len) {
+                input = new byte[Math.max(len, 8192)];
+            }
+            in.duplicate().get(input, 0, len);
+            data = input;
+            offset = 0;
+        }
+        inflater.setInput(data, offset, len);
+        try {
+            while (true) {
+                if (buffer == null || !buffer.hasRemaining()) {
+                    if (buffer != null) {
+                        buffer.flip();
+                        out.add(buffer);
+                    }
+                    buffer = pool.acquire();
+                }
+                int pos = buffer.arrayOffset() + buffer.position();
+                int n = inflater.inflate(buffer.array(), pos, buffer.remaining());
+                crc.update(buffer.array(), pos, n);
+                buffer.position(buffer.position() + n);
+                size += n;
+                if (inflater.finished()) {
+                    in.position(in.position() + len - inflater.getRemaining());
+                    state = State.TRAILER;
+                    return buffer;
+                }
+                if (inflater.needsInput()) {
+                    in.position(in.position() + len);
+                    return buffer;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new ZipException("Unsupported preset dictionary");
+                }
+            }
+        } catch (DataFormatException ex) {
+            throw new ZipException(ex.getMessage());
+        }
+    }
+
+    private void readHeader() throws ZipException {
+        if ((field[0] & 0xff) != 0x1f || (field[1] & 0xff) != 0x8b) {
+            throw new ZipException("Not in gzip format");
+        }
+        if (field[2] != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        flags = field[3] & 0xff;
+        nextHeaderState(State.HEADER);
+    }
+
+    private void nextHeaderState(State current) {
+        if (current.ordinal() < State.EXTRA_LEN.ordinal() && (flags & FEXTRA) != 0) {
+            state = State.EXTRA_LEN;
+        } else if (current.ordinal() < State.NAME.ordinal() && (flags & FNAME) != 0) {
+            state = State.NAME;
+        } else if (current.ordinal() < State.COMMENT.ordinal() && (flags & FCOMMENT) != 0) {
+            state = State.COMMENT;
+        } else if (current.ordinal() < State.HEADER_CRC.ordinal() && (flags & FHCRC) != 0) {
+            skip = 2;
+            state = State.HEADER_CRC;
+        } else {
+            inflater.reset();
+            crc.reset();
+            size = 0;
+            state = State.DATA;
+        }
+    }
+
+    private void readTrailer() throws ZipException {
+        long expectedCrc = readInt(0);
+        long expectedSize = readInt(4);
+        if (expectedCrc != crc.getValue()) {
+            throw new ZipException("Corrupt gzip trailer, invalid CRC");
+        }
+        if (expectedSize != (size & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip trailer, invalid size");
+        }
+        state = State.HEADER;
+    }
+
+    private long readInt(int offset) {
+        return ((field[offset] & 0xffL)
+                | ((field[offset + 1] & 0xffL) << 8)
+                | ((field[offset + 2] & 0xffL) << 16)
+                | ((field[offset + 3] & 0xffL) << 24));
+    }
+}
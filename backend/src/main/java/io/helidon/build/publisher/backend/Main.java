@@ -98,7 +98,15 @@ public final class Main {
         return routingBuilder
                 .any(WebSecurity.secure())
                 .register(JacksonSupport.create())
-                .register(new BackendService(storagePath, config.get("appenderThreads").asInt().orElse(2)))
+                .register(new BackendService(storagePath,
+                        config.get("eventThreads").asInt().orElse(Runtime.getRuntime().availableProcessors()),
+                        config.get("appenderThreads").asInt().orElse(2),
+                        config.get("appenderMaxOpenFiles").asInt().orElse(256),
+                        config.get("appenderBudget").asLong().orElse(64L * 1024 * 1024),
+                        config.get("appenderPipelineBudget").asLong().orElse(8L * 1024 * 1024),
+                        config.get("appenderBlockLogs").asBoolean().orElse(false),
+                        config.get("cache.size").asInt().orElse(100),
+                        config.get("cache.flushInterval").asInt().orElse(5)))
                 .build();
     }
 
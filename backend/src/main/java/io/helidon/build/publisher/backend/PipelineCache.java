@@ -0,0 +1,272 @@
+package io.helidon.build.publisher.backend;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.DescriptorJournalManager;
+import io.helidon.build.publisher.model.DescriptorManager;
+import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+
+/**
+ * Descriptor manager that keeps the running pipelines in memory.
+ * The applied events are journaled for every batch, the pipeline descriptors are written back in the background
+ * and are flushed and evicted when completed, idle or under memory pressure.
+ */
+final class PipelineCache implements DescriptorManager {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineCache.class.getName());
+    private static final int DIRTY_THRESHOLD = 50; // max number of unsaved batches per pipeline
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final double MEMORY_THRESHOLD = 0.8; // max ratio of used heap
+
+    private final DescriptorJournalManager delegate;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Create a new pipeline cache.
+     * @param delegate the journal manager used to load and save the pipelines
+     * @param maxEntries the maximum number of pipelines to keep in memory
+     * @param flushInterval the interval in seconds between background flushes
+     */
+    PipelineCache(DescriptorJournalManager delegate, int maxEntries, int flushInterval) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate is null");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Invalid maxEntries: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, /* access order */ true);
+        this.executor = Executors.newSingleThreadScheduledExecutor();
+        executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll));
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Creating pipeline cache, maxEntries={0}, flushInterval={1}", new Object[]{
+                maxEntries,
+                flushInterval
+            });
+        }
+    }
+
+    @Override
+    public Pipeline loadPipeline(String id) {
+        Objects.requireNonNull(id, "id is null");
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                entry.lastAccess = System.currentTimeMillis();
+                return entry.pipeline;
+            }
+        }
+        Pipeline pipeline = delegate.loadPipeline(id);
+        if (pipeline == null || pipeline.state() == Status.State.FINISHED) {
+            // do not cache completed pipelines
+            return pipeline;
+        }
+        List<Entry> eldest;
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                // loaded concurrently
+                return entry.pipeline;
+            }
+            entries.put(id, new Entry(pipeline, /* saved */ true));
+            eldest = eldest();
+        }
+        evict(eldest);
+        return pipeline;
+    }
+
+    @Override
+    public void savePipeline(Pipeline pipeline, List<PipelineEvent> events) {
+        Objects.requireNonNull(pipeline, "pipeline is null");
+        if (pipeline.state() == Status.State.FINISHED) {
+            evictCompleted(pipeline);
+        }
+        delegate.savePipeline(pipeline, events);
+        if (pipeline.state() != Status.State.FINISHED) {
+            update(pipeline);
+        }
+    }
+
+    @Override
+    public void savePipeline(Pipeline pipeline) {
+        Objects.requireNonNull(pipeline, "pipeline is null");
+        if (pipeline.state() == Status.State.FINISHED) {
+            evictCompleted(pipeline);
+            delegate.savePipeline(pipeline);
+        } else {
+            update(pipeline);
+        }
+    }
+
+    private void evictCompleted(Pipeline pipeline) {
+        String id = pipeline.pipelineId();
+        synchronized (entries) {
+            entries.remove(id);
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Pipeline completed, flushing and evicting, pipelineId={0}", id);
+        }
+    }
+
+    /**
+     * Mark a running pipeline as modified.
+     * @param pipeline the modified pipeline
+     */
+    private void update(Pipeline pipeline) {
+        String id = pipeline.pipelineId();
+        Entry entry;
+        List<Entry> eldest = null;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry == null || entry.pipeline != pipeline) {
+                entry = new Entry(pipeline, /* saved */ false);
+                entries.put(id, entry);
+                eldest = eldest();
+            }
+            entry.lastAccess = System.currentTimeMillis();
+        }
+        boolean flush;
+        synchronized (entry) {
+            // new pipelines are written through so that they are immediately visible
+            flush = !entry.saved || ++entry.dirty >= DIRTY_THRESHOLD;
+        }
+        if (flush) {
+            flush(entry);
+        }
+        if (eldest != null) {
+            evict(eldest);
+        }
+    }
+
+    /**
+     * Get the least recently used entries that exceed the cache capacity.
+     * Must be called while holding the lock on {@code entries}.
+     * @return entries to evict
+     */
+    private List<Entry> eldest() {
+        List<Entry> eldest = new LinkedList<>();
+        Iterator<Entry> it = entries.values().iterator();
+        for (int i = entries.size() - maxEntries; i > 0 && it.hasNext(); i--) {
+            eldest.add(it.next());
+        }
+        return eldest;
+    }
+
+    /**
+     * Flush and remove the given entries.
+     * The entries are removed after being flushed, and only if they have not been modified in the meantime.
+     * @param evicted the entries to evict
+     */
+    private void evict(List<Entry> evicted) {
+        flush(evicted);
+        synchronized (entries) {
+            for (Entry entry : evicted) {
+                String id = entry.pipeline.pipelineId();
+                synchronized (entry) {
+                    if (entries.get(id) == entry && entry.dirty == 0) {
+                        entries.remove(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write back the dirty pipelines and evict the idle ones.
+     * If the heap usage is above the threshold, the least recently used half of the cache is evicted.
+     */
+    private void flush() {
+        try {
+            long now = System.currentTimeMillis();
+            Runtime runtime = Runtime.getRuntime();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            boolean pressure = used > runtime.maxMemory() * MEMORY_THRESHOLD;
+            List<Entry> dirty = new LinkedList<>();
+            List<Entry> evicted = new LinkedList<>();
+            synchronized (entries) {
+                int toEvict = pressure ? (entries.size() + 1) / 2 : 0;
+                for (Entry entry : entries.values()) {
+                    if (toEvict-- > 0 || now - entry.lastAccess > IDLE_TIMEOUT) {
+                        evicted.add(entry);
+                    } else {
+                        dirty.add(entry);
+                    }
+                }
+            }
+            if (!evicted.isEmpty()) {
+                LOGGER.log(Level.INFO, "Evicting pipelines, count={0}, memoryPressure={1}", new Object[]{
+                    evicted.size(),
+                    pressure
+                });
+            }
+            evict(evicted);
+            flush(dirty);
+        } catch (Throwable ex) {
+            LOGGER.log(Level.WARNING, "Unexpected error while flushing pipelines", ex);
+        }
+    }
+
+    /**
+     * Write back all the dirty pipelines.
+     */
+    private void flushAll() {
+        List<Entry> all;
+        synchronized (entries) {
+            all = new LinkedList<>(entries.values());
+        }
+        flush(all);
+    }
+
+    private void flush(List<Entry> entries) {
+        for (Entry entry : entries) {
+            try {
+                flush(entry);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.WARNING, "Unable to flush pipeline, pipelineId=" + entry.pipeline.pipelineId(), ex);
+            }
+        }
+    }
+
+    private void flush(Entry entry) {
+        // lock the pipeline to prevent concurrent modifications while writing it
+        synchronized (entry.pipeline) {
+            synchronized (entry) {
+                if (entry.saved && entry.dirty == 0) {
+                    return;
+                }
+                entry.saved = true;
+                entry.dirty = 0;
+            }
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Flushing pipeline, pipelineId={0}", entry.pipeline.pipelineId());
+            }
+            delegate.savePipeline(entry.pipeline);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Pipeline pipeline;
+        private volatile long lastAccess;
+        private int dirty;
+        private boolean saved;
+
+        Entry(Pipeline pipeline, boolean saved) {
+            this.pipeline = pipeline;
+            this.saved = saved;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.helidon.build.publisher.backend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link AppendBudget}.
+ */
+public class AppendBudgetTest {
+
+    @Test
+    public void testShardBudget() {
+        AppendBudget budget = new AppendBudget(100, 50);
+        assertThat(budget.tryAcquire("pipeline1", 40), is(true));
+        assertThat(budget.tryAcquire("pipeline1", 20), is(false));
+        assertThat(budget.tryAcquire("pipeline2", 20), is(true));
+        budget.release("pipeline1", 40);
+        assertThat(budget.tryAcquire("pipeline1", 20), is(true));
+    }
+
+    @Test
+    public void testGlobalBudget() {
+        AppendBudget budget = new AppendBudget(100, 50);
+        assertThat(budget.tryAcquire("pipeline1", 50), is(true));
+        assertThat(budget.tryAcquire("pipeline2", 50), is(true));
+        assertThat(budget.tryAcquire("pipeline3", 10), is(false));
+        budget.release("pipeline2", 50);
+        assertThat(budget.tryAcquire("pipeline3", 10), is(true));
+    }
+
+    @Test
+    public void testLargePayload() {
+        AppendBudget budget = new AppendBudget(100, 50);
+        assertThat(budget.tryAcquire("pipeline1", 200), is(true));
+        assertThat(budget.tryAcquire("pipeline2", 10), is(false));
+        budget.release("pipeline1", 200);
+        assertThat(budget.tryAcquire("pipeline2", 10), is(true));
+    }
+
+    @Test
+    public void testAvailable() {
+        AppendBudget budget = new AppendBudget(100, 50);
+        assertThat(budget.tryAcquire("pipeline1", 40), is(true));
+        assertThat(budget.available("pipeline1", 20), is(false));
+        assertThat(budget.available("pipeline1", 10), is(true));
+        // nothing is reserved
+        assertThat(budget.tryAcquire("pipeline1", 10), is(true));
+    }
+}
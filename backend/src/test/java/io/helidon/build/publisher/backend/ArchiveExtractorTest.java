@@ -0,0 +1,193 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link ArchiveExtractor}.
+ */
+public class ArchiveExtractorTest {
+
+    private static final String LONG_NAME = "reports/" + String.join("/", repeat("very-long-directory-name", 6))
+            + "/TEST-report.xml";
+
+    @Test
+    public void testSplitInput() throws Exception {
+        byte[] archive = createArchive();
+        ArchiveExtractor extractor = new ArchiveExtractor(Executors.newFixedThreadPool(2), new BufferPool(64, 8),
+                new BlobStore(Files.createTempDirectory("storage")));
+        Path first = null;
+        for (int split = 1; split < archive.length; split += 97) {
+            Path dir = Files.createTempDirectory("archive");
+            extract(extractor, dir, false, Arrays.copyOfRange(archive, 0, split),
+                    Arrays.copyOfRange(archive, split, archive.length));
+            assertArchive(dir);
+            if (first == null) {
+                first = dir;
+            } else {
+                // de-duplicated
+                assertThat(Files.isSameFile(first.resolve("bar/bar.txt"), dir.resolve("bar/bar.txt")), is(true));
+            }
+        }
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        byte[] archive = gzip(createArchive());
+        ArchiveExtractor extractor = new ArchiveExtractor(Executors.newFixedThreadPool(2), new BufferPool(64, 8),
+                new BlobStore(Files.createTempDirectory("storage")));
+        for (int split = 1; split < archive.length; split += 7) {
+            Path dir = Files.createTempDirectory("archive");
+            extract(extractor, dir, true, Arrays.copyOfRange(archive, 0, split),
+                    Arrays.copyOfRange(archive, split, archive.length));
+            assertArchive(dir);
+        }
+    }
+
+    @Test
+    public void testInvalidName() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        entry(baos, "../foo.txt", '0', "foo".getBytes(StandardCharsets.UTF_8));
+        baos.write(new byte[1024]);
+        Path dir = Files.createTempDirectory("archive");
+        ArchiveExtractor extractor = new ArchiveExtractor(Executors.newFixedThreadPool(1), new BufferPool(64, 8),
+                new BlobStore(Files.createTempDirectory("storage")));
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> extract(extractor, dir.resolve("artifacts"), false, baos.toByteArray()));
+        assertThat(ex.getCause(), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(Files.exists(dir.resolve("foo.txt")), is(false));
+    }
+
+    @Test
+    public void testTruncatedInput() throws Exception {
+        byte[] archive = createArchive();
+        Path dir = Files.createTempDirectory("archive");
+        ArchiveExtractor extractor = new ArchiveExtractor(Executors.newFixedThreadPool(1), new BufferPool(64, 8),
+                new BlobStore(Files.createTempDirectory("storage")));
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> extract(extractor, dir, false, Arrays.copyOfRange(archive, 0, 700)));
+        assertThat(ex.getCause(), is(instanceOf(IllegalArgumentException.class)));
+    }
+
+    private static void assertArchive(Path dir) throws IOException {
+        assertThat(read(dir.resolve("foo.txt")), is("foo\n"));
+        assertThat(read(dir.resolve("bar/bar.txt")), is(repeat("bar\n", 200).stream().reduce("", String::concat)));
+        assertThat(read(dir.resolve("bar/empty.txt")), is(""));
+        assertThat(read(dir.resolve(LONG_NAME)), is("<testsuite/>"));
+        assertThat(Files.isDirectory(dir.resolve("dir")), is(true));
+        assertThat(Files.exists(dir.resolve("link")), is(false));
+    }
+
+    private static void extract(ArchiveExtractor extractor, Path dir, boolean compressed, byte[]... parts)
+            throws Exception {
+
+        extractor.extract(publisher(parts), dir, compressed).toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private static Publisher<DataChunk> publisher(byte[]... parts) {
+        return (subscriber) -> subscriber.onSubscribe(new Subscription() {
+
+            private int index;
+            private boolean done;
+
+            @Override
+            public synchronized void request(long n) {
+                for (long i = 0; i < n && !done; i++) {
+                    if (index < parts.length) {
+                        subscriber.onNext(DataChunk.create(parts[index++]));
+                    }
+                    if (index == parts.length) {
+                        done = true;
+                        subscriber.onComplete();
+                    }
+                }
+            }
+
+            @Override
+            public synchronized void cancel() {
+                done = true;
+            }
+        });
+    }
+
+    private static byte[] createArchive() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        entry(baos, "foo.txt", '0', "foo\n".getBytes(StandardCharsets.UTF_8));
+        entry(baos, "dir/", '5', new byte[0]);
+        entry(baos, "bar/bar.txt", '0', repeat("bar\n", 200).stream().reduce("", String::concat)
+                .getBytes(StandardCharsets.UTF_8));
+        entry(baos, "bar/empty.txt", '0', new byte[0]);
+        entry(baos, "link", '2', new byte[0]);
+        byte[] longName = (LONG_NAME + "\0").getBytes(StandardCharsets.UTF_8);
+        entry(baos, "././@LongLink", 'L', longName);
+        entry(baos, LONG_NAME.substring(0, 100), '0', "<testsuite/>".getBytes(StandardCharsets.UTF_8));
+        baos.write(new byte[1024]);
+        return baos.toByteArray();
+    }
+
+    private static void entry(ByteArrayOutputStream out, String name, char type, byte[] data) throws IOException {
+        byte[] header = new byte[512];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        octal(header, 100, 8, 0644);
+        octal(header, 124, 12, data.length);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        out.write(header);
+        out.write(data);
+        out.write(new byte[(512 - (data.length % 512)) % 512]);
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String str = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(str.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+        header[offset + length - 1] = 0;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(baos)) {
+            out.write(data);
+        }
+        return baos.toByteArray();
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    private static List<String> repeat(String str, int count) {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(str);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,63 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link BlobStore}.
+ */
+public class BlobStoreTest {
+
+    private static final String HELLO_HASH = "185f8db32271fe25f561a6fc938b2e264306ec304eda518007d1764826381969";
+
+    @Test
+    public void testCommit() throws IOException {
+        Path storage = Files.createTempDirectory("storage");
+        BlobStore blobs = new BlobStore(storage);
+        Path file1 = storage.resolve("pipeline1/1/artifacts/hello.txt");
+        Path file2 = storage.resolve("pipeline2/1/artifacts/hello.txt");
+        assertThat(blobs.link(HELLO_HASH, file1), is(false));
+        for (Path file : new Path[]{file1, file2}) {
+            Path tmpFile = blobs.tempFile();
+            Files.write(tmpFile, "Hello".getBytes(StandardCharsets.UTF_8));
+            MessageDigest digest = BlobStore.digest();
+            digest.update("Hello".getBytes(StandardCharsets.UTF_8));
+            blobs.commit(tmpFile, BlobStore.hash(digest), file);
+            assertThat(Files.exists(tmpFile), is(false));
+        }
+        assertThat(new String(Files.readAllBytes(file2), StandardCharsets.UTF_8), is("Hello"));
+        assertThat(Files.isSameFile(file1, file2), is(true));
+    }
+
+    @Test
+    public void testLink() throws IOException {
+        Path storage = Files.createTempDirectory("storage");
+        BlobStore blobs = new BlobStore(storage);
+        Path file1 = storage.resolve("pipeline1/1/artifacts/hello.txt");
+        Path tmpFile = blobs.tempFile();
+        Files.write(tmpFile, "Hello".getBytes(StandardCharsets.UTF_8));
+        blobs.commit(tmpFile, HELLO_HASH, file1);
+        Path file2 = storage.resolve("pipeline2/1/artifacts/hello.txt");
+        Files.createDirectories(file2.getParent());
+        Files.write(file2, "Bye".getBytes(StandardCharsets.UTF_8));
+        assertThat(blobs.link(HELLO_HASH, file2), is(true));
+        assertThat(new String(Files.readAllBytes(file2), StandardCharsets.UTF_8), is("Hello"));
+    }
+
+    @Test
+    public void testInvalidHash() throws IOException {
+        BlobStore blobs = new BlobStore(Files.createTempDirectory("storage"));
+        Path file = Files.createTempDirectory("artifacts").resolve("foo");
+        assertThrows(IllegalArgumentException.class, () -> blobs.link("../../foo", file));
+        assertThrows(IllegalArgumentException.class, () -> blobs.link(HELLO_HASH.toUpperCase(), file));
+    }
+}
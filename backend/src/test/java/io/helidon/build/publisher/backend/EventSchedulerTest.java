@@ -0,0 +1,113 @@
+package io.helidon.build.publisher.backend;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.build.publisher.model.DescriptorJournalManager;
+import io.helidon.build.publisher.model.EventProcessor;
+import io.helidon.build.publisher.model.PipelineInfo;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.build.publisher.model.Timings;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.StageCreatedEvent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link EventScheduler}.
+ */
+public class EventSchedulerTest {
+
+    @Test
+    public void testOrdering() throws Exception {
+        Path storage = Files.createTempDirectory("scheduler");
+        List<PipelineEvent> applied = Collections.synchronizedList(new LinkedList<>());
+        EventProcessor processor = new EventProcessor(new DescriptorJournalManager(storage), null,
+                Collections.singletonList(applied::add));
+        EventScheduler scheduler = new EventScheduler(processor, 2);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        futures.add(submit(scheduler, new PipelineCreatedEvent(createInfo("pipeline1")),
+                new PipelineCreatedEvent(createInfo("pipeline2"))));
+        for (int i = 1; i <= 20; i++) {
+            futures.add(submit(scheduler, stage("pipeline2", i), stage("pipeline1", i)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertThat(ids(applied, "pipeline1"), is(expectedIds()));
+        assertThat(ids(applied, "pipeline2"), is(expectedIds()));
+    }
+
+    @Test
+    public void testInvalidWorkItem() throws Exception {
+        Path storage = Files.createTempDirectory("scheduler");
+        List<PipelineEvent> applied = Collections.synchronizedList(new LinkedList<>());
+        EventProcessor processor = new EventProcessor(new DescriptorJournalManager(storage), null,
+                Collections.singletonList(applied::add));
+        EventScheduler scheduler = new EventScheduler(processor, 1);
+
+        CompletableFuture<Void> created = submit(scheduler, new PipelineCreatedEvent(createInfo("pipeline1")));
+        // unknown pipeline
+        CompletableFuture<Void> invalid = submit(scheduler, stage("pipeline2", 1));
+        CompletableFuture<Void> valid = submit(scheduler, stage("pipeline1", 1));
+        created.get(10, TimeUnit.SECONDS);
+        valid.get(10, TimeUnit.SECONDS);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> invalid.get(10, TimeUnit.SECONDS));
+        assertThat(ex.getCause(), is(instanceOf(IllegalStateException.class)));
+        assertThat(ids(applied, "pipeline1"), is(Arrays.asList("created", "1")));
+    }
+
+    private static CompletableFuture<Void> submit(EventScheduler scheduler, PipelineEvent... events) {
+        return scheduler.submit(Arrays.asList(events)).toCompletableFuture();
+    }
+
+    private static List<String> ids(List<PipelineEvent> events, String pipelineId) {
+        List<String> ids = new ArrayList<>();
+        for (PipelineEvent event : events) {
+            if (event.pipelineId().equals(pipelineId)) {
+                ids.add(event instanceof StageCreatedEvent ? ((StageCreatedEvent) event).id() : "created");
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> expectedIds() {
+        List<String> ids = new ArrayList<>();
+        ids.add("created");
+        for (int i = 1; i <= 20; i++) {
+            ids.add(String.valueOf(i));
+        }
+        return ids;
+    }
+
+    private static PipelineEvent stage(String pipelineId, int id) {
+        return new StageCreatedEvent(pipelineId, String.valueOf(id), "0", id - 1, "stage" + id,
+                System.currentTimeMillis(), "SEQUENCE");
+    }
+
+    private static PipelineInfo createInfo(String id) {
+        return PipelineInfo.builder()
+                .id(id)
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(Status.State.RUNNING))
+                .timings(new Timings(System.currentTimeMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.build.publisher.model.DescriptorJournalManager;
+import io.helidon.build.publisher.model.EventProcessor;
+import io.helidon.build.publisher.model.JacksonSupport;
+import io.helidon.build.publisher.model.PipelineInfo;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.build.publisher.model.Timings;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.PipelineEvents;
+import io.helidon.build.publisher.model.events.StageCreatedEvent;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link EventsSubscriber}.
+ */
+public class EventsSubscriberTest {
+
+    @Test
+    public void testEvents() throws Exception {
+        List<PipelineEvent> applied = Collections.synchronizedList(new ArrayList<>());
+        EventsSubscriber subscriber = new EventsSubscriber(createScheduler(applied), null, false);
+        subscriber.onSubscribe(new TestSubscription());
+        subscriber.onNext(DataChunk.create(ByteBuffer.wrap(serialize(createEvents()))));
+        subscriber.onComplete();
+        subscriber.future().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThat(applied, is(createEvents()));
+    }
+
+    @Test
+    public void testSmile() throws Exception {
+        List<PipelineEvent> applied = Collections.synchronizedList(new ArrayList<>());
+        EventsSubscriber subscriber = new EventsSubscriber(createScheduler(applied), null, true);
+        subscriber.onSubscribe(new TestSubscription());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JacksonSupport.writeSmile(baos, new PipelineEvents(createEvents()));
+        subscriber.onNext(DataChunk.create(ByteBuffer.wrap(baos.toByteArray())));
+        subscriber.onComplete();
+        subscriber.future().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThat(applied, is(createEvents()));
+    }
+
+    @Test
+    public void testPartiallyApplied() throws Exception {
+        List<PipelineEvent> applied = Collections.synchronizedList(new ArrayList<>());
+        EventsSubscriber subscriber = new EventsSubscriber(createScheduler(applied), null, false);
+        subscriber.onSubscribe(new TestSubscription());
+
+        // first chunk with complete events, second chunk is invalid
+        String json = new String(serialize(createEvents()), StandardCharsets.UTF_8);
+        byte[] chunk1 = json.substring(0, json.lastIndexOf(']')).getBytes(StandardCharsets.UTF_8);
+        subscriber.onNext(DataChunk.create(ByteBuffer.wrap(chunk1)));
+        subscriber.onNext(DataChunk.create(ByteBuffer.wrap("}}".getBytes(StandardCharsets.UTF_8))));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> subscriber.future().toCompletableFuture().get(10, TimeUnit.SECONDS));
+        assertThat(ex.getCause(), is(instanceOf(IllegalArgumentException.class)));
+
+        // the events of the first chunk are applied
+        assertThat(applied, is(createEvents()));
+    }
+
+    private static EventScheduler createScheduler(List<PipelineEvent> applied) throws Exception {
+        Path storage = Files.createTempDirectory("subscriber");
+        EventProcessor processor = new EventProcessor(new DescriptorJournalManager(storage), null,
+                Collections.singletonList(applied::add));
+        return new EventScheduler(processor, 1);
+    }
+
+    private static byte[] serialize(List<PipelineEvent> events) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JacksonSupport.write(baos, new PipelineEvents(events));
+        return baos.toByteArray();
+    }
+
+    private static List<PipelineEvent> createEvents() {
+        PipelineInfo info = PipelineInfo.builder()
+                .id("pipeline1")
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(Status.State.RUNNING))
+                .timings(new Timings(1000))
+                .build();
+        return Arrays.asList(
+                new PipelineCreatedEvent(info),
+                new StageCreatedEvent("pipeline1", "1", "0", 0, "build", 1000, "SEQUENCE"));
+    }
+
+    private static final class TestSubscription implements Subscription {
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
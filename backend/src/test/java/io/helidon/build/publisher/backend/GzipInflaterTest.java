@@ -0,0 +1,111 @@
+package io.helidon.build.publisher.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link GzipInflater}.
+ */
+public class GzipInflaterTest {
+
+    private static final String DATA = "Hello World!\nThis is a test.\n";
+
+    @Test
+    public void testSplitInput() throws IOException {
+        byte[] compressed = gzip(DATA);
+        for (int split = 1; split < compressed.length; split++) {
+            BufferPool pool = new BufferPool(16, 4);
+            GzipInflater inflater = new GzipInflater(pool);
+            List<ByteBuffer> out = new ArrayList<>();
+            inflater.inflate(ByteBuffer.wrap(Arrays.copyOfRange(compressed, 0, split)), out);
+            inflater.inflate(ByteBuffer.wrap(Arrays.copyOfRange(compressed, split, compressed.length)), out);
+            inflater.finish();
+            inflater.end();
+            assertThat(toString(out), is(DATA));
+        }
+    }
+
+    @Test
+    public void testDirectBuffer() throws IOException {
+        byte[] compressed = gzip(DATA);
+        ByteBuffer in = ByteBuffer.allocateDirect(compressed.length);
+        in.put(compressed).flip();
+        GzipInflater inflater = new GzipInflater(new BufferPool(1024, 4));
+        List<ByteBuffer> out = new ArrayList<>();
+        inflater.inflate(in, out);
+        inflater.finish();
+        inflater.end();
+        assertThat(in.hasRemaining(), is(false));
+        assertThat(toString(out), is(DATA));
+    }
+
+    @Test
+    public void testMultipleMembers() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(gzip("foo\n"));
+        baos.write(gzip("bar\n"));
+        GzipInflater inflater = new GzipInflater(new BufferPool(1024, 4));
+        List<ByteBuffer> out = new ArrayList<>();
+        inflater.inflate(ByteBuffer.wrap(baos.toByteArray()), out);
+        inflater.finish();
+        inflater.end();
+        assertThat(toString(out), is("foo\nbar\n"));
+    }
+
+    @Test
+    public void testInvalidCrc() throws IOException {
+        byte[] compressed = gzip(DATA);
+        compressed[compressed.length - 8] ^= 0xff;
+        GzipInflater inflater = new GzipInflater(new BufferPool(1024, 4));
+        assertThrows(ZipException.class, () -> inflater.inflate(ByteBuffer.wrap(compressed), new ArrayList<>()));
+        inflater.end();
+    }
+
+    @Test
+    public void testTruncatedInput() throws IOException {
+        byte[] compressed = gzip(DATA);
+        GzipInflater inflater = new GzipInflater(new BufferPool(1024, 4));
+        inflater.inflate(ByteBuffer.wrap(Arrays.copyOfRange(compressed, 0, compressed.length - 4)), new ArrayList<>());
+        assertThrows(ZipException.class, inflater::finish);
+        inflater.end();
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        GzipInflater inflater = new GzipInflater(new BufferPool(1024, 4));
+        List<ByteBuffer> out = new ArrayList<>();
+        inflater.inflate(ByteBuffer.allocate(0), out);
+        inflater.finish();
+        inflater.end();
+        assertThat(toString(out), is(""));
+    }
+
+    private static byte[] gzip(String data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzos = new GZIPOutputStream(baos)) {
+            gzos.write(data.getBytes(StandardCharsets.UTF_8));
+        }
+        return baos.toByteArray();
+    }
+
+    private static String toString(List<ByteBuffer> buffers) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            baos.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
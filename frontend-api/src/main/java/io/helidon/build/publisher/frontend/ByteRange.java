@@ -0,0 +1,78 @@
+package io.helidon.build.publisher.frontend;
+
+/**
+ * A single byte range of a {@code Range} request header.
+ * Multiple ranges are not supported, such requests are answered with the full representation.
+ */
+final class ByteRange {
+
+    private static final String UNIT = "bytes=";
+
+    /**
+     * The first position, inclusive.
+     */
+    final long begin;
+
+    /**
+     * The last position, exclusive.
+     */
+    final long end;
+
+    private ByteRange(long begin, long end) {
+        this.begin = begin;
+        this.end = end;
+    }
+
+    /**
+     * Parse a {@code Range} header value.
+     * @param value the header value
+     * @param length the length of the representation
+     * @return ByteRange, or {@code null} if the value is not a single byte range and should be ignored
+     * @throws IllegalArgumentException if the range cannot be satisfied
+     */
+    static ByteRange parse(String value, long length) {
+        value = value.trim();
+        if (!value.startsWith(UNIT) || value.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = value.substring(UNIT.length()).trim();
+        int index = spec.indexOf('-');
+        if (index < 0) {
+            return null;
+        }
+        long first;
+        long last;
+        try {
+            if (index == 0) {
+                // suffix range, the last N bytes
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    throw new IllegalArgumentException("Unsatisfiable range: " + value);
+                }
+                first = Math.max(0, length - suffix);
+                last = length - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, index));
+                last = index == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(index + 1));
+            }
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (first < 0 || last < first) {
+            return null;
+        }
+        if (first >= length) {
+            throw new IllegalArgumentException("Unsatisfiable range: " + value);
+        }
+        return new ByteRange(first, Math.min(last, length - 1) + 1);
+    }
+
+    /**
+     * Get the value of the {@code Content-Range} header for this range.
+     * @param length the length of the representation
+     * @return header value
+     */
+    String contentRange(long length) {
+        return "bytes " + begin + "-" + (end - 1) + "/" + length;
+    }
+}
@@ -0,0 +1,147 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.helidon.build.publisher.model.BlockLog;
+import io.helidon.build.publisher.model.BlockLogReader;
+
+/**
+ * Random access source of bytes, either a plain file or a {@link BlockLog block compressed log} read at uncompressed
+ * offsets.
+ */
+interface ByteSource extends Closeable {
+
+    /**
+     * Get the length of this source.
+     * @return length
+     */
+    long length();
+
+    /**
+     * Read bytes at the given position.
+     * @param position the position to read from
+     * @param dst the buffer to read into
+     * @return the number of bytes read, or {@code -1} if position is at the end of the source
+     * @throws IOException if an IO error occurs
+     */
+    int read(long position, ByteBuffer dst) throws IOException;
+
+    /**
+     * Create a channel that reads this source sequentially from the given position.
+     * Closing the channel closes this source.
+     * @param position the start position
+     * @return ReadableByteChannel
+     */
+    default ReadableByteChannel channel(long position) {
+        return new ReadableByteChannel() {
+
+            private long pos = position;
+            private boolean open = true;
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                int n = ByteSource.this.read(pos, dst);
+                if (n > 0) {
+                    pos += n;
+                }
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() throws IOException {
+                open = false;
+                ByteSource.this.close();
+            }
+        };
+    }
+
+    /**
+     * Open a source for the given path.
+     * The path is opened as a block compressed log if it does not exist as a plain file.
+     * @param path the path
+     * @return ByteSource
+     * @throws IOException if an IO error occurs
+     */
+    static ByteSource open(Path path) throws IOException {
+        if (!Files.exists(path) && BlockLog.exists(path)) {
+            return new BlockLogSource(new BlockLogReader(path));
+        }
+        return new FileSource(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Plain file source.
+     */
+    final class FileSource implements ByteSource {
+
+        private final FileChannel channel;
+        private final long length;
+
+        FileSource(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.length = channel.size();
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public int read(long position, ByteBuffer dst) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        /**
+         * Get the underlying file channel.
+         * @return FileChannel
+         */
+        FileChannel fileChannel() {
+            return channel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Block compressed log source.
+     */
+    final class BlockLogSource implements ByteSource {
+
+        private final BlockLogReader reader;
+
+        BlockLogSource(BlockLogReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public long length() {
+            return reader.length();
+        }
+
+        @Override
+        public int read(long position, ByteBuffer dst) throws IOException {
+            return reader.read(position, dst);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.helidon.common.http.Http;
+import io.helidon.webserver.ServerRequest;
+import io.helidon.webserver.ServerResponse;
+
+/**
+ * Validators of a response derived from files, used to answer conditional requests.
+ * The entity tag is strong, it is derived from the names, sizes and modification times of the files.
+ */
+final class Conditional {
+
+    private final String etag;
+    private final Instant lastModified;
+
+    private Conditional(String etag, Instant lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Create the validators of a response derived from the given files.
+     * The files that do not exist are ignored.
+     * @param paths the files
+     * @return Conditional
+     * @throws IOException if an IO error occurs
+     */
+    static Conditional of(Path... paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.exists(path)) {
+                files.add(path);
+            }
+        }
+        return of(files);
+    }
+
+    /**
+     * Create the validators of a response derived from the files of a directory tree.
+     * @param dir the directory, may not exist
+     * @return Conditional
+     * @throws IOException if an IO error occurs
+     */
+    static Conditional ofTree(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return of(new ArrayList<>());
+        }
+        try (Stream<Path> stream = Files.walk(dir)) {
+            return of(stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList()));
+        }
+    }
+
+    private static Conditional of(List<Path> files) throws IOException {
+        long hash = files.size();
+        long lastModified = 0;
+        for (Path file : files) {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long mtime = attrs.lastModifiedTime().toMillis();
+            hash = 31 * hash + file.getFileName().toString().hashCode();
+            hash = 31 * hash + attrs.size();
+            hash = 31 * hash + mtime;
+            lastModified = Math.max(lastModified, mtime);
+        }
+        String etag = "\"" + Long.toHexString(hash) + "-" + Long.toHexString(lastModified) + "\"";
+        return new Conditional(etag, Instant.ofEpochMilli(lastModified).truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Create the validators of a variant of the representation, e.g. a different content coding.
+     * @param suffix the variant suffix appended to the entity tag
+     * @return Conditional
+     */
+    Conditional variant(String suffix) {
+        return new Conditional(etag.substring(0, etag.length() - 1) + "-" + suffix + "\"", lastModified);
+    }
+
+    /**
+     * Get the entity tag.
+     * @return entity tag, quoted
+     */
+    String etag() {
+        return etag;
+    }
+
+    /**
+     * Set the validator headers of the response and answer with {@code 304} if the representation of the client is
+     * current.
+     * {@code If-None-Match} takes precedence over {@code If-Modified-Since}.
+     * @param req the request
+     * @param res the response
+     * @return {@code true} if the response was sent, {@code false} if the full response should be sent
+     */
+    boolean notModified(ServerRequest req, ServerResponse res) {
+        res.headers().put(Http.Header.ETAG, etag);
+        res.headers().lastModified(lastModified);
+        List<String> ifNoneMatch = req.headers().values(Http.Header.IF_NONE_MATCH);
+        boolean notModified;
+        if (!ifNoneMatch.isEmpty()) {
+            notModified = false;
+            for (String value : ifNoneMatch) {
+                for (String tag : value.split(",")) {
+                    tag = tag.trim();
+                    if (tag.startsWith("W/")) {
+                        tag = tag.substring(2);
+                    }
+                    if (tag.equals("*") || tag.equals(etag)) {
+                        notModified = true;
+                    }
+                }
+            }
+        } else {
+            Optional<ZonedDateTime> ifModifiedSince = req.headers().ifModifiedSince();
+            notModified = ifModifiedSince.isPresent() && !lastModified.isAfter(ifModifiedSince.get().toInstant());
+        }
+        if (notModified) {
+            res.status(Http.Status.NOT_MODIFIED_304).send();
+        }
+        return notModified;
+    }
+
+    /**
+     * Test if a range request can be honored, i.e. if {@code If-Range} is absent or matches the representation.
+     * @param req the request
+     * @return {@code true} if the range can be honored, {@code false} if the full representation should be sent
+     */
+    boolean ifRange(ServerRequest req) {
+        Optional<String> ifRange = req.headers().first(Http.Header.IF_RANGE);
+        if (!ifRange.isPresent()) {
+            return true;
+        }
+        String value = ifRange.get().trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            // strong comparison
+            return value.equals(etag);
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().equals(lastModified);
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.build.publisher.model.DescriptorFileManager;
+import io.helidon.build.publisher.model.JacksonSupport;
+import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.build.publisher.model.Status;
+
+/**
+ * Cache of serialized pipeline descriptors.
+ * The entries hold the JSON bytes, plain and gzipped, as well as the pipeline used to compute the changes since a given
+ * revision. They are keyed by pipeline id and by the size and modification time of the descriptor file. The cache is
+ * bounded by the total size of the entries, the running pipelines are evicted before the finished ones and expire
+ * sooner when idle.
+ */
+final class DescriptorCache {
+
+    private static final Logger LOGGER = Logger.getLogger(DescriptorCache.class.getName());
+    private static final long RUNNING_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+    private static final long FINISHED_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+
+    private final DescriptorFileManager descriptorManager;
+    private final long maxSize;
+    private final LinkedHashMap<String, Entry> running;
+    private final LinkedHashMap<String, Entry> finished;
+    private long size;
+
+    /**
+     * Create a new descriptor cache.
+     * @param descriptorManager the descriptor manager used to load the pipelines
+     * @param maxSize the maximum total size in bytes of the cached entries
+     */
+    DescriptorCache(DescriptorFileManager descriptorManager, long maxSize) {
+        this.descriptorManager = Objects.requireNonNull(descriptorManager, "descriptorManager is null");
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid maxSize: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.running = new LinkedHashMap<>(16, 0.75f, /* access order */ true);
+        this.finished = new LinkedHashMap<>(16, 0.75f, /* access order */ true);
+    }
+
+    /**
+     * Get the serialized descriptor of a pipeline.
+     * @param pipelineId the pipeline id
+     * @param filePath the pipeline descriptor file
+     * @return Entry, or {@code null} if the pipeline does not exist
+     * @throws IOException if an IO error occurs
+     */
+    Entry get(String pipelineId, Path filePath) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        long fileSize = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        synchronized (this) {
+            Entry entry = running.get(pipelineId);
+            if (entry == null) {
+                entry = finished.get(pipelineId);
+            }
+            if (entry != null && entry.fileSize == fileSize && entry.lastModified == lastModified) {
+                entry.lastAccess = System.currentTimeMillis();
+                return entry;
+            }
+        }
+        Pipeline pipeline = descriptorManager.loadPipeline(filePath);
+        if (pipeline == null) {
+            return null;
+        }
+        Entry entry = new Entry(pipeline.state() == Status.State.FINISHED, fileSize, lastModified, pipeline);
+        put(pipelineId, entry);
+        return entry;
+    }
+
+    private synchronized void put(String pipelineId, Entry entry) {
+        remove(pipelineId, running);
+        remove(pipelineId, finished);
+        if (entry.size() > maxSize) {
+            return;
+        }
+        (entry.finished ? finished : running).put(pipelineId, entry);
+        size += entry.size();
+        long now = System.currentTimeMillis();
+        evict(running, now - RUNNING_IDLE_TIMEOUT);
+        evict(finished, now - FINISHED_IDLE_TIMEOUT);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Caching descriptor, pipelineId={0}, size={1}, cacheSize={2}", new Object[]{
+                pipelineId,
+                entry.size(),
+                size
+            });
+        }
+    }
+
+    private void remove(String pipelineId, LinkedHashMap<String, Entry> entries) {
+        Entry entry = entries.remove(pipelineId);
+        if (entry != null) {
+            size -= entry.size();
+        }
+    }
+
+    /**
+     * Remove the entries idle since the given time, and the least recently used entries while the cache is full.
+     * @param idleTime the last access time of the idle entries
+     */
+    private void evict(LinkedHashMap<String, Entry> entries, long idleTime) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            // running entries are evicted first
+            boolean full = size > maxSize && (entries == running || running.isEmpty());
+            if (!full && entry.lastAccess > idleTime) {
+                break;
+            }
+            it.remove();
+            size -= entry.size();
+        }
+    }
+
+    /**
+     * A serialized descriptor.
+     */
+    static final class Entry {
+
+        private final boolean finished;
+        private final long fileSize;
+        private final long lastModified;
+        private final byte[] bytes;
+        private final byte[] gzipped;
+        private final Pipeline pipeline;
+        private volatile long lastAccess;
+
+        private Entry(boolean finished, long fileSize, long lastModified, Pipeline pipeline) throws IOException {
+            this.finished = finished;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            JacksonSupport.writeCompact(baos, pipeline);
+            this.bytes = baos.toByteArray();
+            baos.reset();
+            try (GZIPOutputStream gzos = new GZIPOutputStream(baos)) {
+                gzos.write(bytes);
+            }
+            this.gzipped = baos.toByteArray();
+            this.pipeline = pipeline;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        /**
+         * Get the JSON bytes.
+         * @return byte[]
+         */
+        byte[] bytes() {
+            return bytes;
+        }
+
+        /**
+         * Get the gzipped JSON bytes.
+         * @return byte[]
+         */
+        byte[] gzipped() {
+            return gzipped;
+        }
+
+        /**
+         * Get the pipeline.
+         * @return Pipeline, must not be modified
+         */
+        Pipeline pipeline() {
+            return pipeline;
+        }
+
+        /**
+         * Get the size of this entry.
+         * The size of the pipeline is estimated as the size of its JSON.
+         * @return size in bytes
+         */
+        long size() {
+            return 2 * bytes.length + gzipped.length;
+        }
+    }
+}
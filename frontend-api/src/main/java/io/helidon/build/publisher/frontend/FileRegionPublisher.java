@@ -0,0 +1,156 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+import io.helidon.common.reactive.RequestedCounter;
+
+/**
+ * Publisher of a region of a plain file without copies.
+ * The region is memory mapped a slice at a time and the mapped buffers are handed to the transport as is, the bytes are
+ * written to the socket from the page cache instead of being read into heap buffers first. The file channel is closed
+ * when the publisher completes.
+ */
+final class FileRegionPublisher implements Publisher<DataChunk> {
+
+    private static final Logger LOGGER = Logger.getLogger(FileRegionPublisher.class.getName());
+    private static final int SLICE_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final RequestedCounter requested;
+    private final AtomicInteger pending;
+    private final AtomicBoolean subscribed;
+    private Subscriber<? super DataChunk> subscriber;
+    private volatile boolean cancelled;
+    private boolean done;
+    private long position;
+
+    /**
+     * Create a new file region publisher.
+     * @param channel the file channel, closed when the publisher completes
+     * @param begin the beginning of the region
+     * @param end the end of the region
+     */
+    FileRegionPublisher(FileChannel channel, long begin, long end) {
+        this.channel = channel;
+        this.position = begin;
+        this.end = end;
+        this.requested = new RequestedCounter();
+        this.pending = new AtomicInteger();
+        this.subscribed = new AtomicBoolean();
+    }
+
+    /**
+     * Create a publisher for a file segment.
+     * The segment is published without copies if it is backed by a plain file, otherwise it is read with
+     * {@link FileSegmentPublisher}.
+     * @param segment the segment
+     * @return Publisher
+     * @throws IOException if an IO error occurs
+     */
+    static Publisher<DataChunk> create(FileSegment segment) throws IOException {
+        if (segment.source instanceof ByteSource.FileSource) {
+            return new FileRegionPublisher(((ByteSource.FileSource) segment.source).fileChannel(), segment.begin,
+                    segment.end);
+        }
+        return new FileSegmentPublisher(segment);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Already subscribed"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                requested.increment(n, ex -> {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Publish the slices, one drain at a time.
+     */
+    private void drain() {
+        if (pending.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (missed != 0) {
+            publish();
+            missed = pending.addAndGet(-missed);
+        }
+    }
+
+    private void publish() {
+        while (!done) {
+            if (cancelled) {
+                close();
+                return;
+            }
+            if (position >= end) {
+                close();
+                subscriber.onComplete();
+                return;
+            }
+            if (!requested.tryDecrement()) {
+                return;
+            }
+            MappedByteBuffer slice;
+            try {
+                slice = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SLICE_SIZE, end - position));
+            } catch (Throwable ex) {
+                close();
+                subscriber.onError(ex);
+                return;
+            }
+            position += slice.remaining();
+            // not flagged as read-only, read-only chunks are copied by the webserver
+            subscriber.onNext(DataChunk.create(position >= end, slice));
+        }
+    }
+
+    private void close() {
+        if (done) {
+            return;
+        }
+        done = true;
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to close file channel", ex);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package io.helidon.build.publisher.frontend;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import io.helidon.build.publisher.model.LineIndex;
+
+import static io.helidon.build.publisher.model.LineIndex.STRIDE;
 
 /**
  * Pair of being and end position.
@@ -21,9 +24,16 @@ final class FileSegment {
     final long end;
 
     /**
-     * The underlying file.
+     * The underlying source.
+     */
+    final ByteSource source;
+
+    /**
+     * The line index of the source, may be {@code null}.
      */
-    final RandomAccessFile raf;
+    final LineIndex index;
+
+    private LineScanner scanner;
 
     // TODO add lines attributes
     // initialize it to -1
@@ -48,14 +58,18 @@ final class FileSegment {
      * @param file the file
      */
     FileSegment(long begin, long end, File file) {
-        this.begin = begin;
-        this.end = end;
-        this.lines = -1;
-        try {
-            this.raf = new RandomAccessFile(file, "r");
-        } catch(FileNotFoundException ex) {
-            throw new IllegalStateException(ex);
-        }
+        this(begin, end, -1, open(file), null);
+    }
+
+    /**
+     * Create a new segment.
+     *
+     * @param begin begin position
+     * @param end end position
+     * @param source the source
+     */
+    FileSegment(long begin, long end, ByteSource source) {
+        this(begin, end, -1, source, null);
     }
 
     /**
@@ -63,12 +77,33 @@ final class FileSegment {
      *
      * @param begin begin position
      * @param end end position
+     * @param source the source
+     * @param index the line index of the source, may be {@code null}
      */
-    private FileSegment(long begin, long end, int lines, RandomAccessFile raf) {
+    FileSegment(long begin, long end, ByteSource source, LineIndex index) {
+        this(begin, end, -1, source, index);
+    }
+
+    /**
+     * Create a new segment.
+     *
+     * @param begin begin position
+     * @param end end position
+     */
+    private FileSegment(long begin, long end, int lines, ByteSource source, LineIndex index) {
         this.begin = begin;
         this.end = end;
         this.lines = lines;
-        this.raf  = raf;
+        this.source  = source;
+        this.index = index;
+    }
+
+    private static ByteSource open(File file) {
+        try {
+            return ByteSource.open(file.toPath());
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 
     /**
@@ -81,7 +116,7 @@ final class FileSegment {
         if (position > end) {
             throw new IllegalArgumentException("Invalid position");
         }
-        return new FileSegment(position, end, -1, raf);
+        return new FileSegment(position, end, -1, source, index);
     }
 
     /**
@@ -98,7 +133,7 @@ final class FileSegment {
         if (position + limit > end) {
             throw new IllegalArgumentException("Invalid limit");
         }
-        return new FileSegment(position, position + limit, -1, raf);
+        return new FileSegment(position, position + limit, -1, source, index);
     }
 
     /**
@@ -107,9 +142,11 @@ final class FileSegment {
      * @throws IOException if an IO error occurs
      */
     String readString() throws IOException {
-        raf.seek(begin);
         byte[] buf = new byte[lenght()];
-        raf.read(buf);
+        ByteBuffer buffer = ByteBuffer.wrap(buf);
+        while (buffer.hasRemaining() && source.read(begin + buffer.position(), buffer) > 0) {
+            // read until the end of the segment
+        }
         return new String(buf);
     }
 
@@ -136,6 +173,14 @@ final class FileSegment {
         if (lines == Integer.MAX_VALUE && !linesOnly) {
             return this;
         }
+        // the index is used when the scan could span more than one entry
+        if (index != null && lines > STRIDE) {
+            if (backward) {
+                return findIndexedLinesBackward(lines, linesOnly);
+            } else {
+                return findIndexedLinesForward(lines, linesOnly);
+            }
+        }
         if (backward) {
             return findLinesBackward(lines, linesOnly);
         } else {
@@ -143,51 +188,150 @@ final class FileSegment {
         }
     }
 
+    /**
+     * Get the position of the beginning of a line.
+     * @param line the line number, starting at {@code 0}
+     * @return the position, or the length of the source if the source has less lines
+     * @throws IOException if an IO error occurs
+     */
+    long lineOffset(long line) throws IOException {
+        if (index == null) {
+            return skipLines(0, line);
+        }
+        int entry = (int) Math.min(line / STRIDE, index.size());
+        return skipLines(index.offset(entry), line - (long) entry * STRIDE);
+    }
+
+    /**
+     * Get the line number of a position.
+     * @param position the position
+     * @return the number of newlines before position
+     * @throws IOException if an IO error occurs
+     */
+    long lineNumber(long position) throws IOException {
+        if (index == null) {
+            return countLines(0, position);
+        }
+        int entry = index.floor(position);
+        return (long) entry * STRIDE + countLines(index.offset(entry), position);
+    }
+
     private FileSegment findLinesForward(int lines, boolean linesOnly) throws IOException {
+        LineScanner scanner = scanner();
         int numlines = 0;
         long beginPos = begin;
         long endPos = begin;
         long linePos = begin;
-        raf.seek(beginPos);
         while((lines == Integer.MAX_VALUE  || numlines < lines) && endPos < end) {
-            int readByte = raf.readByte() & 0xFF;
-            if (readByte == 0xA) {
-                linePos = endPos + 1;
-                numlines++;
-            } else if (readByte < 0) {
+            long newline = scanner.next(endPos, end);
+            if (newline < 0) {
+                endPos = end;
                 break;
             }
-            endPos++;
+            linePos = newline + 1;
+            endPos = linePos;
+            numlines++;
         }
         if (linesOnly) {
             endPos = linePos;
         }
-        return new FileSegment(beginPos, endPos, numlines, raf);
+        return new FileSegment(beginPos, endPos, numlines, source, index);
     }
 
     private FileSegment findLinesBackward(int lines, boolean linesOnly) throws IOException {
+        LineScanner scanner = scanner();
         int numlines = 0;
         long beginPos = end;
         long endPos = end;
         boolean skip = linesOnly;
-        int readByte = 0;
+        // true if the scan stopped on a newline
+        boolean newline = false;
         while((lines == Integer.MAX_VALUE || numlines < lines) && beginPos > begin) {
-            raf.seek(--beginPos);
-            readByte = raf.readByte() & 0xFF;
-            if (readByte == 0xA) {
-                if (skip) {
-                    endPos = beginPos + 1;
-                    skip = false;
-                } else if (beginPos < end - 1) {
-                    numlines++;
-                }
+            long position = scanner.previous(begin, beginPos);
+            if (position < 0) {
+                beginPos = begin;
+                newline = false;
+                break;
+            }
+            beginPos = position;
+            newline = true;
+            if (skip) {
+                endPos = beginPos + 1;
+                skip = false;
+            } else if (beginPos < end - 1) {
+                numlines++;
             }
         }
         if (skip) {
             beginPos = endPos;
-        } else if (lines != Integer.MAX_VALUE && readByte == 0xA && endPos - beginPos > 1) {
+        } else if (lines != Integer.MAX_VALUE && newline && endPos - beginPos > 1) {
             beginPos++;
         }
-        return new FileSegment(beginPos, endPos, numlines, raf);
+        return new FileSegment(beginPos, endPos, numlines, source, index);
+    }
+
+    private FileSegment findIndexedLinesForward(int lines, boolean linesOnly) throws IOException {
+        long first = lineNumber(begin);
+        long last = lineNumber(end);
+        long count = last - first;
+        if (lines != Integer.MAX_VALUE && count >= lines) {
+            return new FileSegment(begin, lineOffset(first + lines), lines, source, index);
+        }
+        long endPos = end;
+        if (linesOnly) {
+            endPos = count > 0 ? lineOffset(last) : begin;
+        }
+        return new FileSegment(begin, endPos, (int) count, source, index);
+    }
+
+    private FileSegment findIndexedLinesBackward(int lines, boolean linesOnly) throws IOException {
+        if (begin == end) {
+            return new FileSegment(end, end, 0, source, index);
+        }
+        long endPos = end;
+        if (linesOnly) {
+            // end after the last newline
+            long total = lineNumber(end);
+            endPos = total > 0 ? lineOffset(total) : 0;
+            if (endPos <= begin) {
+                return new FileSegment(end, end, 0, source, index);
+            }
+        }
+        // a newline at the end of the segment does not count
+        long last = lineNumber(endPos - 1);
+        long count = last - lineNumber(begin);
+        if (lines != Integer.MAX_VALUE && count >= lines) {
+            return new FileSegment(lineOffset(last - lines + 1), endPos, lines, source, index);
+        }
+        long beginPos = begin;
+        if (lines != Integer.MAX_VALUE && begin < endPos - 1 && scanner().isNewline(begin)) {
+            beginPos++;
+        }
+        return new FileSegment(beginPos, endPos, (int) count, source, index);
+    }
+
+    private long countLines(long from, long to) throws IOException {
+        return scanner().count(from, to);
+    }
+
+    private long skipLines(long from, long count) throws IOException {
+        LineScanner scanner = scanner();
+        long length = source.length();
+        long position = from;
+        for (long i = 0; i < count; i++) {
+            long newline = scanner.next(position, length);
+            if (newline < 0) {
+                return length;
+            }
+            position = newline + 1;
+        }
+        return position;
+    }
+
+    private LineScanner scanner() {
+        if (scanner == null) {
+            scanner = new LineScanner(source);
+        }
+        return scanner;
     }
 }
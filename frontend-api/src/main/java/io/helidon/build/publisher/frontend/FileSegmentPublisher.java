@@ -18,8 +18,7 @@ final class FileSegmentPublisher implements Publisher<DataChunk> {
     private final Publisher<DataChunk> delegate;
 
     FileSegmentPublisher(FileSegment segment) throws IOException {
-        segment.raf.seek(segment.begin);
-        delegate = Multi.from(new ReadableByteChannelPublisher(segment.raf.getChannel(), RETRY_SCHEMA))
+        delegate = Multi.from(new ReadableByteChannelPublisher(segment.source.channel(segment.begin), RETRY_SCHEMA))
                 .limit(new DataChunkLimiter(segment.end - segment.begin));
     }
 
@@ -1,25 +1,41 @@
 package io.helidon.build.publisher.frontend;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Comparator;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import io.helidon.build.publisher.frontend.reactive.Multi;
 import io.helidon.build.publisher.model.Artifacts;
+import io.helidon.build.publisher.model.BlockLog;
 import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.build.publisher.model.PipelineIndex;
 import io.helidon.build.publisher.model.PipelineInfo;
-import io.helidon.build.publisher.model.PipelineInfos;
 import io.helidon.build.publisher.model.DescriptorFileManager;
+import io.helidon.build.publisher.model.JacksonSupport;
+import io.helidon.build.publisher.model.LineIndex;
+import io.helidon.build.publisher.model.Status;
 import io.helidon.build.publisher.model.TestSuiteResult;
 import io.helidon.build.publisher.model.TestSuiteResults;
 import io.helidon.common.http.DataChunk;
+import io.helidon.common.http.Http;
 import io.helidon.common.http.MediaType;
-import io.helidon.common.reactive.Flow.Publisher;
 import io.helidon.webserver.BadRequestException;
 import io.helidon.webserver.ResponseHeaders;
 import io.helidon.webserver.Routing;
@@ -38,16 +54,53 @@ final class FrontendService implements Service {
     private static final String LINES_HEADERS = "vnd.io.helidon.publisher.lines";
     private static final String REMAINING_HEADER = "vnd.io.helidon.publisher.remaining";
     private static final String POSITION_HEADER = "vnd.io.helidon.publisher.position";
+    private static final String LINE_HEADER = "vnd.io.helidon.publisher.line";
+    private static final MediaType NDJSON = MediaType.create("application", "x-ndjson");
+    private static final String PIPELINE_FNAME = "pipeline.json";
+    private static final int DEFAULT_SEARCH_MATCHES = 100;
+    private static final int MAX_SEARCH_MATCHES = 1000;
+    private static final int DEFAULT_SEARCH_PARALLELISM = 2;
+    private static final int DEFAULT_SEARCH_TIMEOUT = 10;
+    private static final int FOLLOW_THREADS = 2;
+    private static final long DEFAULT_DESCRIPTOR_CACHE_SIZE = 64 * 1024 * 1024;
+    private static final List<String> CATALOG_PARAMS = Arrays.asList("repo", "ref", "user", "status", "from", "to",
+            "sort", "after", "limit");
+    private static final int DEFAULT_CATALOG_LIMIT = 20;
+    private static final int MAX_CATALOG_LIMIT = 100;
+    private static final String BADGE_URL = "https://img.shields.io/badge/build-";
+    private static final int BADGE_MAX_AGE = 60;
 
     private final Path storagePath;
     private final DescriptorFileManager descriptorManager;
+    private final DescriptorCache descriptorCache;
+    private final PipelineIndex pipelineIndex;
+    private final PipelineCatalog pipelineCatalog;
     private final ContentTypeSelector contentTypeSelector;
+    private final ExecutorService searchExecutor;
+    private final ScheduledExecutorService followExecutor;
+    private final int searchParallelism;
+    private final int searchTimeout;
 
     /**
      * Create a new front-end service.
      * @param storagePath storage path
      */
     FrontendService(Path storagePath) {
+        this(storagePath, Runtime.getRuntime().availableProcessors(), DEFAULT_SEARCH_PARALLELISM,
+                DEFAULT_SEARCH_TIMEOUT, DEFAULT_DESCRIPTOR_CACHE_SIZE);
+    }
+
+    /**
+     * Create a new front-end service.
+     * @param storagePath storage path
+     * @param searchThreads the size of the thread pool used to search the logs
+     * @param searchParallelism the maximum number of logs searched at a time by one pipeline search
+     * @param searchTimeout the maximum duration of a search in seconds
+     * @param descriptorCacheSize the maximum size in bytes of the serialized pipeline descriptors kept in memory
+     */
+    FrontendService(Path storagePath, int searchThreads, int searchParallelism, int searchTimeout,
+            long descriptorCacheSize) {
+
         this.storagePath = storagePath;
         if (!Files.exists(storagePath)) {
             try {
@@ -57,22 +110,57 @@ final class FrontendService implements Service {
             }
         }
         descriptorManager = new DescriptorFileManager(storagePath);
+        descriptorCache = new DescriptorCache(descriptorManager, descriptorCacheSize);
+        pipelineIndex = new PipelineIndex(storagePath);
+        pipelineCatalog = new PipelineCatalog(pipelineIndex);
         contentTypeSelector = new ContentTypeSelector(null);
+        searchExecutor = new ForkJoinPool(searchThreads);
+        followExecutor = Executors.newScheduledThreadPool(FOLLOW_THREADS);
+        this.searchParallelism = searchParallelism;
+        this.searchTimeout = searchTimeout;
         LOGGER.log(Level.INFO, "Creating frontend service, storagePath={0}", storagePath);
     }
 
     @Override
     public void update(Routing.Rules rules) {
         rules.get("/", this::listPipelines)
+             .get("/badge", this::getBadge)
              .get("/{pipelineId}", this::getPipeline)
+             .get("/{pipelineId}/search", this::searchPipeline)
              .get("/{pipelineId}/output/{stepId}", this::getOutput)
+             .get("/{pipelineId}/output/{stepId}/search", this::searchOutput)
              .get("/{pipelineId}/artifacts/{stageId}", this::getArtifacts)
              .get("/{pipelineId}/artifacts/{stageId}/{filepath:.+}", this::getArtifact)
              .get("/{pipelineId}/tests/{stageId}", this::getTests);
     }
 
-    // TODO implement a badge endpoint
-    // query the storage index for a status and redirect to https://shields.io/ URL
+    private void getBadge(ServerRequest req, ServerResponse res) {
+        String repositoryUrl = req.queryParams().first("repo")
+                .orElseThrow(() -> new BadRequestException("Missing repo"));
+        String headRef = req.queryParams().first("ref")
+                .orElseThrow(() -> new BadRequestException("Missing ref"));
+        PipelineInfo info = pipelineCatalog.latest(repositoryUrl, headRef);
+        String status = info != null ? info.status() : Status.Result.UNKNOWN.toString();
+        // short lived, badges are expected to reflect the latest status
+        res.headers().put(Http.Header.CACHE_CONTROL, "max-age=" + BADGE_MAX_AGE);
+        res.headers().put(Http.Header.LOCATION, BADGE_URL + status.toLowerCase() + "-" + badgeColor(status));
+        res.status(Http.Status.FOUND_302).send();
+    }
+
+    private static String badgeColor(String status) {
+        switch (status) {
+            case "SUCCESS":
+                return "brightgreen";
+            case "FAILURE":
+                return "red";
+            case "UNSTABLE":
+                return "yellow";
+            case "RUNNING":
+                return "blue";
+            default:
+                return "lightgrey";
+        }
+    }
 
     private void getTests(ServerRequest req, ServerResponse res) {
         Path pipelinePath = storagePath.resolve(req.path().param("pipelineId"));
@@ -86,6 +174,9 @@ final class FrontendService implements Service {
         }
         Path testsPath = stagePath.resolve("tests");
         try {
+            if (Conditional.ofTree(testsPath).notModified(req, res)) {
+                return;
+            }
             List<TestSuiteResult> results = Files.list(testsPath)
                     .filter((path) -> path.toString().endsWith(".json"))
                     .map(descriptorManager::loadTestSuiteResult)
@@ -108,6 +199,9 @@ final class FrontendService implements Service {
             return;
         }
         try {
+            if (Conditional.ofTree(stagePath.resolve("artifacts")).notModified(req, res)) {
+                return;
+            }
             res.headers().contentType(MediaType.APPLICATION_JSON);
             res.send(Artifacts.find(stagePath.resolve("artifacts")));
         } catch (IOException ex) {
@@ -132,6 +226,10 @@ final class FrontendService implements Service {
             res.status(NOT_FOUND_404).send();
         } else {
             try {
+                Conditional conditional = Conditional.of(filePath);
+                if (conditional.notModified(req, res)) {
+                    return;
+                }
                 ResponseHeaders headers = res.headers();
                 if (download) {
                     headers.contentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -139,7 +237,11 @@ final class FrontendService implements Service {
                 } else {
                     headers.contentType(contentTypeSelector.determine(filePath.getFileName().toString(), req.headers()));
                 }
-                res.send(new FileSegmentPublisher(new FileSegment(0, Files.size(filePath), filePath.toFile())));
+                FileSegment segment = range(req, res, conditional,
+                        new FileSegment(0, Files.size(filePath), filePath.toFile()));
+                if (segment != null) {
+                    res.send(FileRegionPublisher.create(segment));
+                }
             } catch (IOException ex) {
                 req.next(ex);
             }
@@ -147,51 +249,128 @@ final class FrontendService implements Service {
     }
 
     private void listPipelines(ServerRequest req, ServerResponse res) {
+        for (String param : CATALOG_PARAMS) {
+            if (req.queryParams().first(param).isPresent()) {
+                queryPipelines(req, res);
+                return;
+            }
+        }
         int pagenum = toInt(req.queryParams().first("pagenum"), 1);
         int numitems = toInt(req.queryParams().first("numitems"), 20);
-        ResponseHeaders headers = res.headers();
+        if (pagenum <= 0 || numitems <= 0) {
+            throw new BadRequestException("Invalid page");
+        }
+        res.headers().contentType(MediaType.APPLICATION_JSON);
+        res.send(pipelineIndex.list(pagenum, numitems));
+    }
+
+    private void queryPipelines(ServerRequest req, ServerResponse res) {
+        PipelineCatalog.Query query = new PipelineCatalog.Query()
+                .repositoryUrl(req.queryParams().first("repo").orElse(null))
+                .headRef(req.queryParams().first("ref").orElse(null))
+                .user(req.queryParams().first("user").orElse(null))
+                // comma separated statuses (default is any)
+                .statuses(req.queryParams().first("status")
+                        .map((s) -> new HashSet<>(Arrays.asList(s.toUpperCase().split(","))))
+                        .orElse(null))
+                // start time range, ISO-8601 dates or instants (default is unbounded)
+                .range(toTime(req.queryParams().first("from"), Long.MIN_VALUE),
+                        toTime(req.queryParams().first("to"), Long.MAX_VALUE))
+                // id of the last pipeline of the previous page (default is none)
+                .after(req.queryParams().first("after").orElse(null));
+        String sort = req.queryParams().first("sort").orElse("desc");
+        if (!sort.equals("asc") && !sort.equals("desc")) {
+            throw new BadRequestException("Invalid sort");
+        }
+        query.ascending(sort.equals("asc"));
+        int limit = Math.min(toInt(req.queryParams().first("limit"), DEFAULT_CATALOG_LIMIT), MAX_CATALOG_LIMIT);
+        if (limit <= 0) {
+            throw new BadRequestException("Invalid limit");
+        }
+        query.limit(limit);
+        PipelineCatalog.Page page;
         try {
-            List<Path> allDescriptors = Files.list(storagePath)
-                    .filter(Files::isDirectory)
-                    .sorted(Comparator.<Path>comparingLong((p) -> p.toFile().lastModified()).reversed())
-                    .collect(Collectors.toList());
-            List<Path> pageDescriptors = allDescriptors.stream()
-                    .skip((pagenum - 1) * numitems) // skip to get to the current page
-                    .limit(numitems) // max limit calculate the remaining pages
-                    .collect(Collectors.toList());
-            List<PipelineInfo> pipelines = pageDescriptors.stream()
-                    .limit(numitems)
-                    .map(descriptorManager::loadInfoFromDir)
-                    .filter((p) -> p != null)
-                    .collect(Collectors.toList());
-            int totalsize = allDescriptors.size();
-            int totalpages = (int) totalsize / numitems;
-            if (totalsize % numitems > 0) {
-                totalpages++;
-            }
-            headers.contentType(MediaType.APPLICATION_JSON);
-            res.send(new PipelineInfos(pipelines, pagenum, totalpages));
-        } catch (IOException ex) {
-            req.next(ex);
+            page = pipelineCatalog.query(query);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
         }
+        res.headers().contentType(MediaType.APPLICATION_JSON);
+        res.send(page);
     }
 
     private void getPipeline(ServerRequest req, ServerResponse res) {
         ResponseHeaders headers = res.headers();
-        Pipeline pipeline = descriptorManager.loadPipeline(req.path().param("pipelineId"));
-        if (pipeline != null) {
+        String pipelineId = req.path().param("pipelineId");
+        // revision known by the client, only the changes since this revision are sent (default is none)
+        long since = toLong(req.queryParams().first("since"), -1L);
+        boolean gzip = since < 0 && acceptsGzip(req);
+        if (since < 0) {
+            // also set on the 304 responses
+            headers.put(Http.Header.VARY, Http.Header.ACCEPT_ENCODING);
+        }
+        try {
+            Conditional conditional = Conditional.of(storagePath.resolve(pipelineId).resolve(PIPELINE_FNAME));
+            if (gzip) {
+                // each content coding is a different representation
+                conditional = conditional.variant("gz");
+            }
+            if (conditional.notModified(req, res)) {
+                return;
+            }
+        } catch (IOException ex) {
+            req.next(ex);
+            return;
+        }
+        DescriptorCache.Entry entry;
+        try {
+            entry = descriptorCache.get(pipelineId, storagePath.resolve(pipelineId).resolve(PIPELINE_FNAME));
+        } catch (IOException ex) {
+            req.next(ex);
+            return;
+        }
+        if (entry == null) {
+            res.status(NOT_FOUND_404).send();
+        } else if (since >= 0) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try {
+                JacksonSupport.writeChanges(baos, entry.pipeline(), since);
+            } catch (IOException ex) {
+                req.next(ex);
+                return;
+            }
             headers.contentType(MediaType.APPLICATION_JSON);
-            res.send(pipeline);
+            res.send(baos.toByteArray());
         } else {
-            res.status(NOT_FOUND_404).send();
+            headers.contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                headers.put(Http.Header.CONTENT_ENCODING, "gzip");
+                res.send(entry.gzipped());
+            } else {
+                res.send(entry.bytes());
+            }
         }
     }
 
+    private static boolean acceptsGzip(ServerRequest req) {
+        for (String value : req.headers().values(Http.Header.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] params = coding.split(";");
+                if (params[0].trim().equals("gzip")) {
+                    // gzip;q=0 means not acceptable
+                    return params.length < 2 || !params[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
     private void getOutput(ServerRequest req, ServerResponse res) {
         // number of lines (default is infinite)
         int lines = toInt(req.queryParams().first("lines"), Integer.MAX_VALUE);
         // start position (default is 0)
         long position = toLong(req.queryParams().first("position"), 0L);
+        // start line, takes precedence over position (default is none)
+        long line = toLong(req.queryParams().first("line"), -1L);
         // count lines from the end? (default is false)
         boolean backward = toBoolean(req.queryParams().first("backward"), false);
         // return only complete lines? (default is false)
@@ -200,52 +379,86 @@ final class FrontendService implements Service {
         boolean html = toBoolean(req.queryParams().first("html"), false);
         // produce raw text ? (default is false)
         boolean raw = toBoolean(req.queryParams().first("html"), false);
+        // keep the response open and push the appended bytes until the step completes? (default is false)
+        boolean follow = toBoolean(req.queryParams().first("follow"), false);
 
         String pipelineId = req.path().param("pipelineId");
-        Path pipelinePath = storagePath.resolve(pipelineId);
         String stepId = req.path().param("stepId");
-        String fname = "step-" + stepId + ".log";
-        Path filePath = pipelinePath.resolve(fname);
-        if (!filePath.getParent().equals(pipelinePath)) {
-            throw new BadRequestException("Invalid stepId");
-        }
+        Path filePath = outputPath(req);
 
         ResponseHeaders headers = res.headers();
         // TODO remove me
         headers.put("Access-Control-Allow-Origin", "*");
-        if (!Files.exists(filePath)) {
+        if (!Files.exists(filePath) && !BlockLog.exists(filePath)) {
             res.status(404).send();
             return;
         }
 
         try {
+            Conditional conditional = Conditional.of(filePath, BlockLog.tailPath(filePath), BlockLog.dataPath(filePath));
+            if (!follow && conditional.notModified(req, res)) {
+                return;
+            }
+            ByteSource source = ByteSource.open(filePath);
             FileSegment fseg;
-            if (backward) {
-                fseg = new FileSegment(0, position == 0 ? Files.size(filePath): position, filePath.toFile());
-            } else {
-                fseg = new FileSegment(position, Files.size(filePath), filePath.toFile());
+            FileSegment lseg;
+            try {
+                LineIndex index = LineIndex.load(filePath, source.length());
+                if (line >= 0) {
+                    position = new FileSegment(0, source.length(), source, index).lineOffset(line);
+                }
+                if (backward) {
+                    fseg = new FileSegment(0, position == 0 && line < 0 ? source.length() : position, source, index);
+                } else {
+                    fseg = new FileSegment(position, source.length(), source, index);
+                }
+                lseg = fseg.findLines(lines, linesOnly, backward);
+                if (index != null) {
+                    headers.put(LINE_HEADER, String.valueOf(lseg.lineNumber(lseg.begin)));
+                }
+            } catch (IOException | RuntimeException ex) {
+                source.close();
+                throw ex;
             }
-            FileSegment lseg = fseg.findLines(lines, linesOnly, backward);
             // TODO remove me
-            headers.put("Access-Control-Expose-Headers", LINES_HEADERS, REMAINING_HEADER, POSITION_HEADER);
+            headers.put("Access-Control-Expose-Headers", LINES_HEADERS, REMAINING_HEADER, POSITION_HEADER, LINE_HEADER);
 
             headers.put(LINES_HEADERS, String.valueOf(lseg.lines));
             headers.put(REMAINING_HEADER, String.valueOf(backward ? lseg.begin : fseg.end - lseg.end));
             headers.put(POSITION_HEADER, String.valueOf(lseg.end));
 
-            Publisher<DataChunk> publisher = new FileSegmentPublisher(lseg);
-            if (!html) {
+            if (follow) {
+                // the follower re-opens the log to see the appended bytes
+                source.close();
+                Path pipelinePath = storagePath.resolve(pipelineId).resolve(PIPELINE_FNAME);
+                LogFollower follower = new LogFollower(filePath, lseg.begin, pipelineId, pipelinePath, stepId,
+                        descriptorCache, followExecutor);
+                if (!html) {
+                    headers.contentType(MediaType.TEXT_PLAIN);
+                    res.send(follower);
+                } else {
+                    headers.contentType(MediaType.TEXT_HTML);
+                    HtmlLineEncoder htmlEncoder = new HtmlLineEncoder(req.requestId());
+                    follower.subscribe(htmlEncoder);
+                    // flush the lines as they are encoded
+                    res.send(Multi.from(htmlEncoder).map((chunk) -> DataChunk.create(true, chunk.data(), chunk::release,
+                            chunk.isReadOnly())));
+                }
+            } else if (!html) {
                 if (raw) {
                     headers.contentType(MediaType.TEXT_PLAIN);
                 } else {
                     headers.contentType(MediaType.APPLICATION_OCTET_STREAM);
                     headers.put("Content-Disposition", "attachment; filename=\"" + pipelineId + "-" + stepId + ".log\"");
                 }
-                res.send(publisher);
+                FileSegment segment = range(req, res, conditional, lseg);
+                if (segment != null) {
+                    res.send(FileRegionPublisher.create(segment));
+                }
             } else {
                 headers.contentType(MediaType.TEXT_HTML);
                 HtmlLineEncoder htmlEncoder = new HtmlLineEncoder(req.requestId());
-                publisher.subscribe(htmlEncoder);
+                new FileSegmentPublisher(lseg).subscribe(htmlEncoder);
                 res.send(htmlEncoder);
             }
         } catch (IOException ex) {
@@ -253,10 +466,154 @@ final class FrontendService implements Service {
         }
     }
 
+    private void searchOutput(ServerRequest req, ServerResponse res) {
+        // the query
+        String query = req.queryParams().first("q").orElseThrow(() -> new BadRequestException("Missing q"));
+        // is the query a regular expression? (default is false)
+        boolean regex = toBoolean(req.queryParams().first("regex"), false);
+        // start position, must be the beginning of a line (default is 0)
+        long position = toLong(req.queryParams().first("position"), 0L);
+        // maximum number of matches (default is 100)
+        int max = Math.min(toInt(req.queryParams().first("max"), DEFAULT_SEARCH_MATCHES), MAX_SEARCH_MATCHES);
+
+        Path filePath = outputPath(req);
+        if (!Files.exists(filePath) && !BlockLog.exists(filePath)) {
+            res.status(404).send();
+            return;
+        }
+        try {
+            ByteSource source = ByteSource.open(filePath);
+            LogSearch search;
+            try {
+                if (position < 0 || position > source.length()) {
+                    throw new BadRequestException("Invalid position");
+                }
+                FileSegment segment = new FileSegment(0, source.length(), source,
+                        LineIndex.load(filePath, source.length()));
+                search = new LogSearch(source, position, segment.lineNumber(position), query, regex);
+                search.deadline(System.nanoTime() + TimeUnit.SECONDS.toNanos(searchTimeout));
+            } catch (IllegalArgumentException ex) {
+                source.close();
+                throw new BadRequestException(ex.getMessage(), ex);
+            } catch (IOException | RuntimeException ex) {
+                source.close();
+                throw ex;
+            }
+            res.headers().contentType(NDJSON);
+            res.send(new SearchPublisher(search, max, searchExecutor));
+        } catch (IOException ex) {
+            req.next(ex);
+        }
+    }
+
+    private void searchPipeline(ServerRequest req, ServerResponse res) {
+        // the query
+        String query = req.queryParams().first("q").orElseThrow(() -> new BadRequestException("Missing q"));
+        // is the query a regular expression? (default is false)
+        boolean regex = toBoolean(req.queryParams().first("regex"), false);
+        // maximum number of matches (default is 100)
+        int max = Math.min(toInt(req.queryParams().first("max"), DEFAULT_SEARCH_MATCHES), MAX_SEARCH_MATCHES);
+        // timeout in seconds, at most the configured timeout
+        int timeout = Math.min(toInt(req.queryParams().first("timeout"), searchTimeout), searchTimeout);
+
+        String pipelineId = req.path().param("pipelineId");
+        Path pipelinePath = storagePath.resolve(pipelineId);
+        if (!pipelinePath.getParent().equals(storagePath)) {
+            throw new BadRequestException("Invalid pipelineId");
+        }
+        if (!Files.isDirectory(pipelinePath)) {
+            res.status(404).send();
+            return;
+        }
+        try {
+            PipelineSearch search;
+            try {
+                search = new PipelineSearch(pipelinePath, descriptorManager.loadPipeline(pipelineId), query, regex, max,
+                        System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(timeout, 1)), searchParallelism,
+                        searchExecutor);
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequestException(ex.getMessage(), ex);
+            }
+            res.headers().contentType(NDJSON);
+            res.send(search);
+        } catch (IOException ex) {
+            req.next(ex);
+        }
+    }
+
+    /**
+     * Select the bytes of a segment requested with a {@code Range} header.
+     * The response status and the content headers are set for the selected bytes, if the range cannot be satisfied
+     * a {@code 416} response is sent and the segment is closed.
+     * @param req the request
+     * @param res the response
+     * @param conditional the validators of the response
+     * @param segment the segment
+     * @return the selected segment, or {@code null} if the response was sent
+     * @throws IOException if an IO error occurs
+     */
+    private static FileSegment range(ServerRequest req, ServerResponse res, Conditional conditional,
+            FileSegment segment) throws IOException {
+
+        ResponseHeaders headers = res.headers();
+        headers.put(Http.Header.ACCEPT_RANGES, "bytes");
+        long length = segment.end - segment.begin;
+        Optional<String> rangeHeader = req.headers().first(Http.Header.RANGE);
+        if (rangeHeader.isPresent() && conditional.ifRange(req)) {
+            ByteRange range;
+            try {
+                range = ByteRange.parse(rangeHeader.get(), length);
+            } catch (IllegalArgumentException ex) {
+                segment.source.close();
+                headers.put(Http.Header.CONTENT_RANGE, "bytes */" + length);
+                res.status(Http.Status.REQUESTED_RANGE_NOT_SATISFIABLE_416).send();
+                return null;
+            }
+            if (range != null) {
+                headers.put(Http.Header.CONTENT_RANGE, range.contentRange(length));
+                headers.contentLength(range.end - range.begin);
+                res.status(Http.Status.PARTIAL_CONTENT_206);
+                return new FileSegment(segment.begin + range.begin, segment.begin + range.end, segment.source);
+            }
+        }
+        headers.contentLength(length);
+        return segment;
+    }
+
+    /**
+     * Get the path of the output of a step.
+     * @param req the request
+     * @return Path
+     * @throws BadRequestException if the step id is invalid
+     */
+    private Path outputPath(ServerRequest req) {
+        Path pipelinePath = storagePath.resolve(req.path().param("pipelineId"));
+        Path filePath = pipelinePath.resolve("step-" + req.path().param("stepId") + ".log");
+        if (!filePath.getParent().equals(pipelinePath)) {
+            throw new BadRequestException("Invalid stepId");
+        }
+        return filePath;
+    }
+
     private static boolean toBoolean(Optional<String> optional, boolean defaultValue) {
         return optional.map((s) -> s.isEmpty() || Boolean.valueOf(s)).orElse(false);
     }
 
+    private static long toTime(Optional<String> optional, long defaultValue) {
+        if (!optional.isPresent()) {
+            return defaultValue;
+        }
+        String value = optional.get();
+        try {
+            if (value.indexOf('T') > 0) {
+                return Instant.parse(value).toEpochMilli();
+            }
+            return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid date: " + value);
+        }
+    }
+
     private static int toInt(Optional<String> optional, int defaultValue) {
         try {
             return optional.map(Integer::valueOf).orElse(defaultValue);
@@ -0,0 +1,210 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Newline scanner.
+ * The source is read in large blocks into a window that is re-used by subsequent searches, the window is searched for
+ * newlines a word at a time. Instances are not thread safe.
+ */
+final class LineScanner {
+
+    static final int WINDOW_SIZE = 64 * 1024;
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final ByteSource source;
+    private final ByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+
+    /**
+     * Create a new scanner.
+     * @param source the source to scan
+     */
+    LineScanner(ByteSource source) {
+        this.source = source;
+        this.window = ByteBuffer.allocate(WINDOW_SIZE);
+    }
+
+    /**
+     * Find the first newline within a range.
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the position of the newline, or {@code -1} if not found
+     * @throws IOException if an IO error occurs
+     */
+    long next(long from, long to) throws IOException {
+        while (from < to) {
+            if (from < windowStart || from >= windowEnd) {
+                load(from, Math.min(to, from + WINDOW_SIZE));
+            }
+            int limit = (int) (Math.min(to, windowEnd) - windowStart);
+            int i = (int) (from - windowStart);
+            for (; i + 8 <= limit; i += 8) {
+                long mask = newlines(window.getLong(i));
+                if (mask != 0) {
+                    // big endian, the first byte is the most significant
+                    return windowStart + i + (Long.numberOfLeadingZeros(mask) >>> 3);
+                }
+            }
+            for (; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    return windowStart + i;
+                }
+            }
+            from = windowStart + limit;
+        }
+        return -1;
+    }
+
+    /**
+     * Find the last newline within a range.
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the position of the newline, or {@code -1} if not found
+     * @throws IOException if an IO error occurs
+     */
+    long previous(long from, long to) throws IOException {
+        while (to > from) {
+            if (to <= windowStart || to > windowEnd) {
+                load(Math.max(from, to - WINDOW_SIZE), to);
+            }
+            int start = (int) (Math.max(from, windowStart) - windowStart);
+            int i = (int) (to - windowStart);
+            for (; i - 8 >= start; i -= 8) {
+                long mask = newlines(window.getLong(i - 8));
+                if (mask != 0) {
+                    // big endian, the last byte is the least significant
+                    return windowStart + i - 1 - (Long.numberOfTrailingZeros(mask) >>> 3);
+                }
+            }
+            for (i--; i >= start; i--) {
+                if (window.get(i) == '\n') {
+                    return windowStart + i;
+                }
+            }
+            to = windowStart + start;
+        }
+        return -1;
+    }
+
+    /**
+     * Count the newlines within a range.
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return number of newlines
+     * @throws IOException if an IO error occurs
+     */
+    long count(long from, long to) throws IOException {
+        long count = 0;
+        while (from < to) {
+            if (from < windowStart || from >= windowEnd) {
+                load(from, Math.min(to, from + WINDOW_SIZE));
+            }
+            int limit = (int) (Math.min(to, windowEnd) - windowStart);
+            int i = (int) (from - windowStart);
+            for (; i + 8 <= limit; i += 8) {
+                count += Long.bitCount(newlines(window.getLong(i)));
+            }
+            for (; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    count++;
+                }
+            }
+            from = windowStart + limit;
+        }
+        return count;
+    }
+
+    /**
+     * Find the first occurrence of a sequence of bytes within a range.
+     * @param bytes the bytes to find, at most {@link #WINDOW_SIZE} bytes
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the position of the first byte, or {@code -1} if not found
+     * @throws IOException if an IO error occurs
+     */
+    long indexOf(byte[] bytes, long from, long to) throws IOException {
+        int len = bytes.length;
+        byte first = bytes[0];
+        while (to - from >= len) {
+            if (from < windowStart || from + len > windowEnd) {
+                load(from, Math.min(to, from + WINDOW_SIZE));
+            }
+            // the last candidate
+            int limit = (int) (Math.min(to, windowEnd) - windowStart) - len;
+            for (int i = (int) (from - windowStart); i <= limit; i++) {
+                if (window.get(i) == first && matches(bytes, i)) {
+                    return windowStart + i;
+                }
+            }
+            // the next window overlaps the candidates that do not fit in this window
+            from = windowStart + limit + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the bytes within a range.
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive, at most {@link #WINDOW_SIZE} bytes after {@code from}
+     * @return a read-only view of the bytes, valid until the next call to this scanner
+     * @throws IOException if an IO error occurs
+     */
+    ByteBuffer bytes(long from, long to) throws IOException {
+        if (to - from > WINDOW_SIZE) {
+            throw new IllegalArgumentException("Invalid range: " + from + "-" + to);
+        }
+        if (from < windowStart || to > windowEnd) {
+            load(from, Math.max(to, Math.min(source.length(), from + WINDOW_SIZE)));
+        }
+        ByteBuffer bytes = window.asReadOnlyBuffer();
+        bytes.limit((int) (to - windowStart));
+        bytes.position((int) (from - windowStart));
+        return bytes;
+    }
+
+    /**
+     * Test if the byte at the given position is a newline.
+     * @param position the position
+     * @return {@code true} if the byte is a newline
+     * @throws IOException if an IO error occurs
+     */
+    boolean isNewline(long position) throws IOException {
+        return next(position, position + 1) == position;
+    }
+
+    /**
+     * Compute a mask with the high bit set for each newline byte of a word.
+     * The mask is exact, the bytes are not added to each other.
+     */
+    private static long newlines(long word) {
+        long v = word ^ NEWLINES;
+        long t = (v & LOW_BITS) + LOW_BITS;
+        return ~(t | v | LOW_BITS);
+    }
+
+    private boolean matches(byte[] bytes, int index) {
+        for (int i = 1; i < bytes.length; i++) {
+            if (window.get(index + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void load(long from, long to) throws IOException {
+        window.clear();
+        window.limit((int) (to - from));
+        while (window.hasRemaining()) {
+            if (source.read(from + window.position(), window) <= 0) {
+                throw new EOFException();
+            }
+        }
+        windowStart = from;
+        windowEnd = to;
+    }
+}
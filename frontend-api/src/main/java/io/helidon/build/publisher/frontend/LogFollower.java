@@ -0,0 +1,253 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.BlockLog;
+import io.helidon.build.publisher.model.Node;
+import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+import io.helidon.common.reactive.RequestedCounter;
+
+/**
+ * Publisher that follows a step log while it is appended.
+ * The log is polled, the storage can be a network file system that does not notify the file changes. The polling
+ * interval grows while the log does not change and is reset when new bytes are appended. The publisher completes when
+ * the step or the pipeline is completed and all the bytes of the log are published, or after {@link #MAX_DURATION}.
+ */
+final class LogFollower implements Publisher<DataChunk> {
+
+    private static final Logger LOGGER = Logger.getLogger(LogFollower.class.getName());
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long MIN_INTERVAL = 100;
+    private static final long MAX_INTERVAL = 2000;
+    private static final long COMPLETION_INTERVAL = 2000;
+    static final long MAX_DURATION = TimeUnit.HOURS.toMillis(1);
+
+    private final Path logPath;
+    private final String pipelineId;
+    private final Path pipelinePath;
+    private final String stepId;
+    private final DescriptorCache descriptorCache;
+    private final ScheduledExecutorService executor;
+    private final RequestedCounter requested;
+    private final AtomicInteger pending;
+    private final AtomicBoolean subscribed;
+    private final long deadline;
+    private Subscriber<? super DataChunk> subscriber;
+    private ByteSource source;
+    private long position;
+    private long interval;
+    private long lastCheck;
+    private boolean completed;
+    private boolean done;
+    private volatile boolean waiting;
+    private volatile boolean cancelled;
+
+    /**
+     * Create a new log follower.
+     * @param logPath the step log
+     * @param position the start position
+     * @param pipelineId the pipeline id
+     * @param pipelinePath the pipeline descriptor, used to detect the completion of the step
+     * @param stepId the step id
+     * @param descriptorCache the descriptor cache used to load the pipeline
+     * @param executor the executor used to poll the log
+     */
+    LogFollower(Path logPath, long position, String pipelineId, Path pipelinePath, String stepId,
+            DescriptorCache descriptorCache, ScheduledExecutorService executor) {
+
+        this.logPath = logPath;
+        this.position = position;
+        this.pipelineId = pipelineId;
+        this.pipelinePath = pipelinePath;
+        this.stepId = stepId;
+        this.descriptorCache = descriptorCache;
+        this.executor = executor;
+        this.requested = new RequestedCounter();
+        this.pending = new AtomicInteger();
+        this.subscribed = new AtomicBoolean();
+        this.deadline = System.currentTimeMillis() + MAX_DURATION;
+        this.interval = MIN_INTERVAL;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Already subscribed"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                requested.increment(n, ex -> {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Publish the chunks on the executor, one task at a time.
+     */
+    private void drain() {
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(() -> {
+                int missed = 1;
+                while (missed != 0) {
+                    publish();
+                    missed = pending.addAndGet(-missed);
+                }
+            });
+        }
+    }
+
+    private void publish() {
+        while (!done) {
+            if (cancelled) {
+                close();
+                return;
+            }
+            // the chunks are only decremented from the request count here
+            if (waiting || requested.get() <= 0) {
+                return;
+            }
+            DataChunk chunk;
+            try {
+                // check the completion before reading, the bytes appended before the completion are published
+                boolean last = completed || isCompleted();
+                chunk = nextChunk();
+                if (chunk == null && last) {
+                    close();
+                    subscriber.onComplete();
+                    return;
+                }
+            } catch (Throwable ex) {
+                close();
+                subscriber.onError(ex);
+                return;
+            }
+            if (chunk != null) {
+                interval = MIN_INTERVAL;
+                requested.tryDecrement();
+                subscriber.onNext(chunk);
+            } else {
+                waiting = true;
+                executor.schedule(() -> {
+                    waiting = false;
+                    drain();
+                }, interval, TimeUnit.MILLISECONDS);
+                interval = Math.min(interval * 2, MAX_INTERVAL);
+            }
+        }
+    }
+
+    /**
+     * Read the bytes appended since the last chunk.
+     * @return DataChunk or {@code null} if there is no new bytes
+     * @throws IOException if an IO error occurs
+     */
+    private DataChunk nextChunk() throws IOException {
+        if (!(source instanceof ByteSource.FileSource)) {
+            // the length of a block compressed log is read when it is opened
+            if (source != null) {
+                source.close();
+                source = null;
+            }
+            if (!Files.exists(logPath) && !BlockLog.exists(logPath)) {
+                return null;
+            }
+            source = ByteSource.open(logPath);
+        }
+        long length = source instanceof ByteSource.FileSource
+                ? ((ByteSource.FileSource) source).fileChannel().size()
+                : source.length();
+        if (length <= position) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, length - position));
+        while (buffer.hasRemaining()) {
+            if (source.read(position + buffer.position(), buffer) <= 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        position += buffer.remaining();
+        return DataChunk.create(true, buffer);
+    }
+
+    /**
+     * Test if the step is completed.
+     * The pipeline descriptor is shared with the other followers through the {@link DescriptorCache}, it is only parsed
+     * again if its modification time or size changed.
+     * @return {@code true} if the step or the pipeline is completed, or if the maximum duration is reached
+     * @throws IOException if an IO error occurs
+     */
+    private boolean isCompleted() throws IOException {
+        long now = System.currentTimeMillis();
+        if (now > deadline) {
+            completed = true;
+            return true;
+        }
+        if (now - lastCheck < COMPLETION_INTERVAL) {
+            return false;
+        }
+        lastCheck = now;
+        DescriptorCache.Entry entry = descriptorCache.get(pipelineId, pipelinePath);
+        if (entry == null) {
+            return false;
+        }
+        Pipeline pipeline = entry.pipeline();
+        Node node = pipeline.node(stepId);
+        completed = pipeline.state() == Status.State.FINISHED
+                || (node != null && node.state() == Status.State.FINISHED);
+        if (completed && LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Step completed, path={0}", logPath);
+        }
+        return completed;
+    }
+
+    private void close() {
+        if (done) {
+            return;
+        }
+        done = true;
+        if (source != null) {
+            try {
+                source.close();
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Unable to close log", ex);
+            }
+        }
+    }
+}
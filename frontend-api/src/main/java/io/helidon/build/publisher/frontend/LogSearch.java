@@ -0,0 +1,286 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Search of the lines of a log.
+ * A literal query is searched in the log directly and the lines are only delimited around the matches, a regular
+ * expression is matched against each line. The lines longer than {@link #MAX_LINE_LENGTH} are truncated. Instances are
+ * not thread safe.
+ */
+final class LogSearch implements Closeable {
+
+    /**
+     * Maximum number of bytes of a line that are matched and returned.
+     */
+    static final int MAX_LINE_LENGTH = 8 * 1024;
+
+    /**
+     * Number of bytes (or characters read by the regular expression matcher) or lines searched between two checks of
+     * the deadline.
+     */
+    private static final int SLICE_SIZE = 1024 * 1024;
+    private static final int SLICE_LINES = 1024;
+
+    private final ByteSource source;
+    private final LineScanner scanner;
+    private final long length;
+    private final byte[] literal;
+    private final Pattern pattern;
+    private long position;
+    private long line;
+    private long linePosition;
+    private long deadline;
+    private boolean timedOut;
+
+    /**
+     * Create a new search.
+     * @param source the source to search, closed with the search
+     * @param position the start position, must be the beginning of a line
+     * @param line the line number of the start position
+     * @param query the query, a literal string or a regular expression
+     * @param regex {@code true} if the query is a regular expression
+     * @throws IllegalArgumentException if the query is empty, spans multiple lines or is an invalid regular
+     * expression
+     */
+    LogSearch(ByteSource source, long position, long line, String query, boolean regex) {
+        Pattern compiled = compile(query, regex);
+        this.source = source;
+        this.scanner = new LineScanner(source);
+        this.length = source.length();
+        this.position = position;
+        this.line = line;
+        this.linePosition = position;
+        this.pattern = compiled;
+        this.literal = regex ? null : query.getBytes(StandardCharsets.UTF_8);
+        this.deadline = Long.MAX_VALUE;
+    }
+
+    /**
+     * Validate a query.
+     * @param query the query
+     * @param regex {@code true} if the query is a regular expression
+     * @return the compiled pattern, or {@code null} if the query is not a regular expression
+     * @throws IllegalArgumentException if the query is empty, spans multiple lines or is an invalid regular
+     * expression
+     */
+    static Pattern compile(String query, boolean regex) {
+        if (query.isEmpty() || query.length() > MAX_LINE_LENGTH || query.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Invalid query");
+        }
+        return regex ? Pattern.compile(query) : null;
+    }
+
+    /**
+     * Set the time after which the search stops.
+     * @param deadline the deadline, in {@link System#nanoTime()} time
+     */
+    void deadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Test if the search stopped because of the deadline.
+     * @return {@code true} if the search timed out
+     */
+    boolean timedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Get the position where the search resumes, the beginning of the line after the last line searched.
+     * @return position
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * Get the line number of {@link #position()}.
+     * The lines skipped by a literal search that did not find any more match are counted on demand.
+     * @return line number
+     * @throws IOException if an IO error occurs
+     */
+    long line() throws IOException {
+        if (linePosition != position) {
+            line += scanner.count(linePosition, position);
+            linePosition = position;
+        }
+        return line;
+    }
+
+    /**
+     * Find the next matching line.
+     * @return Match or {@code null} if there is no more matching line
+     * @throws IOException if an IO error occurs
+     */
+    Match next() throws IOException {
+        return literal != null ? nextLiteral() : nextPattern();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private Match nextLiteral() throws IOException {
+        long index = -1;
+        long from = position;
+        while (index < 0 && from < length) {
+            if (expired()) {
+                // resume after the last complete line searched
+                long newline = scanner.previous(position, from);
+                if (newline >= 0) {
+                    position = newline + 1;
+                }
+                return null;
+            }
+            long to = Math.min(length, from + SLICE_SIZE);
+            // a match may start before the end of the slice and end after it
+            index = scanner.indexOf(literal, from, Math.min(length, to + literal.length - 1));
+            from = to;
+        }
+        if (index < 0) {
+            position = length;
+            return null;
+        }
+        long newline = scanner.previous(position, index);
+        long lineStart = newline < 0 ? position : newline + 1;
+        line += scanner.count(position, lineStart);
+        return nextLine(lineStart);
+    }
+
+    private Match nextPattern() throws IOException {
+        int lines = 0;
+        while (position < length) {
+            if (++lines % SLICE_LINES == 0 && expired()) {
+                return null;
+            }
+            Match match = nextLine(position);
+            try {
+                if (pattern.matcher(new DeadlineCharSequence(match.text)).find()) {
+                    return match;
+                }
+            } catch (DeadlineException ex) {
+                // a pathological expression can backtrack for a long time on a single line
+                timedOut = true;
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private boolean expired() {
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    private Match nextLine(long lineStart) throws IOException {
+        long newline = scanner.next(lineStart, length);
+        long lineEnd = newline < 0 ? length : newline;
+        String text = StandardCharsets.UTF_8.decode(scanner.bytes(lineStart,
+                Math.min(lineEnd, lineStart + MAX_LINE_LENGTH))).toString();
+        Match match = new Match(line, lineStart, text);
+        position = newline < 0 ? length : newline + 1;
+        line++;
+        linePosition = position;
+        return match;
+    }
+
+    /**
+     * Thrown by {@link DeadlineCharSequence} when the deadline is reached.
+     */
+    private static final class DeadlineException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        DeadlineException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * A line that checks the deadline while it is read by the regular expression matcher.
+     */
+    private final class DeadlineCharSequence implements CharSequence {
+
+        private final String text;
+        private int reads;
+
+        DeadlineCharSequence(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads % SLICE_SIZE == 0 && expired()) {
+                throw new DeadlineException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * A matching line.
+     */
+    static final class Match {
+
+        /**
+         * The line number, starting at {@code 0}.
+         */
+        final long line;
+
+        /**
+         * The position of the beginning of the line.
+         */
+        final long position;
+
+        /**
+         * The line, without the newline.
+         */
+        final String text;
+
+        Match(long line, long position, String text) {
+            this.line = line;
+            this.position = position;
+            this.text = text;
+        }
+
+        /**
+         * Write this match as a JSON object.
+         * @param out the output stream to write to
+         */
+        void writeJson(ByteArrayOutputStream out) {
+            byte[] bytes = ("{\"line\":" + line + ",\"position\":" + position + ",\"text\":\"")
+                    .getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+            bytes = JsonStringEncoder.getInstance().quoteAsUTF8(text);
+            out.write(bytes, 0, bytes.length);
+            out.write('"');
+            out.write('}');
+        }
+    }
+}
@@ -74,7 +74,11 @@ public final class Main {
                 .register(JacksonSupport.create())
                 .register(HealthSupport.builder().addLiveness(HealthChecks.healthChecks()))
                 .register(MetricsSupport.create())
-                .register(new FrontendService(storagePath))
+                .register(new FrontendService(storagePath,
+                        config.get("searchThreads").asInt().orElse(Runtime.getRuntime().availableProcessors()),
+                        config.get("searchParallelism").asInt().orElse(2),
+                        config.get("searchTimeout").asInt().orElse(10),
+                        config.get("descriptorCacheSize").asLong().orElse(64L * 1024 * 1024)))
                 .build();
     }
 
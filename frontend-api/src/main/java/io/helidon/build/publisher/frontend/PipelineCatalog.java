@@ -0,0 +1,400 @@
+package io.helidon.build.publisher.frontend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.helidon.build.publisher.model.PipelineIndex;
+import io.helidon.build.publisher.model.PipelineInfo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Searchable catalog of the pipelines.
+ * The catalog is derived from the {@link PipelineIndex}, which is persisted incrementally and can be rebuilt from the
+ * storage directory. The pipelines are identified by their position in the index (creation order) and secondary
+ * indexes map the repository URL, the head ref and the user to the sorted positions of the matching pipelines. A query
+ * walks the smallest matching secondary index from a keyset cursor and filters the other criteria and the status.
+ * <p>
+ * The start times follow the creation order up to the clock skew between the clients. The catalog maintains the
+ * maximum start time of each prefix of the index and the largest skew seen, i.e. how much a start time is lower than
+ * the start time of a pipeline created before it. The walk of a date range starts at a position found with a binary
+ * search of the prefix maximums and stops once the remaining pipelines cannot be in the range, a skew larger than the
+ * range only makes the walk longer. The catalog also maintains the latest pipeline of each branch of each repository.
+ */
+final class PipelineCatalog {
+
+    private final PipelineIndex index;
+    private final Map<String, Integer> positions;
+    private final Map<String, Positions> byRepository;
+    private final Map<String, Positions> byHeadRef;
+    private final Map<String, Positions> byUser;
+    private final Map<String, PipelineInfo> latest;
+    private long[] maxStartTimes;
+    private long skew;
+    private PipelineInfo last;
+    private int size;
+
+    /**
+     * Create a new catalog.
+     * @param index the pipeline index
+     */
+    PipelineCatalog(PipelineIndex index) {
+        this.index = Objects.requireNonNull(index, "index is null");
+        this.positions = new HashMap<>();
+        this.byRepository = new HashMap<>();
+        this.byHeadRef = new HashMap<>();
+        this.byUser = new HashMap<>();
+        this.latest = new HashMap<>();
+        this.maxStartTimes = new long[16];
+    }
+
+    /**
+     * Get the latest pipeline of a branch.
+     * @param repositoryUrl the repository URL
+     * @param headRef the head ref
+     * @return PipelineInfo, or {@code null} if there is no pipeline for the given repository and ref
+     */
+    PipelineInfo latest(String repositoryUrl, String headRef) {
+        return index.read(infos -> {
+            update(infos);
+            return latest.get(latestKey(repositoryUrl, headRef));
+        });
+    }
+
+    private static String latestKey(String repositoryUrl, String headRef) {
+        // URLs and refs do not contain any space
+        return repositoryUrl + " " + headRef;
+    }
+
+    /**
+     * Query the catalog.
+     * @param query the query
+     * @return Page
+     * @throws IllegalArgumentException if the cursor of the query is not a known pipeline id
+     */
+    Page query(Query query) {
+        // the index is locked while the catalog is updated and queried
+        return index.read(infos -> {
+            update(infos);
+            return doQuery(query, infos);
+        });
+    }
+
+    private Page doQuery(Query query, List<PipelineInfo> infos) {
+        int start;
+        if (query.after != null) {
+            Integer position = positions.get(query.after);
+            if (position == null) {
+                throw new IllegalArgumentException("Unknown cursor: " + query.after);
+            }
+            start = query.ascending ? position + 1 : position - 1;
+        } else {
+            start = query.ascending ? 0 : size - 1;
+        }
+        // the pipelines created after the first one started at or after (to + skew) are all started at or after to
+        long end = query.to > Long.MAX_VALUE - skew ? Long.MAX_VALUE : query.to + skew;
+        if (query.ascending) {
+            start = Math.max(start, firstStartedAt(query.from));
+        } else {
+            start = Math.min(start, firstStartedAt(end) - 1);
+        }
+
+        // walk the smallest secondary index
+        Positions candidates = null;
+        for (Positions entries : new Positions[]{
+            lookup(byRepository, query.repositoryUrl),
+            lookup(byHeadRef, query.headRef),
+            lookup(byUser, query.user)}) {
+
+            if (entries != null && (candidates == null || entries.size < candidates.size)) {
+                candidates = entries;
+            }
+        }
+        List<PipelineInfo> items = new ArrayList<>();
+        String next = null;
+        int count = candidates != null ? candidates.size : size;
+        int step = query.ascending ? 1 : -1;
+        int i = candidates != null ? candidates.search(start, query.ascending) : start;
+        for (; i >= 0 && i < count; i += step) {
+            int position = candidates != null ? candidates.values[i] : i;
+            PipelineInfo info = infos.get(position);
+            if (query.ascending ? info.startTime() >= end : maxStartTimes[position] < query.from) {
+                // end of the date range
+                break;
+            }
+            if (query.matches(info)) {
+                if (items.size() == query.limit) {
+                    next = items.get(items.size() - 1).id();
+                    break;
+                }
+                items.add(info);
+            }
+        }
+        return new Page(items, next);
+    }
+
+    /**
+     * Find the first pipeline started at or after the given time, all the pipelines created before it were started
+     * before the given time.
+     * @param time time in milliseconds since the epoch
+     * @return position, {@code size} if all the pipelines were started before the given time
+     */
+    private int firstStartedAt(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxStartTimes[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Positions lookup(Map<String, Positions> entries, String key) {
+        if (key == null) {
+            return null;
+        }
+        Positions positions = entries.get(key);
+        return positions != null ? positions : Positions.EMPTY;
+    }
+
+    /**
+     * Index the infos added since the last update.
+     * @param infos the infos of the pipeline index
+     */
+    private void update(List<PipelineInfo> infos) {
+        if (size > infos.size() || (size > 0 && infos.get(size - 1) != last)) {
+            // the index was rebuilt
+            positions.clear();
+            byRepository.clear();
+            byHeadRef.clear();
+            byUser.clear();
+            latest.clear();
+            skew = 0;
+            size = 0;
+        }
+        if (maxStartTimes.length < infos.size()) {
+            maxStartTimes = Arrays.copyOf(maxStartTimes, Math.max(infos.size(), maxStartTimes.length * 2));
+        }
+        for (; size < infos.size(); size++) {
+            PipelineInfo info = infos.get(size);
+            long startTime = info.startTime();
+            if (size > 0 && startTime < maxStartTimes[size - 1]) {
+                skew = Math.max(skew, maxStartTimes[size - 1] - startTime);
+                maxStartTimes[size] = maxStartTimes[size - 1];
+            } else {
+                maxStartTimes[size] = startTime;
+            }
+            positions.put(info.id(), size);
+            add(byRepository, info.repositoryUrl(), size);
+            add(byHeadRef, info.headRef(), size);
+            add(byUser, info.user(), size);
+            if (info.repositoryUrl() != null && info.headRef() != null) {
+                // the completed pipelines are updated in place
+                latest.put(latestKey(info.repositoryUrl(), info.headRef()), info);
+            }
+            last = info;
+        }
+    }
+
+    private static void add(Map<String, Positions> entries, String key, int position) {
+        if (key != null) {
+            entries.computeIfAbsent(key, k -> new Positions()).add(position);
+        }
+    }
+
+    /**
+     * Sorted positions of the pipelines that have the same value for an indexed field.
+     */
+    private static final class Positions {
+
+        static final Positions EMPTY = new Positions();
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                int[] newValues = new int[size * 2];
+                System.arraycopy(values, 0, newValues, 0, size);
+                values = newValues;
+            }
+            values[size++] = position;
+        }
+
+        /**
+         * Find the index of the first position to visit.
+         * @param position the start position
+         * @param ascending {@code true} if the positions are visited in ascending order
+         * @return index of the first position greater or equal to the start position in ascending order, or of the last
+         * position lower or equal to the start position in descending order
+         */
+        int search(int position, boolean ascending) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < position) {
+                    low = mid + 1;
+                } else if (values[mid] > position) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return ascending ? low : high;
+        }
+    }
+
+    /**
+     * Catalog query.
+     */
+    static final class Query {
+
+        private String repositoryUrl;
+        private String headRef;
+        private String user;
+        private Set<String> statuses;
+        private long from = Long.MIN_VALUE;
+        private long to = Long.MAX_VALUE;
+        private boolean ascending;
+        private String after;
+        private int limit = 20;
+
+        /**
+         * Match the pipelines of the given repository.
+         * @param repositoryUrl repository URL, may be {@code null}
+         * @return this query
+         */
+        Query repositoryUrl(String repositoryUrl) {
+            this.repositoryUrl = repositoryUrl;
+            return this;
+        }
+
+        /**
+         * Match the pipelines of the given branch or tag.
+         * @param headRef head ref, may be {@code null}
+         * @return this query
+         */
+        Query headRef(String headRef) {
+            this.headRef = headRef;
+            return this;
+        }
+
+        /**
+         * Match the pipelines of the given user.
+         * @param user user, may be {@code null}
+         * @return this query
+         */
+        Query user(String user) {
+            this.user = user;
+            return this;
+        }
+
+        /**
+         * Match the pipelines with one of the given statuses.
+         * @param statuses statuses, e.g. {@code RUNNING} or {@code FAILURE}, may be {@code null}
+         * @return this query
+         */
+        Query statuses(Set<String> statuses) {
+            this.statuses = statuses;
+            return this;
+        }
+
+        /**
+         * Match the pipelines started in the given time range.
+         * @param from the range start in milliseconds since the epoch, inclusive
+         * @param to the range end in milliseconds since the epoch, exclusive
+         * @return this query
+         */
+        Query range(long from, long to) {
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        /**
+         * Set the sort order.
+         * @param ascending {@code true} for the oldest pipelines first, {@code false} for the most recent first
+         * @return this query
+         */
+        Query ascending(boolean ascending) {
+            this.ascending = ascending;
+            return this;
+        }
+
+        /**
+         * Set the cursor.
+         * @param after the id of the last pipeline of the previous page, may be {@code null}
+         * @return this query
+         */
+        Query after(String after) {
+            this.after = after;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of pipelines in a page.
+         * @param limit page size
+         * @return this query
+         * @throws IllegalArgumentException if limit is not a positive value
+         */
+        Query limit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Invalid limit: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        private boolean matches(PipelineInfo info) {
+            return (repositoryUrl == null || repositoryUrl.equals(info.repositoryUrl()))
+                    && (headRef == null || headRef.equals(info.headRef()))
+                    && (user == null || user.equals(info.user()))
+                    && (statuses == null || statuses.contains(info.status()))
+                    && info.startTime() >= from
+                    && info.startTime() < to;
+        }
+    }
+
+    /**
+     * A page of pipelines.
+     */
+    static final class Page {
+
+        private final List<PipelineInfo> items;
+        private final String next;
+
+        private Page(List<PipelineInfo> items, String next) {
+            this.items = Collections.unmodifiableList(items);
+            this.next = next;
+        }
+
+        /**
+         * Get the pipelines.
+         * @return list of {@link PipelineInfo}
+         */
+        @JsonProperty
+        List<PipelineInfo> items() {
+            return items;
+        }
+
+        /**
+         * Get the cursor of the next page.
+         * @return the id of the last pipeline of this page, or {@code null} if this is the last page
+         */
+        @JsonProperty
+        String next() {
+            return next;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.Node;
+import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+import io.helidon.common.reactive.RequestedCounter;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Search of the step logs of a pipeline.
+ * The logs are searched in parallel on a shared executor, with at most {@code parallelism} logs at a time for one
+ * search. The matches of a step are published when the search of the step completes, as a newline delimited JSON
+ * object with the step id, the names of the step and of its stage, and the matches:
+ * {@code {"step":"3","stage":"build","name":"sh","matches":[{"line":0,"position":0,"text":"..."}]}}.
+ * <p>
+ * The search stops when the maximum number of matches or the deadline is reached, the last object summarizes the
+ * search: {@code {"steps":10,"searched":10,"truncated":false,"timedOut":false}}.
+ */
+final class PipelineSearch implements Publisher<DataChunk> {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineSearch.class.getName());
+    private static final String LOG_PREFIX = "step-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String BLOCK_LOG_SUFFIX = ".log.tail";
+
+    private final Path pipelinePath;
+    private final Pipeline pipeline;
+    private final List<String> stepIds;
+    private final String query;
+    private final boolean regex;
+    private final long deadline;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final AtomicInteger remaining;
+    private final AtomicInteger next;
+    private final AtomicInteger searched;
+    private final Queue<byte[]> results;
+    private final RequestedCounter requested;
+    private final AtomicInteger pending;
+    private final AtomicBoolean subscribed;
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    private Subscriber<? super DataChunk> subscriber;
+    private boolean done;
+
+    /**
+     * Create a new pipeline search.
+     * @param pipelinePath the pipeline directory
+     * @param pipeline the pipeline used to resolve the step names, may be {@code null}
+     * @param query the query, a literal string or a regular expression
+     * @param regex {@code true} if the query is a regular expression
+     * @param maxMatches the maximum number of matches
+     * @param deadline the time after which the search stops, in {@link System#nanoTime()} time
+     * @param parallelism the maximum number of logs searched at a time
+     * @param executor the executor used to run the search
+     * @throws IOException if an error occurs while listing the logs
+     * @throws IllegalArgumentException if the query is invalid
+     */
+    PipelineSearch(Path pipelinePath, Pipeline pipeline, String query, boolean regex, int maxMatches, long deadline,
+            int parallelism, ExecutorService executor) throws IOException {
+
+        LogSearch.compile(query, regex);
+        this.pipelinePath = pipelinePath;
+        this.pipeline = pipeline;
+        this.stepIds = stepIds(pipelinePath);
+        this.query = query;
+        this.regex = regex;
+        this.deadline = deadline;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.remaining = new AtomicInteger(maxMatches);
+        this.next = new AtomicInteger();
+        this.searched = new AtomicInteger();
+        this.results = new ConcurrentLinkedQueue<>();
+        this.requested = new RequestedCounter();
+        this.pending = new AtomicInteger();
+        this.subscribed = new AtomicBoolean();
+    }
+
+    /**
+     * Get the ids of the steps that have a log, in the order of their creation.
+     * @param pipelinePath the pipeline directory
+     * @return list of step ids
+     * @throws IOException if an IO error occurs
+     */
+    static List<String> stepIds(Path pipelinePath) throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(pipelinePath, LOG_PREFIX + "*")) {
+            for (Path path : stream) {
+                String fname = path.getFileName().toString();
+                if (fname.endsWith(LOG_SUFFIX)) {
+                    ids.add(fname.substring(LOG_PREFIX.length(), fname.length() - LOG_SUFFIX.length()));
+                } else if (fname.endsWith(BLOCK_LOG_SUFFIX)) {
+                    String id = fname.substring(LOG_PREFIX.length(), fname.length() - BLOCK_LOG_SUFFIX.length());
+                    if (!Files.exists(path.resolveSibling(LOG_PREFIX + id + LOG_SUFFIX))) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        Collections.sort(ids, (id1, id2) -> id1.length() != id2.length()
+                ? Integer.compare(id1.length(), id2.length())
+                : id1.compareTo(id2));
+        return ids;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Already subscribed"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                requested.increment(n, ex -> {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        for (int i = 0; i < parallelism; i++) {
+            searchNext();
+        }
+        drain();
+    }
+
+    /**
+     * Submit the search of the next step, if any.
+     */
+    private void searchNext() {
+        int index = next.getAndIncrement();
+        if (index < stepIds.size()) {
+            executor.execute(() -> search(stepIds.get(index)));
+        }
+    }
+
+    private void search(String stepId) {
+        List<LogSearch.Match> matches = new ArrayList<>();
+        Path log = pipelinePath.resolve(LOG_PREFIX + stepId + LOG_SUFFIX);
+        try (LogSearch search = new LogSearch(ByteSource.open(log), 0, 0, query, regex)) {
+            search.deadline(deadline);
+            while (!cancelled && remaining.get() > 0) {
+                LogSearch.Match match = search.next();
+                if (match == null) {
+                    break;
+                }
+                if (remaining.getAndDecrement() <= 0) {
+                    break;
+                }
+                matches.add(match);
+            }
+            if (search.timedOut()) {
+                timedOut = true;
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to search log, path=" + log, ex);
+        }
+        if (!matches.isEmpty()) {
+            results.add(toJson(stepId, matches));
+        }
+        searched.incrementAndGet();
+        searchNext();
+        drain();
+    }
+
+    /**
+     * Publish the results, one drain at a time.
+     */
+    private void drain() {
+        if (pending.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (missed != 0) {
+            while (!done) {
+                if (cancelled) {
+                    done = true;
+                    results.clear();
+                    break;
+                }
+                // read the completion before the results, the results of a step are queued before it is counted
+                boolean completed = searched.get() == stepIds.size();
+                if (results.isEmpty() && !completed) {
+                    break;
+                }
+                if (!requested.tryDecrement()) {
+                    break;
+                }
+                byte[] result = results.poll();
+                if (result != null) {
+                    subscriber.onNext(DataChunk.create(result));
+                } else {
+                    done = true;
+                    subscriber.onNext(DataChunk.create(summary()));
+                    subscriber.onComplete();
+                }
+            }
+            missed = pending.addAndGet(-missed);
+        }
+    }
+
+    private byte[] summary() {
+        return ("{\"steps\":" + stepIds.size()
+                + ",\"searched\":" + searched.get()
+                + ",\"truncated\":" + (remaining.get() <= 0)
+                + ",\"timedOut\":" + timedOut
+                + "}\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] toJson(String stepId, List<LogSearch.Match> matches) {
+        String stage = null;
+        String name = null;
+        Node node = pipeline != null ? pipeline.node(stepId) : null;
+        if (node != null) {
+            name = node.name();
+            for (Node parent = node.parent(); parent != null && !(parent instanceof Pipeline);
+                    parent = parent.parent()) {
+                if (parent.name() != null) {
+                    stage = parent.name();
+                    break;
+                }
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, "{\"step\":" + quote(stepId) + ",\"stage\":" + quote(stage) + ",\"name\":" + quote(name)
+                + ",\"matches\":[");
+        for (int i = 0; i < matches.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            matches.get(i).writeJson(out);
+        }
+        write(out, "]}\n");
+        return out.toByteArray();
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        return "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + "\"";
+    }
+
+    private static void write(ByteArrayOutputStream out, String str) {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+}
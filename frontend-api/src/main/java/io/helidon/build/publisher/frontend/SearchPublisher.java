@@ -0,0 +1,178 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+import io.helidon.common.reactive.RequestedCounter;
+
+/**
+ * {@link LogSearch} publisher.
+ * The matches are published as newline delimited JSON objects with the attributes {@code line}, {@code position} and
+ * {@code text}, grouped in chunks. The search runs on an executor, one chunk per request, and stops after a maximum
+ * number of matches or at the deadline of the search.
+ * <p>
+ * The last object summarizes the search with the position and line number where a subsequent search can resume:
+ * {@code {"truncated":true,"timedOut":false,"position":1024,"line":20}}.
+ */
+final class SearchPublisher implements Publisher<DataChunk> {
+
+    private static final Logger LOGGER = Logger.getLogger(SearchPublisher.class.getName());
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final LogSearch search;
+    private final ExecutorService executor;
+    private final RequestedCounter requested;
+    private final AtomicInteger pending;
+    private final AtomicBoolean subscribed;
+    private final ByteArrayOutputStream buffer;
+    private Subscriber<? super DataChunk> subscriber;
+    private volatile boolean cancelled;
+    private boolean done;
+    private boolean summarized;
+    private int remaining;
+
+    /**
+     * Create a new search publisher.
+     * @param search the search, closed when the publisher completes
+     * @param maxMatches the maximum number of matches
+     * @param executor the executor used to run the search
+     */
+    SearchPublisher(LogSearch search, int maxMatches, ExecutorService executor) {
+        this.search = search;
+        this.executor = executor;
+        this.remaining = maxMatches;
+        this.requested = new RequestedCounter();
+        this.pending = new AtomicInteger();
+        this.subscribed = new AtomicBoolean();
+        this.buffer = new ByteArrayOutputStream();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DataChunk> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Already subscribed"));
+            return;
+        }
+        this.subscriber = subscriber;
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                requested.increment(n, ex -> {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                });
+                drain();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Publish the chunks on the executor, one task at a time.
+     */
+    private void drain() {
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(() -> {
+                int missed = 1;
+                while (missed != 0) {
+                    publish();
+                    missed = pending.addAndGet(-missed);
+                }
+            });
+        }
+    }
+
+    private void publish() {
+        while (!done) {
+            if (cancelled) {
+                close();
+                return;
+            }
+            if (!requested.tryDecrement()) {
+                return;
+            }
+            DataChunk chunk;
+            try {
+                chunk = nextChunk();
+            } catch (Throwable ex) {
+                close();
+                subscriber.onError(ex);
+                return;
+            }
+            if (chunk == null) {
+                close();
+                subscriber.onComplete();
+                return;
+            }
+            subscriber.onNext(chunk);
+        }
+    }
+
+    private DataChunk nextChunk() throws IOException {
+        if (summarized) {
+            return null;
+        }
+        buffer.reset();
+        while (buffer.size() < CHUNK_SIZE) {
+            if (remaining <= 0) {
+                writeSummary(/* truncated */ true);
+                break;
+            }
+            LogSearch.Match match = search.next();
+            if (match == null) {
+                writeSummary(/* truncated */ false);
+                break;
+            }
+            remaining--;
+            match.writeJson(buffer);
+            buffer.write('\n');
+        }
+        return DataChunk.create(buffer.toByteArray());
+    }
+
+    private void writeSummary(boolean truncated) throws IOException {
+        summarized = true;
+        byte[] bytes = ("{\"truncated\":" + truncated
+                + ",\"timedOut\":" + search.timedOut()
+                + ",\"position\":" + search.position()
+                + ",\"line\":" + search.line()
+                + "}\n").getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    private void close() {
+        if (done) {
+            return;
+        }
+        done = true;
+        try {
+            search.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to close search", ex);
+        }
+    }
+}
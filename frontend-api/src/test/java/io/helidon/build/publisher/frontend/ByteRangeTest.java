@@ -0,0 +1,51 @@
+package io.helidon.build.publisher.frontend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link ByteRange} test.
+ */
+public final class ByteRangeTest {
+
+    @Test
+    public void testParse() {
+        ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+        assertThat(range.begin, is(0L));
+        assertThat(range.end, is(100L));
+        assertThat(range.contentRange(1000), is("bytes 0-99/1000"));
+
+        range = ByteRange.parse("bytes=500-", 1000);
+        assertThat(range.begin, is(500L));
+        assertThat(range.end, is(1000L));
+
+        range = ByteRange.parse("bytes=-100", 1000);
+        assertThat(range.begin, is(900L));
+        assertThat(range.end, is(1000L));
+
+        range = ByteRange.parse("bytes=-2000", 1000);
+        assertThat(range.begin, is(0L));
+
+        range = ByteRange.parse("bytes=900-2000", 1000);
+        assertThat(range.end, is(1000L));
+    }
+
+    @Test
+    public void testIgnored() {
+        assertThat(ByteRange.parse("bytes=0-1,5-6", 1000), is(nullValue()));
+        assertThat(ByteRange.parse("lines=0-1", 1000), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=5-1", 1000), is(nullValue()));
+        assertThat(ByteRange.parse("bytes=a-b", 1000), is(nullValue()));
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=1000-", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-0", 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=0-", 0));
+    }
+}
@@ -0,0 +1,30 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link Conditional} test.
+ */
+public final class ConditionalTest {
+
+    @Test
+    public void testVariant() throws IOException {
+        Path file = Files.createTempFile(ConditionalTest.class.getSimpleName(), ".json");
+        Files.write(file, "{}".getBytes(StandardCharsets.UTF_8));
+        Conditional conditional = Conditional.of(file);
+        String etag = conditional.etag();
+        String variant = conditional.variant("gz").etag();
+        assertThat(variant, is(not(etag)));
+        assertThat(variant, is(etag.substring(0, etag.length() - 1) + "-gz\""));
+        assertThat(Conditional.of(file).etag(), is(etag));
+    }
+}
@@ -0,0 +1,84 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.GZIPInputStream;
+
+import io.helidon.build.publisher.model.DescriptorFileManager;
+import io.helidon.build.publisher.model.JacksonSupport;
+import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.build.publisher.model.PipelineInfo;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.build.publisher.model.Timings;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link DescriptorCache} test.
+ */
+public final class DescriptorCacheTest {
+
+    @Test
+    public void testCache() throws IOException {
+        Path storage = Files.createTempDirectory(DescriptorCacheTest.class.getSimpleName());
+        DescriptorFileManager descriptorManager = new DescriptorFileManager(storage);
+        DescriptorCache cache = new DescriptorCache(descriptorManager, 1024 * 1024);
+        Path filePath = storage.resolve("abcdefgh").resolve("pipeline.json");
+
+        assertThat(cache.get("abcdefgh", filePath), is(nullValue()));
+
+        descriptorManager.savePipeline(new Pipeline(createInfo("abcdefgh")));
+        DescriptorCache.Entry entry = cache.get("abcdefgh", filePath);
+        assertThat(entry, is(notNullValue()));
+        Pipeline pipeline = JacksonSupport.read(new ByteArrayInputStream(entry.bytes()), Pipeline.class);
+        assertThat(pipeline.pipelineId(), is("abcdefgh"));
+        Pipeline gunzipped = JacksonSupport.read(new GZIPInputStream(new ByteArrayInputStream(entry.gzipped())),
+                Pipeline.class);
+        assertThat(gunzipped.pipelineId(), is("abcdefgh"));
+        assertThat(entry.pipeline().pipelineId(), is("abcdefgh"));
+        assertThat(cache.get("abcdefgh", filePath), is(sameInstance(entry)));
+
+        // modified file
+        Files.setLastModifiedTime(filePath, FileTime.fromMillis(Files.getLastModifiedTime(filePath).toMillis() + 1000));
+        assertThat(cache.get("abcdefgh", filePath), is(not(sameInstance(entry))));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        Path storage = Files.createTempDirectory(DescriptorCacheTest.class.getSimpleName());
+        DescriptorFileManager descriptorManager = new DescriptorFileManager(storage);
+        descriptorManager.savePipeline(new Pipeline(createInfo("pipeline1")));
+        descriptorManager.savePipeline(new Pipeline(createInfo("pipeline2")));
+        Path filePath1 = storage.resolve("pipeline1").resolve("pipeline.json");
+        Path filePath2 = storage.resolve("pipeline2").resolve("pipeline.json");
+
+        DescriptorCache.Entry entry = new DescriptorCache(descriptorManager, Long.MAX_VALUE).get("pipeline1", filePath1);
+        // room for one entry only
+        DescriptorCache cache = new DescriptorCache(descriptorManager, entry.size() + entry.size() / 2);
+        DescriptorCache.Entry entry1 = cache.get("pipeline1", filePath1);
+        cache.get("pipeline2", filePath2);
+        assertThat(cache.get("pipeline1", filePath1), is(not(sameInstance(entry1))));
+    }
+
+    private static PipelineInfo createInfo(String id) {
+        return PipelineInfo.builder()
+                .id(id)
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(Status.State.RUNNING))
+                .timings(new Timings(System.currentTimeMillis()))
+                .build();
+    }
+}
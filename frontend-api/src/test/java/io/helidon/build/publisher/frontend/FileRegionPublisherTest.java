@@ -0,0 +1,77 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Publisher;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link FileRegionPublisher} test.
+ */
+public final class FileRegionPublisherTest {
+
+    @Test
+    public void testRegion() throws Exception {
+        byte[] bytes = new byte[3 * 1024 * 1024 + 17];
+        new Random(0).nextBytes(bytes);
+        Path file = Files.createTempFile(FileRegionPublisherTest.class.getSimpleName(), null);
+        Files.write(file, bytes);
+
+        Publisher<DataChunk> publisher = FileRegionPublisher.create(new FileSegment(0, bytes.length, file.toFile()));
+        assertThat(publisher, is(instanceOf(FileRegionPublisher.class)));
+        assertThat(Arrays.equals(collect(publisher), bytes), is(true));
+
+        publisher = FileRegionPublisher.create(new FileSegment(10, 1024 * 1024 + 20, file.toFile()));
+        assertThat(Arrays.equals(collect(publisher), Arrays.copyOfRange(bytes, 10, 1024 * 1024 + 20)), is(true));
+
+        publisher = FileRegionPublisher.create(new FileSegment(5, 5, file.toFile()));
+        assertThat(collect(publisher).length, is(0));
+    }
+
+    private static byte[] collect(Publisher<DataChunk> publisher) throws Exception {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        publisher.subscribe(new Subscriber<DataChunk>() {
+
+            private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                byte[] bytes = item.bytes();
+                baos.write(bytes, 0, bytes.length);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(baos.toByteArray());
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
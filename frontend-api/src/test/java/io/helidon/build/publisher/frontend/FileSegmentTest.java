@@ -3,6 +3,12 @@ package io.helidon.build.publisher.frontend;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.helidon.build.publisher.model.LineIndex;
+import io.helidon.build.publisher.model.LineIndexWriter;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -471,4 +477,61 @@ public final class FileSegmentTest {
         lines = source.findLines(10, true, false); // no backward
         assertThat(lines.readString(), is("line3\nline4\n"));
     }
+
+    @Test
+    public void testLineIndex() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3 * LineIndex.STRIDE + 500; i++) {
+            if (i % 7 == 0) {
+                sb.append('\n');
+            } else {
+                sb.append("line").append(i).append('\n');
+            }
+        }
+        sb.append("incompleteline");
+        String content = sb.toString();
+        Path log = Files.createTempDirectory("linesindex").resolve("step-1.log");
+        try (LineIndexWriter writer = LineIndexWriter.open(log, 0)) {
+            ByteBuffer data = ByteBuffer.wrap(content.getBytes());
+            writer.update(data, 0);
+            Files.write(log, data.array());
+            writer.flush();
+        }
+        LineIndex index = LineIndex.load(log, content.length());
+        assertThat(index.size(), is(3));
+        ByteSource source = ByteSource.open(log);
+        int newline = content.indexOf("\n\n", content.length() / 2);
+        long[][] ranges = new long[][]{
+            {0, content.length()},
+            {0, content.length() - 14},
+            {0, content.length() - 15},
+            {newline, content.length()},
+            {newline + 1, newline + 2},
+            {17, content.length() / 2},
+            {content.length() / 3, content.length() / 3},
+        };
+        int[] counts = new int[]{LineIndex.STRIDE + 1, 2 * LineIndex.STRIDE, 4 * LineIndex.STRIDE, Integer.MAX_VALUE};
+        for (long[] range : ranges) {
+            FileSegment indexed = new FileSegment(range[0], range[1], source, index);
+            FileSegment plain = new FileSegment(range[0], range[1], source);
+            for (int lines : counts) {
+                for (int flags = 0; flags < 4; flags++) {
+                    boolean linesOnly = (flags & 1) != 0;
+                    boolean backward = (flags & 2) != 0;
+                    FileSegment expected = plain.findLines(lines, linesOnly, backward);
+                    FileSegment actual = indexed.findLines(lines, linesOnly, backward);
+                    assertThat(actual.begin, is(expected.begin));
+                    assertThat(actual.end, is(expected.end));
+                    assertThat(actual.lines, is(expected.lines));
+                }
+            }
+            assertThat(indexed.lineNumber(range[0]), is(plain.lineNumber(range[0])));
+        }
+        for (long line : new long[]{0, 1, 999, 1000, 1001, 2500, 3500, 3501, 5000}) {
+            FileSegment indexed = new FileSegment(0, content.length(), source, index);
+            FileSegment plain = new FileSegment(0, content.length(), source);
+            assertThat(indexed.lineOffset(line), is(plain.lineOffset(line)));
+        }
+        source.close();
+    }
 }
@@ -0,0 +1,71 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link LineScanner} test.
+ */
+public final class LineScannerTest {
+
+    @Test
+    public void testScan() throws IOException {
+        Random random = new Random(0);
+        byte[] content = new byte[200 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            // some sparse newlines, some bytes with the high bit set
+            int r = random.nextInt(100);
+            content[i] = (byte) (r < 3 ? '\n' : r < 10 ? 0x8A : 'a' + r % 26);
+        }
+        Path file = Files.createTempFile(LineScannerTest.class.getSimpleName(), null);
+        Files.write(file, content);
+        try (ByteSource source = ByteSource.open(file)) {
+            LineScanner scanner = new LineScanner(source);
+            for (int k = 0; k < 500; k++) {
+                int from = random.nextInt(content.length);
+                int to = from + random.nextInt(Math.min(content.length - from, k % 2 == 0 ? 100 : 100000) + 1);
+                assertThat(scanner.next(from, to), is(next(content, from, to)));
+                assertThat(scanner.previous(from, to), is(previous(content, from, to)));
+                assertThat(scanner.count(from, to), is(count(content, from, to)));
+            }
+            assertThat(scanner.next(0, content.length), is(next(content, 0, content.length)));
+            assertThat(scanner.previous(0, content.length), is(previous(content, 0, content.length)));
+            assertThat(scanner.count(0, content.length), is(count(content, 0, content.length)));
+        }
+    }
+
+    private static long next(byte[] content, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (content[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long previous(byte[] content, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (content[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long count(byte[] content, int from, int to) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (content[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
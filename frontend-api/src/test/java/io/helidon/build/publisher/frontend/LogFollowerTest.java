@@ -0,0 +1,98 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.build.publisher.model.DescriptorFileManager;
+import io.helidon.build.publisher.model.Pipeline;
+import io.helidon.build.publisher.model.PipelineInfo;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.build.publisher.model.Timings;
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link LogFollower} test.
+ */
+public final class LogFollowerTest {
+
+    @Test
+    public void testFollow() throws Exception {
+        Path storage = Files.createTempDirectory(LogFollowerTest.class.getSimpleName());
+        DescriptorFileManager descriptorManager = new DescriptorFileManager(storage);
+        descriptorManager.savePipeline(new Pipeline(createInfo(new Status(Status.State.RUNNING))));
+        Path pipelinePath = storage.resolve("pipeline1").resolve("pipeline.json");
+        Path logPath = storage.resolve("pipeline1").resolve("step-1.log");
+        Files.write(logPath, "line 1\nline 2\n".getBytes());
+
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+        try {
+            DescriptorCache descriptorCache = new DescriptorCache(descriptorManager, 1024 * 1024);
+            LogFollower follower = new LogFollower(logPath, 7, "pipeline1", pipelinePath, "1", descriptorCache,
+                    executor);
+            CompletableFuture<String> future = new CompletableFuture<>();
+            CompletableFuture<Void> first = new CompletableFuture<>();
+            follower.subscribe(new Subscriber<DataChunk>() {
+
+                private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+                @Override
+                public void onSubscribe(Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(DataChunk item) {
+                    byte[] bytes = item.bytes();
+                    baos.write(bytes, 0, bytes.length);
+                    first.complete(null);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    future.complete(new String(baos.toByteArray()));
+                }
+            });
+            first.get(10, TimeUnit.SECONDS);
+            Files.write(logPath, "line 3\n".getBytes(), StandardOpenOption.APPEND);
+            Files.write(logPath, "line 4\n".getBytes(), StandardOpenOption.APPEND);
+            Thread.sleep(500);
+            assertThat(future.isDone(), is(false));
+
+            descriptorManager.savePipeline(new Pipeline(createInfo(new Status(Status.State.FINISHED,
+                    Status.Result.SUCCESS))));
+            assertThat(future.get(10, TimeUnit.SECONDS), is("line 2\nline 3\nline 4\n"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static PipelineInfo createInfo(Status status) {
+        return PipelineInfo.builder()
+                .id("pipeline1")
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(status)
+                .timings(new Timings(System.currentTimeMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link LogSearch} test.
+ */
+public final class LogSearchTest {
+
+    @Test
+    public void testLiteral() throws IOException {
+        Path log = createLog();
+        try (LogSearch search = new LogSearch(ByteSource.open(log), 0, 0, "Exception", false)) {
+            List<LogSearch.Match> matches = matches(search);
+            assertThat(matches.size(), is(50));
+            assertThat(matches.get(0).line, is(99L));
+            assertThat(matches.get(0).text, is("java.lang.IllegalStateException: error 99"));
+            assertThat(matches.get(1).line, is(199L));
+            assertThat(readLine(log, matches.get(1).position), is(matches.get(1).text));
+        }
+    }
+
+    @Test
+    public void testRegex() throws IOException {
+        Path log = createLog();
+        LogSearch.Match first;
+        try (LogSearch search = new LogSearch(ByteSource.open(log), 0, 0, "error [0-9]*99$", true)) {
+            List<LogSearch.Match> matches = matches(search);
+            assertThat(matches.size(), is(50));
+            first = matches.get(0);
+            assertThat(first.line, is(99L));
+            assertThat(matches.get(49).line, is(4999L));
+        }
+        // resume after the first match
+        long position = first.position + first.text.length() + 1;
+        try (LogSearch search = new LogSearch(ByteSource.open(log), position, 100, "error [0-9]*99$", true)) {
+            assertThat(search.next().line, is(199L));
+        }
+    }
+
+    @Test
+    public void testRegexTimeout() throws IOException {
+        Path log = Files.createTempFile(LogSearchTest.class.getSimpleName(), null);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            sb.append('a');
+        }
+        Files.write(log, (sb + "!\n").getBytes(StandardCharsets.UTF_8));
+        // catastrophic backtracking on a single line
+        try (LogSearch search = new LogSearch(ByteSource.open(log), 0, 0, "(a+)+\\1!x", true)) {
+            search.deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100));
+            assertThat(search.next(), is(nullValue()));
+            assertThat(search.timedOut(), is(true));
+        }
+    }
+
+    @Test
+    public void testPublisher() throws Exception {
+        Path log = createLog();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            LogSearch search = new LogSearch(ByteSource.open(log), 0, 0, "error 1\"99", false);
+            assertThat(collect(new SearchPublisher(search, 10, executor)), is("{\"truncated\":false,\"timedOut\":false"
+                    + ",\"position\":" + Files.size(log) + ",\"line\":5000}\n"));
+            search = new LogSearch(ByteSource.open(log), 0, 0, "Exception", false);
+            String[] result = collect(new SearchPublisher(search, 2, executor)).split("\n");
+            List<String> lines = Files.readAllLines(log);
+            long position = lines.subList(0, 99).stream().mapToLong((s) -> s.length() + 1).sum();
+            assertThat(result[0], is("{\"line\":99,\"position\":" + position
+                    + ",\"text\":\"java.lang.IllegalStateException: error 99\"}"));
+            assertThat(result.length, is(3));
+            // the next search resumes after the last match
+            long next = lines.subList(0, 200).stream().mapToLong((s) -> s.length() + 1).sum();
+            assertThat(result[2], is("{\"truncated\":true,\"timedOut\":false,\"position\":" + next
+                    + ",\"line\":200}"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Path createLog() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            if (i % 100 == 99) {
+                sb.append("java.lang.IllegalStateException: error ").append(i).append('\n');
+            } else {
+                sb.append("[INFO] line ").append(i).append('\n');
+            }
+        }
+        Path log = Files.createTempFile(LogSearchTest.class.getSimpleName(), null);
+        Files.write(log, sb.toString().getBytes());
+        return log;
+    }
+
+    private static String readLine(Path log, long position) throws IOException {
+        String content = new String(Files.readAllBytes(log));
+        return content.substring((int) position, content.indexOf('\n', (int) position));
+    }
+
+    private static List<LogSearch.Match> matches(LogSearch search) throws IOException {
+        List<LogSearch.Match> matches = new ArrayList<>();
+        LogSearch.Match match;
+        while ((match = search.next()) != null) {
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    private static String collect(SearchPublisher publisher) throws Exception {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        publisher.subscribe(new Subscriber<DataChunk>() {
+
+            private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                byte[] bytes = item.bytes();
+                baos.write(bytes, 0, bytes.length);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(new String(baos.toByteArray()));
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,157 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.helidon.build.publisher.model.PipelineIndex;
+import io.helidon.build.publisher.model.PipelineInfo;
+import io.helidon.build.publisher.model.Status;
+import io.helidon.build.publisher.model.Timings;
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link PipelineCatalog} test.
+ */
+public final class PipelineCatalogTest {
+
+    @Test
+    public void testQuery() throws IOException {
+        Path storage = Files.createTempDirectory(PipelineCatalogTest.class.getSimpleName());
+        PipelineIndex index = new PipelineIndex(storage);
+        for (int i = 1; i <= 10; i++) {
+            index.onEvent(new PipelineCreatedEvent(createInfo("pipeline" + i, i % 2 == 0 ? "master" : "dev",
+                    i % 3 == 0 ? "jane_doe" : "john_doe", i * 1000)));
+        }
+        index.onEvent(new PipelineCompletedEvent("pipeline4", Status.Result.FAILURE, 1));
+        index.onEvent(new PipelineCompletedEvent("pipeline8", Status.Result.FAILURE, 1));
+        PipelineCatalog catalog = new PipelineCatalog(new PipelineIndex(storage));
+
+        // most recent first
+        PipelineCatalog.Page page = catalog.query(new PipelineCatalog.Query().headRef("master").limit(2));
+        assertThat(ids(page), is("pipeline10,pipeline8"));
+        assertThat(page.next(), is("pipeline8"));
+        page = catalog.query(new PipelineCatalog.Query().headRef("master").limit(2).after(page.next()));
+        assertThat(ids(page), is("pipeline6,pipeline4"));
+        page = catalog.query(new PipelineCatalog.Query().headRef("master").limit(2).after(page.next()));
+        assertThat(ids(page), is("pipeline2"));
+        assertThat(page.next(), is(nullValue()));
+
+        // oldest first
+        page = catalog.query(new PipelineCatalog.Query().user("jane_doe").ascending(true));
+        assertThat(ids(page), is("pipeline3,pipeline6,pipeline9"));
+
+        // status and date range
+        page = catalog.query(new PipelineCatalog.Query()
+                .headRef("master")
+                .user("john_doe")
+                .statuses(Collections.singleton("FAILURE")));
+        assertThat(ids(page), is("pipeline8,pipeline4"));
+        page = catalog.query(new PipelineCatalog.Query().range(3000, 6000));
+        assertThat(ids(page), is("pipeline5,pipeline4,pipeline3"));
+        page = catalog.query(new PipelineCatalog.Query().range(3000, 6000).ascending(true).limit(2));
+        assertThat(ids(page), is("pipeline3,pipeline4"));
+        page = catalog.query(new PipelineCatalog.Query().range(3000, 6000).ascending(true).after(page.next()));
+        assertThat(ids(page), is("pipeline5"));
+        page = catalog.query(new PipelineCatalog.Query().headRef("master").range(3000, 9000).after("pipeline10"));
+        assertThat(ids(page), is("pipeline8,pipeline6,pipeline4"));
+        page = catalog.query(new PipelineCatalog.Query().range(20000, 30000));
+        assertThat(ids(page), is(""));
+
+        // no match
+        page = catalog.query(new PipelineCatalog.Query().repositoryUrl("https://github.com/jane_doe/repo.git"));
+        assertThat(ids(page), is(""));
+
+        assertThrows(IllegalArgumentException.class, () -> catalog.query(new PipelineCatalog.Query().after("foo")));
+    }
+
+    @Test
+    public void testClockSkew() throws IOException {
+        Path storage = Files.createTempDirectory(PipelineCatalogTest.class.getSimpleName());
+        PipelineIndex index = new PipelineIndex(storage);
+        // pipeline3 and pipeline6 are started by clients with a clock behind the others
+        long[] startTimes = {1000, 2000, 1500, 4000, 5000, 2500, 7000, 8000};
+        for (int i = 0; i < startTimes.length; i++) {
+            index.onEvent(new PipelineCreatedEvent(createInfo("pipeline" + (i + 1), "master", "john_doe",
+                    startTimes[i])));
+        }
+        PipelineCatalog catalog = new PipelineCatalog(new PipelineIndex(storage));
+
+        PipelineCatalog.Page page = catalog.query(new PipelineCatalog.Query().range(1500, 3000));
+        assertThat(ids(page), is("pipeline6,pipeline3,pipeline2"));
+        page = catalog.query(new PipelineCatalog.Query().range(1500, 3000).ascending(true));
+        assertThat(ids(page), is("pipeline2,pipeline3,pipeline6"));
+        page = catalog.query(new PipelineCatalog.Query().headRef("master").range(2500, 4500).ascending(true));
+        assertThat(ids(page), is("pipeline4,pipeline6"));
+        page = catalog.query(new PipelineCatalog.Query().range(0, 1200));
+        assertThat(ids(page), is("pipeline1"));
+        page = catalog.query(new PipelineCatalog.Query().range(6000, 9000));
+        assertThat(ids(page), is("pipeline8,pipeline7"));
+    }
+
+    @Test
+    public void testIncremental() throws IOException {
+        Path storage = Files.createTempDirectory(PipelineCatalogTest.class.getSimpleName());
+        PipelineIndex index = new PipelineIndex(storage);
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline1", "master", "john_doe", 1000)));
+        PipelineCatalog catalog = new PipelineCatalog(new PipelineIndex(storage));
+        assertThat(ids(catalog.query(new PipelineCatalog.Query().headRef("master"))), is("pipeline1"));
+
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline2", "master", "john_doe", 2000)));
+        assertThat(ids(catalog.query(new PipelineCatalog.Query().headRef("master"))), is("pipeline2,pipeline1"));
+
+        // re-created index
+        Files.delete(storage.resolve("pipelines.idx"));
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline3", "master", "john_doe", 3000)));
+        assertThat(ids(catalog.query(new PipelineCatalog.Query().headRef("master"))), is("pipeline3"));
+    }
+
+    @Test
+    public void testLatest() throws IOException {
+        Path storage = Files.createTempDirectory(PipelineCatalogTest.class.getSimpleName());
+        PipelineIndex index = new PipelineIndex(storage);
+        PipelineCatalog catalog = new PipelineCatalog(new PipelineIndex(storage));
+        String repositoryUrl = "https://github.com/john_doe/repo.git";
+        assertThat(catalog.latest(repositoryUrl, "master"), is(nullValue()));
+
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline1", "master", "john_doe", 1000)));
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline2", "dev", "john_doe", 2000)));
+        index.onEvent(new PipelineCompletedEvent("pipeline1", Status.Result.SUCCESS, 1));
+        assertThat(catalog.latest(repositoryUrl, "master").status(), is("SUCCESS"));
+        assertThat(catalog.latest(repositoryUrl, "dev").status(), is("RUNNING"));
+
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline3", "master", "john_doe", 3000)));
+        assertThat(catalog.latest(repositoryUrl, "master").id(), is("pipeline3"));
+        index.onEvent(new PipelineCompletedEvent("pipeline3", Status.Result.FAILURE, 1));
+        assertThat(catalog.latest(repositoryUrl, "master").status(), is("FAILURE"));
+    }
+
+    private static String ids(PipelineCatalog.Page page) {
+        List<PipelineInfo> items = page.items();
+        return items.stream().map(PipelineInfo::id).collect(Collectors.joining(","));
+    }
+
+    private static PipelineInfo createInfo(String id, String headRef, String user, long startTime) {
+        return PipelineInfo.builder()
+                .id(id)
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef(headRef)
+                .user(user)
+                .commit("123456789")
+                .status(new Status(Status.State.RUNNING))
+                .timings(new Timings(startTime))
+                .build();
+    }
+}
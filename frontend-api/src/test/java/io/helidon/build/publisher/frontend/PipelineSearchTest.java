@@ -0,0 +1,105 @@
+package io.helidon.build.publisher.frontend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.common.http.DataChunk;
+import io.helidon.common.reactive.Flow.Subscriber;
+import io.helidon.common.reactive.Flow.Subscription;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * {@link PipelineSearch} test.
+ */
+public final class PipelineSearchTest {
+
+    @Test
+    public void testStepIds() throws IOException {
+        Path pipelinePath = createPipeline();
+        Files.createFile(pipelinePath.resolve("step-12.log.tail"));
+        Files.createFile(pipelinePath.resolve("step-2.log.tail"));
+        assertThat(PipelineSearch.stepIds(pipelinePath), is(Arrays.asList("1", "2", "3", "10", "12")));
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        Path pipelinePath = createPipeline();
+        ForkJoinPool executor = new ForkJoinPool(2);
+        try {
+            String[] lines = search(pipelinePath, "error", 100, executor);
+            assertThat(lines.length, is(4));
+            assertThat(lines[0], startsWith("{\"step\":\""));
+            assertThat(lines[3], is("{\"steps\":4,\"searched\":4,\"truncated\":false,\"timedOut\":false}"));
+
+            lines = search(pipelinePath, "error 3", 100, executor);
+            assertThat(lines.length, is(2));
+            assertThat(lines[0], is("{\"step\":\"3\",\"stage\":null,\"name\":null,\"matches\":["
+                    + "{\"line\":1,\"position\":7,\"text\":\"error 3\"}]}"));
+
+            lines = search(pipelinePath, "error", 2, executor);
+            assertThat(lines.length, is(3));
+            assertThat(lines[2], is("{\"steps\":4,\"searched\":4,\"truncated\":true,\"timedOut\":false}"));
+
+            lines = search(pipelinePath, "nothing", 100, executor);
+            assertThat(lines.length, is(1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Path createPipeline() throws IOException {
+        Path pipelinePath = Files.createTempDirectory(PipelineSearchTest.class.getSimpleName());
+        for (String id : new String[]{"1", "2", "3", "10"}) {
+            String content = id.equals("2") ? "line 1\nline 2\n" : "line 1\nerror " + id + "\nline 3\n";
+            Files.write(pipelinePath.resolve("step-" + id + ".log"), content.getBytes());
+        }
+        Files.createFile(pipelinePath.resolve("pipeline.json"));
+        return pipelinePath;
+    }
+
+    private static String[] search(Path pipelinePath, String query, int max, ForkJoinPool executor) throws Exception {
+        PipelineSearch search = new PipelineSearch(pipelinePath, null, query, false, max,
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(10), 2, executor);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        search.subscribe(new Subscriber<DataChunk>() {
+
+            private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DataChunk item) {
+                byte[] bytes = item.bytes();
+                baos.write(bytes, 0, bytes.length);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(new String(baos.toByteArray()));
+            }
+        });
+        return future.get(10, TimeUnit.SECONDS).split("\n");
+    }
+}
@@ -0,0 +1,69 @@
+package io.helidon.build.publisher.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Block compressed log format.
+ * A log {@code step-N.log} is stored as three files:
+ * <ul>
+ * <li>{@code step-N.log.gz}: the completed blocks, each block is an independent {@code gzip} member of at most
+ * {@link #BLOCK_SIZE} uncompressed bytes, the file can be read with {@code zcat}</li>
+ * <li>{@code step-N.log.gzi}: the block index, one entry of two big-endian longs per block: the compressed and
+ * uncompressed offsets of the end of the block</li>
+ * <li>{@code step-N.log.tail}: the uncompressed offset of the tail as a big-endian long, followed by the uncompressed
+ * data that is not yet in a block</li>
+ * </ul>
+ * The blocks are appended before the index entries, and the tail is replaced atomically after the index is updated.
+ * A reader that reads the tail first thus always sees a consistent log, the blocks and index entries beyond the tail
+ * offset are ignored.
+ */
+public final class BlockLog {
+
+    /**
+     * Maximum number of uncompressed bytes in a block.
+     */
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int TAIL_HEADER_SIZE = 8;
+
+    private BlockLog() {
+    }
+
+    /**
+     * Get the path of the blocks file.
+     * @param log the log path
+     * @return Path
+     */
+    public static Path dataPath(Path log) {
+        return log.resolveSibling(log.getFileName() + ".gz");
+    }
+
+    /**
+     * Get the path of the index file.
+     * @param log the log path
+     * @return Path
+     */
+    public static Path indexPath(Path log) {
+        return log.resolveSibling(log.getFileName() + ".gzi");
+    }
+
+    /**
+     * Get the path of the tail file.
+     * @param log the log path
+     * @return Path
+     */
+    public static Path tailPath(Path log) {
+        return log.resolveSibling(log.getFileName() + ".tail");
+    }
+
+    /**
+     * Test if a block compressed log exists.
+     * @param log the log path
+     * @return {@code true} if the log exists, {@code false} otherwise
+     */
+    public static boolean exists(Path log) {
+        return Files.exists(tailPath(log));
+    }
+}
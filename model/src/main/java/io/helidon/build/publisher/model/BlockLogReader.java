@@ -0,0 +1,179 @@
+package io.helidon.build.publisher.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import static io.helidon.build.publisher.model.BlockLog.INDEX_ENTRY_SIZE;
+import static io.helidon.build.publisher.model.BlockLog.TAIL_HEADER_SIZE;
+
+/**
+ * Reader of {@link BlockLog block compressed logs}.
+ * The reader sees the log as it was when opened, the data is read at uncompressed offsets. Only the block that
+ * contains the requested offset is inflated, the last inflated block is cached. Instances are not thread safe.
+ */
+public final class BlockLogReader implements Closeable {
+
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private final FileChannel tail;
+    private final FileChannel data;
+    private final long base;
+    private final long length;
+    private final long[] compressedEnds;
+    private final long[] uncompressedEnds;
+    private final Inflater inflater;
+    private byte[] compressed;
+    private byte[] block;
+    private int blockIndex;
+
+    /**
+     * Open a reader.
+     * @param log the log path
+     * @throws IOException if an IO error occurs
+     */
+    public BlockLogReader(Path log) throws IOException {
+        // the tail is read first, see BlockLog
+        tail = FileChannel.open(BlockLog.tailPath(log), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TAIL_HEADER_SIZE);
+            readFully(tail, header, 0);
+            base = header.getLong(0);
+            length = base + tail.size() - TAIL_HEADER_SIZE;
+            ByteBuffer entries;
+            try (FileChannel index = FileChannel.open(BlockLog.indexPath(log), StandardOpenOption.READ)) {
+                entries = ByteBuffer.allocate((int) (index.size() / INDEX_ENTRY_SIZE * INDEX_ENTRY_SIZE));
+                readFully(index, entries, 0);
+            }
+            int nentries = entries.capacity() / INDEX_ENTRY_SIZE;
+            long[] cEnds = new long[nentries];
+            long[] uEnds = new long[nentries];
+            int count = 0;
+            while (count < nentries) {
+                long uEnd = entries.getLong(count * INDEX_ENTRY_SIZE + 8);
+                if (uEnd > base) {
+                    break;
+                }
+                cEnds[count] = entries.getLong(count * INDEX_ENTRY_SIZE);
+                uEnds[count] = uEnd;
+                count++;
+            }
+            compressedEnds = Arrays.copyOf(cEnds, count);
+            uncompressedEnds = Arrays.copyOf(uEnds, count);
+            data = FileChannel.open(BlockLog.dataPath(log), StandardOpenOption.READ);
+        } catch (IOException ex) {
+            tail.close();
+            throw ex;
+        }
+        inflater = new Inflater(true);
+        blockIndex = -1;
+    }
+
+    /**
+     * Get the uncompressed length of the log.
+     * @return length
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Read data at the given uncompressed position.
+     * @param position the position to read from
+     * @param dst the buffer to read into
+     * @return the number of bytes read, or {@code -1} if position is at the end of the log
+     * @throws IOException if an IO error occurs
+     */
+    public int read(long position, ByteBuffer dst) throws IOException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        if (position >= length) {
+            return -1;
+        }
+        if (position >= base) {
+            int limit = dst.limit();
+            if (dst.remaining() > length - position) {
+                dst.limit(dst.position() + (int) (length - position));
+            }
+            try {
+                return tail.read(dst, TAIL_HEADER_SIZE + position - base);
+            } finally {
+                dst.limit(limit);
+            }
+        }
+        int i = Arrays.binarySearch(uncompressedEnds, position);
+        // the block that ends after position
+        i = i >= 0 ? i + 1 : -(i + 1);
+        loadBlock(i);
+        long blockStart = i > 0 ? uncompressedEnds[i - 1] : 0;
+        int offset = (int) (position - blockStart);
+        int n = Math.min(dst.remaining(), block.length - offset);
+        dst.put(block, offset, n);
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        try {
+            tail.close();
+        } finally {
+            data.close();
+        }
+    }
+
+    private void loadBlock(int i) throws IOException {
+        if (blockIndex == i) {
+            return;
+        }
+        long cStart = i > 0 ? compressedEnds[i - 1] : 0;
+        long uStart = i > 0 ? uncompressedEnds[i - 1] : 0;
+        int clen = (int) (compressedEnds[i] - cStart);
+        int ulen = (int) (uncompressedEnds[i] - uStart);
+        if (compressed == null || compressed.length < clen) {
+            compressed = new byte[clen];
+        }
+        readFully(data, ByteBuffer.wrap(compressed, 0, clen), cStart);
+        // the blocks are written by GZIPOutputStream, with a fixed size header
+        if (clen < GZIP_HEADER_SIZE + GZIP_TRAILER_SIZE || compressed[0] != (byte) 0x1f || compressed[1] != (byte) 0x8b
+                || compressed[3] != 0) {
+            throw new ZipException("Invalid block: " + i);
+        }
+        byte[] buf = new byte[ulen];
+        inflater.reset();
+        inflater.setInput(compressed, GZIP_HEADER_SIZE, clen - GZIP_HEADER_SIZE - GZIP_TRAILER_SIZE);
+        try {
+            int n = 0;
+            while (n < ulen) {
+                int count = inflater.inflate(buf, n, ulen - n);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new ZipException("Truncated block: " + i);
+                }
+                n += count;
+            }
+        } catch (DataFormatException ex) {
+            throw new ZipException(ex.getMessage());
+        }
+        block = buf;
+        blockIndex = i;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += n;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.helidon.build.publisher.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import static io.helidon.build.publisher.model.BlockLog.BLOCK_SIZE;
+import static io.helidon.build.publisher.model.BlockLog.INDEX_ENTRY_SIZE;
+import static io.helidon.build.publisher.model.BlockLog.TAIL_HEADER_SIZE;
+
+/**
+ * Writer of {@link BlockLog block compressed logs}.
+ * The data is appended to the tail until a block is complete, the complete blocks are compressed and moved out of
+ * the tail. The partial block is compressed by {@link #finish()}. A writer recovers the state left by a previous
+ * writer that did not complete, instances are not thread safe and a log must have a single writer at a time.
+ */
+public final class BlockLogWriter implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(BlockLogWriter.class.getName());
+
+    private final Path log;
+    private final Path tailPath;
+    private final FileChannel data;
+    private final FileChannel index;
+    private final ByteBuffer block;
+    private final ByteArrayOutputStream compressed;
+    private FileChannel tail;
+    private long base;
+    private long compressedEnd;
+
+    /**
+     * Open a writer.
+     * @param log the log path
+     * @throws IOException if an IO error occurs
+     */
+    public BlockLogWriter(Path log) throws IOException {
+        this.log = log;
+        this.tailPath = BlockLog.tailPath(log);
+        this.block = ByteBuffer.allocate(BLOCK_SIZE);
+        this.compressed = new ByteArrayOutputStream();
+        if (Files.exists(tailPath)) {
+            tail = FileChannel.open(tailPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(TAIL_HEADER_SIZE);
+            readFully(tail, header, 0);
+            base = header.getLong(0);
+            long tailSize = tail.size() - TAIL_HEADER_SIZE;
+            if (tailSize > BLOCK_SIZE) {
+                throw new IOException("Invalid tail: " + tailPath);
+            }
+            block.limit((int) tailSize);
+            readFully(tail, block, TAIL_HEADER_SIZE);
+            block.limit(BLOCK_SIZE);
+        } else {
+            writeTail(0, ByteBuffer.allocate(0));
+        }
+        tail.position(tail.size());
+        data = FileChannel.open(BlockLog.dataPath(log), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        index = FileChannel.open(BlockLog.indexPath(log), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Get the uncompressed size of the log.
+     * @return size
+     */
+    public long size() {
+        return base + block.position();
+    }
+
+    /**
+     * Append data.
+     * @param buffer the data to append
+     * @throws IOException if an IO error occurs
+     */
+    public void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (!block.hasRemaining()) {
+                writeBlock();
+            }
+            int n = Math.min(block.remaining(), buffer.remaining());
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + n);
+            block.put(slice.duplicate());
+            while (slice.hasRemaining()) {
+                tail.write(slice);
+            }
+            buffer.position(buffer.position() + n);
+        }
+        if (!block.hasRemaining()) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Compress the partial block, if any.
+     * @throws IOException if an IO error occurs
+     */
+    public void finish() throws IOException {
+        if (block.position() > 0) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            tail.close();
+            index.close();
+        } finally {
+            data.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        int len = block.position();
+        compressed.reset();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(block.array(), 0, len);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(compressed.toByteArray());
+        while (buffer.hasRemaining()) {
+            compressedEnd += data.write(buffer, compressedEnd);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        entry.putLong(compressedEnd).putLong(base + len).flip();
+        long indexEnd = index.size();
+        while (entry.hasRemaining()) {
+            indexEnd += index.write(entry, indexEnd);
+        }
+        block.clear();
+        writeTail(base + len, ByteBuffer.allocate(0));
+        if (LOGGER.isLoggable(Level.FINEST)) {
+            LOGGER.log(Level.FINEST, "Block written, log={0}, offset={1}, size={2}", new Object[]{
+                log,
+                base,
+                len
+            });
+        }
+    }
+
+    private void writeTail(long offset, ByteBuffer remaining) throws IOException {
+        Path tmpPath = tailPath.resolveSibling(tailPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(TAIL_HEADER_SIZE);
+            header.putLong(offset).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (remaining.hasRemaining()) {
+                channel.write(remaining);
+            }
+        }
+        Files.move(tmpPath, tailPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (tail != null) {
+            tail.close();
+        }
+        tail = FileChannel.open(tailPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        tail.position(tail.size());
+        base = offset;
+    }
+
+    /**
+     * Drop the blocks and index entries written beyond the tail offset by an interrupted writer.
+     */
+    private void recover() throws IOException {
+        long nentries = index.size() / INDEX_ENTRY_SIZE;
+        long count = 0;
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        // the entries are ordered, start from the end
+        for (long i = nentries - 1; i >= 0; i--) {
+            entry.clear();
+            readFully(index, entry, i * INDEX_ENTRY_SIZE);
+            if (entry.getLong(8) <= base) {
+                count = i + 1;
+                compressedEnd = entry.getLong(0);
+                break;
+            }
+        }
+        if (count < nentries || index.size() % INDEX_ENTRY_SIZE != 0 || data.size() != compressedEnd) {
+            LOGGER.log(Level.WARNING, "Recovering block log, log={0}, entries={1}, validEntries={2}",
+                    new Object[]{
+                        log,
+                        nentries,
+                        count
+                    });
+            index.truncate(count * INDEX_ENTRY_SIZE);
+            data.truncate(compressedEnd);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += n;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package io.helidon.build.publisher.model;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -14,6 +16,7 @@ public final class DescriptorFileManager implements DescriptorManager {
 
     private static final Logger LOGGER = Logger.getLogger(DescriptorFileManager.class.getName());
     private static final String PIPELINE_FNAME = "pipeline.json";
+    private static final String INFO_FNAME = "info.json";
 
     private final Path storage;
 
@@ -49,13 +52,17 @@ public final class DescriptorFileManager implements DescriptorManager {
 
     /**
      * Load a pipeline info for a given pipeline directory.
+     * The info descriptor is read if present, otherwise the info is read from the pipeline descriptor.
      * @param dirPath dir path containing the pipeline descriptor
      * @return PipelineInfo or {@code null} if not found
      * @throws NullPointerException if dirPath is {@code null}
      */
     public PipelineInfo loadInfoFromDir(Path dirPath) {
         Objects.requireNonNull(dirPath, "dirPath is null");
-        Path filePath = dirPath.resolve(PIPELINE_FNAME);
+        Path filePath = dirPath.resolve(INFO_FNAME);
+        if (!Files.exists(filePath)) {
+            filePath = dirPath.resolve(PIPELINE_FNAME);
+        }
         if (Files.exists(filePath)) {
             if (LOGGER.isLoggable(Level.FINEST)) {
                 LOGGER.log(Level.FINEST, "Reading pipeline info descriptor: {0}", filePath);
@@ -70,6 +77,33 @@ public final class DescriptorFileManager implements DescriptorManager {
         return null;
     }
 
+    /**
+     * Save a pipeline info descriptor.
+     * @param info the pipeline info to save
+     * @throws NullPointerException if info is {@code null}
+     */
+    public void saveInfo(PipelineInfo info) {
+        if (storage == null) {
+            throw new IllegalStateException("storage not set");
+        }
+        Objects.requireNonNull(info, "info is null");
+        Path filePath = storage.resolve(info.id).resolve(INFO_FNAME);
+        try {
+            Files.createDirectories(filePath.getParent());
+            if (LOGGER.isLoggable(Level.FINEST)) {
+                LOGGER.log(Level.FINEST, "Writing pipeline info descriptor: {0}", filePath);
+            }
+            // write to a temporary file first, readers never see a partial descriptor
+            Path tmpPath = filePath.resolveSibling(INFO_FNAME + ".tmp");
+            try (OutputStream os = Files.newOutputStream(tmpPath)) {
+                JacksonSupport.writeCompact(os, info);
+            }
+            Files.move(tmpPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     /**
      * Load a pipeline.
      * @param filePath pipeline descriptor file path
@@ -120,7 +154,10 @@ public final class DescriptorFileManager implements DescriptorManager {
             if (LOGGER.isLoggable(Level.FINEST)) {
                 LOGGER.log(Level.FINEST, "Writing pipeline descriptor: {0}", filePath);
             }
-            JacksonSupport.write(Files.newOutputStream(filePath), pipeline);
+            // write to a temporary file first, readers never see a partial descriptor
+            Path tmpPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+            JacksonSupport.write(Files.newOutputStream(tmpPath), pipeline);
+            Files.move(tmpPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
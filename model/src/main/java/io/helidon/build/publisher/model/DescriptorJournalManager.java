@@ -0,0 +1,240 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.PipelineEventType;
+import io.helidon.build.publisher.model.events.PipelineEvents;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Journal based descriptor manager.
+ * The events applied to a running pipeline are appended to a per-pipeline journal file, one batch per line. The
+ * journal is compacted into a single snapshot line when it grows, and is removed when the pipeline is completed.
+ * The pipeline descriptor is only written on {@link #savePipeline(Pipeline)}, on compaction and on completion.
+ * A journal always starts with a snapshot or with the pipeline created event, it is thus replayed without the
+ * descriptor, which may already include the journaled events.
+ */
+public final class DescriptorJournalManager implements DescriptorManager {
+
+    private static final Logger LOGGER = Logger.getLogger(DescriptorJournalManager.class.getName());
+    private static final String JOURNAL_FNAME = "events.log";
+    private static final long COMPACTION_THRESHOLD = 256 * 1024;
+    private static final int COMPACTION_RATIO = 4; // journal size relative to the last snapshot that triggers a compaction
+
+    private final Path storage;
+    private final DescriptorFileManager fileManager;
+    private final Map<String, Long> snapshotSizes;
+
+    /**
+     * Create a new journal descriptor manager.
+     * @param storage storage path
+     * @throws NullPointerException if storage is {@code null}
+     */
+    public DescriptorJournalManager(Path storage) {
+        this.storage = Objects.requireNonNull(storage, "storage is null");
+        this.fileManager = new DescriptorFileManager(storage);
+        this.snapshotSizes = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Pipeline loadPipeline(String id) {
+        Objects.requireNonNull(id, "id is null");
+        Path journalPath = storage.resolve(id).resolve(JOURNAL_FNAME);
+        if (Files.exists(journalPath)) {
+            try {
+                return replay(id, journalPath);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        return fileManager.loadPipeline(id);
+    }
+
+    /**
+     * Write the pipeline descriptor.
+     * The journal is left as is while the pipeline is running, and removed if the pipeline is completed.
+     * @param pipeline pipeline to save
+     */
+    @Override
+    public void savePipeline(Pipeline pipeline) {
+        Objects.requireNonNull(pipeline, "pipeline is null");
+        fileManager.savePipeline(pipeline);
+        if (pipeline.state() == Status.State.FINISHED) {
+            String id = pipeline.pipelineId();
+            snapshotSizes.remove(id);
+            try {
+                if (Files.deleteIfExists(storage.resolve(id).resolve(JOURNAL_FNAME))) {
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.log(Level.FINE, "Removed journal of completed pipeline, pipelineId={0}", id);
+                    }
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    /**
+     * Append the events to the pipeline journal.
+     * The pipeline descriptor is written only if the pipeline is completed or if the journal is compacted.
+     * @param pipeline pipeline to save
+     * @param events the events that were applied to the pipeline
+     */
+    @Override
+    public void savePipeline(Pipeline pipeline, List<PipelineEvent> events) {
+        Objects.requireNonNull(pipeline, "pipeline is null");
+        Objects.requireNonNull(events, "events is null");
+        if (pipeline.state() == Status.State.FINISHED) {
+            savePipeline(pipeline);
+            return;
+        }
+        String id = pipeline.pipelineId();
+        Path journalPath = storage.resolve(id).resolve(JOURNAL_FNAME);
+        try {
+            if (!Files.exists(journalPath.getParent())) {
+                if (LOGGER.isLoggable(Level.FINEST)) {
+                    LOGGER.log(Level.FINEST, "Creating pipeline directory: {0}", journalPath.getParent());
+                }
+                Files.createDirectories(journalPath.getParent());
+            }
+            if (!Files.exists(journalPath)
+                    && (events.isEmpty() || events.get(0).eventType() != PipelineEventType.PIPELINE_CREATED)) {
+                // journal started for a pipeline that has a descriptor
+                compact(pipeline, journalPath);
+                return;
+            }
+            byte[] record = JacksonSupport.writeLine(new PipelineEvents(events));
+            Files.write(journalPath, record, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            long size = Files.size(journalPath);
+            long snapshotSize = snapshotSizes.getOrDefault(id, 0L);
+            if (size > COMPACTION_THRESHOLD && size > snapshotSize * COMPACTION_RATIO) {
+                compact(pipeline, journalPath);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Replace the journal with a snapshot of the pipeline and write the pipeline descriptor.
+     * @param pipeline pipeline
+     * @param journalPath journal file
+     * @throws IOException if an IO error occurs
+     */
+    private void compact(Pipeline pipeline, Path journalPath) throws IOException {
+        byte[] snapshot = JacksonSupport.writeLine(pipeline);
+        Path tmpPath = journalPath.resolveSibling(JOURNAL_FNAME + ".tmp");
+        Files.write(tmpPath, snapshot);
+        Files.move(tmpPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshotSizes.put(pipeline.pipelineId(), (long) snapshot.length);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Compacted journal, pipelineId={0}, snapshotSize={1}", new Object[]{
+                pipeline.pipelineId(),
+                snapshot.length
+            });
+        }
+        fileManager.savePipeline(pipeline);
+    }
+
+    /**
+     * Rebuild a pipeline from its journal.
+     * The journal is truncated after the last valid record, a partially written record is discarded.
+     * @param id pipeline id
+     * @param journalPath journal file
+     * @return Pipeline
+     * @throws IOException if an IO error occurs
+     * @throws IllegalStateException if the journal does not start with a snapshot or a pipeline created event and
+     * there is no pipeline descriptor
+     */
+    private Pipeline replay(String id, Path journalPath) throws IOException {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Replaying journal: {0}", journalPath);
+        }
+        byte[] data = Files.readAllBytes(journalPath);
+        Pipeline pipeline = null;
+        int offset = 0;
+        int nrecords = 0;
+        while (offset < data.length) {
+            int end = offset;
+            while (end < data.length && data[end] != '\n') {
+                end++;
+            }
+            if (end == data.length) {
+                LOGGER.log(Level.WARNING, "Incomplete journal record, pipelineId={0}, offset={1}", new Object[]{
+                    id,
+                    offset
+                });
+                break;
+            }
+            JsonNode record;
+            try {
+                record = JacksonSupport.readTree(data, offset, end - offset);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Invalid journal record, pipelineId={0}, offset={1}", new Object[]{
+                    id,
+                    offset
+                });
+                break;
+            }
+            if (record.has("events")) {
+                List<PipelineEvent> events = JacksonSupport.read(record, PipelineEvents.class).events();
+                if (pipeline == null) {
+                    pipeline = initialPipeline(id, events);
+                }
+                EventProcessor.process(pipeline, events);
+            } else {
+                pipeline = JacksonSupport.read(record, Pipeline.class);
+                snapshotSizes.put(id, (long) (end + 1 - offset));
+            }
+            offset = end + 1;
+            nrecords++;
+        }
+        if (offset < data.length) {
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+            }
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Replayed journal, pipelineId={0}, records={1}", new Object[]{
+                id,
+                nrecords
+            });
+        }
+        return pipeline != null ? pipeline : fileManager.loadPipeline(id);
+    }
+
+    /**
+     * Get the pipeline to apply the first journaled events to.
+     * @param id pipeline id
+     * @param events first journaled events
+     * @return Pipeline
+     * @throws IllegalStateException if the events do not create the pipeline and there is no pipeline descriptor
+     */
+    private Pipeline initialPipeline(String id, List<PipelineEvent> events) {
+        PipelineEvent first = events.isEmpty() ? null : events.get(0);
+        if (first != null && first.eventType() == PipelineEventType.PIPELINE_CREATED) {
+            // the journaled info is already augmented
+            return new Pipeline(((PipelineCreatedEvent) first).info());
+        }
+        // journal started for a pipeline that has a descriptor by a previous version
+        Pipeline pipeline = fileManager.loadPipeline(id);
+        if (pipeline == null) {
+            throw new IllegalStateException("Unable to replay journal, pipelineId=" + id);
+        }
+        return pipeline;
+    }
+}
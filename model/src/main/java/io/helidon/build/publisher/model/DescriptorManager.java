@@ -1,5 +1,9 @@
 package io.helidon.build.publisher.model;
 
+import java.util.List;
+
+import io.helidon.build.publisher.model.events.PipelineEvent;
+
 /**
  * Descriptor manager to load and save a pipeline descriptor.
  */
@@ -17,4 +21,14 @@ public interface DescriptorManager {
      * @param pipeline pipeline to save
      */
     void savePipeline(Pipeline pipeline);
+
+    /**
+     * Save a pipeline after applying events.
+     * The default implementation ignores the events and saves the pipeline.
+     * @param pipeline pipeline to save
+     * @param events the events that were applied to the pipeline
+     */
+    default void savePipeline(Pipeline pipeline, List<PipelineEvent> events) {
+        savePipeline(pipeline);
+    }
 }
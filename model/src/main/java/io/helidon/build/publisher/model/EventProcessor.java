@@ -15,6 +15,7 @@ import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
 import io.helidon.build.publisher.model.events.PipelineEvent;
 import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
 import io.helidon.build.publisher.model.events.PipelineErrorEvent;
+import io.helidon.build.publisher.model.events.PipelineEventListener;
 import io.helidon.build.publisher.model.events.PipelineEventType;
 import io.helidon.build.publisher.model.events.StageCreatedEvent;
 import io.helidon.build.publisher.model.events.StepCreatedEvent;
@@ -40,6 +41,7 @@ public final class EventProcessor {
 
     private final DescriptorManager manager;
     private final List<InfoAugmenter> augmenters;
+    private final List<PipelineEventListener> listeners;
 
     /**
      * Create a new processor.
@@ -47,8 +49,22 @@ public final class EventProcessor {
      * @param augmenters pipeline info augmenters, may be {@code null}
      */
     public EventProcessor(DescriptorManager manager, List<InfoAugmenter> augmenters) {
+        this(manager, augmenters, null);
+    }
+
+    /**
+     * Create a new processor.
+     * The listeners are notified of the applied events after the pipeline is saved. The completion of a pipeline
+     * ({@link PipelineEventType#PIPELINE_COMPLETED} or {@link PipelineEventType#PIPELINE_ERROR}) is always
+     * notified as a {@link PipelineCompletedEvent} that holds the resulting status and duration.
+     * @param manager descriptor manager
+     * @param augmenters pipeline info augmenters, may be {@code null}
+     * @param listeners listeners of the applied events, may be {@code null}
+     */
+    public EventProcessor(DescriptorManager manager, List<InfoAugmenter> augmenters, List<PipelineEventListener> listeners) {
         this.manager = Objects.requireNonNull(manager, "manager is null!");
         this.augmenters = augmenters == null ? Collections.emptyList() :augmenters;
+        this.listeners = listeners == null ? Collections.emptyList() : listeners;
     }
 
     /**
@@ -66,8 +82,7 @@ public final class EventProcessor {
             String epid = event.pipelineId();
             if (pipeline == null || !pipeline.pipelineId().equals(epid)) {
                 if (pipeline != null) {
-                    process(pipeline, events);
-                    manager.savePipeline(pipeline);
+                    processAndSave(pipeline, events);
                     events = new LinkedList<>();
                 }
                 pipeline = manager.loadPipeline(epid);
@@ -88,16 +103,63 @@ public final class EventProcessor {
             events.add(event);
         }
         if (pipeline != null) {
+            processAndSave(pipeline, events);
+        }
+    }
+
+    /**
+     * Apply the given events and save the pipeline.
+     * The pipeline is locked to prevent concurrent modifications, the manager may write it from another thread.
+     * @param pipeline the pipeline to update
+     * @param events the events to apply
+     */
+    private void processAndSave(Pipeline pipeline, List<PipelineEvent> events) {
+        synchronized (pipeline) {
+            boolean running = pipeline.status.state == State.RUNNING;
             process(pipeline, events);
-            manager.savePipeline(pipeline);
+            manager.savePipeline(pipeline, events);
+            if (running) {
+                fireEvents(pipeline, events);
+            }
+        }
+    }
+
+    /**
+     * Notify the listeners of the events applied to a pipeline that was running.
+     * @param pipeline the updated pipeline
+     * @param events the processed events
+     */
+    private void fireEvents(Pipeline pipeline, List<PipelineEvent> events) {
+        for (PipelineEvent event : events) {
+            PipelineEventType eventType = event.eventType();
+            if (eventType == PipelineEventType.PIPELINE_COMPLETED || eventType == PipelineEventType.PIPELINE_ERROR) {
+                // the events that follow the completion are skipped
+                fireEvent(new PipelineCompletedEvent(pipeline.info.id, pipeline.status.result, pipeline.timings.duration()));
+                return;
+            }
+            fireEvent(event);
+        }
+    }
+
+    private void fireEvent(PipelineEvent event) {
+        for (PipelineEventListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.WARNING, "Pipeline event listener error, event=" + event, ex);
+            }
         }
     }
 
     /**
      * Process the given events.
+     * This is also used to replay journaled events, it must not have any side effect other than updating the pipeline.
+     * Each applied event increments the revision of the pipeline, the nodes updated by the event are stamped with the
+     * new revision. The revision stamps are the change log used to compute the nodes changed since a given revision.
+     * @param pipeline the pipeline to update
      * @param events the events to apply
      */
-    private static void process(Pipeline pipeline, List<PipelineEvent> events) {
+    static void process(Pipeline pipeline, List<PipelineEvent> events) {
         for (PipelineEvent event : events) {
             PipelineEventType eventType = event.eventType();
             if (pipeline.status.state == State.FINISHED && eventType != PipelineEventType.PIPELINE_COMPLETED) {
@@ -109,6 +171,7 @@ public final class EventProcessor {
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.log(Level.FINE, "Applying event: {0}", event);
             }
+            pipeline.revision++;
             switch (eventType) {
                 case ARTIFACTS_INFO:
                     processArtifactsInfoEvent(pipeline, (ArtifactsInfoEvent) event);
@@ -163,11 +226,15 @@ public final class EventProcessor {
     }
 
     private static void processArtifactsInfoEvent(Pipeline pipeline, ArtifactsInfoEvent event) {
-        getSteps(pipeline, event.stepsId()).artifacts = event.count();
+        Steps steps = getSteps(pipeline, event.stepsId());
+        steps.artifacts = event.count();
+        steps.revision = pipeline.revision;
     }
 
     private static void processTestsEvent(Pipeline pipeline, TestsInfoEvent event) {
-        getSteps(pipeline, event.stepsId()).tests = event.info();
+        Steps steps = getSteps(pipeline, event.stepsId());
+        steps.tests = event.info();
+        steps.revision = pipeline.revision;
     }
 
     private static void processPipelineCompletedEvent(Pipeline pipeline, PipelineCompletedEvent event) {
@@ -175,7 +242,7 @@ public final class EventProcessor {
             pipeline.status.state = State.FINISHED;
             pipeline.status.result = event.result();
             pipeline.timings.duration(event.duration());
-            pipeline.visit(new CompletedVisitor());
+            pipeline.visit(new CompletedVisitor(null, pipeline.revision));
         }
     }
 
@@ -195,7 +262,7 @@ public final class EventProcessor {
             } else {
                 error = null;
             }
-            pipeline.visit(new CompletedVisitor(error));
+            pipeline.visit(new CompletedVisitor(error, pipeline.revision));
         }
     }
 
@@ -204,6 +271,7 @@ public final class EventProcessor {
         node.status.state = State.FINISHED;
         node.status.result = event.result();
         node.timings.duration(event.duration());
+        node.revision = pipeline.revision;
     }
 
     private static void processStepCreatedEvent(Pipeline pipeline, StepCreatedEvent event) {
@@ -211,8 +279,10 @@ public final class EventProcessor {
         if (event.index() != steps.children.size()) {
             throw new IllegalStateException("Invalid index");
         }
-        steps.addStep(new Step(event.id(), steps, event.name(), event.args(), false, true, new Status(),
-            new Timings(event.startTime())));
+        Step step = new Step(event.id(), steps, event.name(), event.args(), false, true, new Status(),
+            new Timings(event.startTime()));
+        step.revision = pipeline.revision;
+        steps.addStep(step);
     }
 
     private static void processStageCreatedEvent(Pipeline pipeline, StageCreatedEvent event) {
@@ -220,19 +290,23 @@ public final class EventProcessor {
         if (event.index() != stages.children.size()) {
             throw new IllegalStateException("Invalid index");
         }
+        Stage stage;
         switch (event.stageType()) {
             case "PARALLEL":
-                stages.addStage(new Parallel(stages, event.id(), event.name(), new Status(), new Timings(event.startTime())));
+                stage = new Parallel(stages, event.id(), event.name(), new Status(), new Timings(event.startTime()));
                 break;
             case "SEQUENCE":
-                stages.addStage(new Sequence(stages, event.id(), event.name(), new Status(), new Timings(event.startTime())));
+                stage = new Sequence(stages, event.id(), event.name(), new Status(), new Timings(event.startTime()));
                 break;
             case "STEPS":
-                stages.addStage(new Steps(stages, event.id(), new Status(), new Timings(event.startTime())));
+                stage = new Steps(stages, event.id(), new Status(), new Timings(event.startTime()));
                 break;
             default:
                 LOGGER.log(Level.WARNING, "Unprocessed stage created event: {0}", event);
+                return;
         }
+        stage.revision = pipeline.revision;
+        stages.addStage(stage);
     }
 
     /**
@@ -241,16 +315,14 @@ public final class EventProcessor {
     private static final class CompletedVisitor implements PipelineVisitor {
 
         final String error;
+        final long revision;
         boolean foundUnstable;
         boolean foundFailure;
         Result result;
 
-        CompletedVisitor() {
-            this.error = null;
-        }
-
-        CompletedVisitor(String error) {
+        CompletedVisitor(String error, long revision) {
             this.error = error;
+            this.revision = revision;
         }
 
         @Override
@@ -281,10 +353,12 @@ public final class EventProcessor {
                     LOGGER.log(Level.FINE, "Removing empty steps, steps={0}", steps);
                 }
                 ((Stages)steps.parent).children.remove(steps.index());
+                steps.parent.revision = revision;
             } else {
                 ensureCompleted(steps);
                 if (Status.Result.UNSTABLE == result && steps.tests != null && steps.tests.failed > 0) {
                     steps.status.result = Result.UNSTABLE;
+                    steps.revision = revision;
                     foundUnstable = true;
                 }
             }
@@ -297,6 +371,7 @@ public final class EventProcessor {
                     LOGGER.log(Level.FINE, "Removing empty stages, steps={0}", stages);
                 }
                 ((Stages)stages.parent).children.remove(stages.index());
+                stages.parent.revision = revision;
             } else {
                 ensureCompleted(stages);
             }
@@ -331,6 +406,7 @@ public final class EventProcessor {
                     LOGGER.log(Level.FINE, "Forcing completion, node={0}", node);
                 }
                 node.fireCompleted();
+                node.revision = revision;
                 if (result == Result.ABORTED) {
                     // pipeline is aborted, always set the node result to aborted
                     node.status.result = Result.ABORTED;
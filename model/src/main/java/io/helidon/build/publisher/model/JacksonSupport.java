@@ -1,9 +1,12 @@
 package io.helidon.build.publisher.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.LinkedList;
+import java.util.List;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
@@ -14,13 +17,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
 /**
  * Jackson support.
  */
 public final class JacksonSupport {
 
+    /**
+     * Media type of the Smile binary encoding.
+     */
+    public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
 
     /**
      * Serializer for {@link Pipeline}.
@@ -168,6 +179,61 @@ public final class JacksonSupport {
         MAPPER.writerWithDefaultPrettyPrinter().writeValue(os, json);
     }
 
+    /**
+     * Write a JSON object without any whitespace.
+     * @param json object to write
+     * @param os output stream
+     * @throws IOException if an IO error occurs
+     */
+    public static void writeCompact(OutputStream os, Object json) throws IOException {
+        MAPPER.writeValue(os, json);
+    }
+
+    /**
+     * Write an object with the Smile binary encoding.
+     * @param json object to write
+     * @param os output stream
+     * @throws IOException if an IO error occurs
+     */
+    public static void writeSmile(OutputStream os, Object json) throws IOException {
+        SMILE_MAPPER.writeValue(os, json);
+    }
+
+    /**
+     * Write the changes applied to a pipeline after the given revision without any whitespace.
+     * The nodes stamped with a greater revision are written as a flat list, the nested nodes of a changed node and the
+     * top level nodes of the pipeline are written as lists of ids.
+     * @param os output stream
+     * @param pipeline pipeline
+     * @param since the revision known by the client
+     * @throws IOException if an IO error occurs
+     */
+    public static void writeChanges(OutputStream os, Pipeline pipeline, long since) throws IOException {
+        List<Node> nodes = new LinkedList<>();
+        if (pipeline.revision > since) {
+            pipeline.visit(new ChangesVisitor(since, nodes));
+        }
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(os)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", pipeline.info.id);
+            generator.writeNumberField("revision", pipeline.revision);
+            generator.writeStringField("status", pipeline.status());
+            generator.writeNumberField("duration", pipeline.duration());
+            generator.writeStringField("error", pipeline.error);
+            generator.writeArrayFieldStart("items");
+            for (Stage stage : pipeline.children) {
+                generator.writeString(stage.id);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("nodes");
+            for (Node node : nodes) {
+                writeChangedNode(node, generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
     /**
      * Read a JSON object.
      * @param <T> object type
@@ -180,6 +246,68 @@ public final class JacksonSupport {
         return MAPPER.readValue(is, type);
     }
 
+    /**
+     * Write a JSON object on a single line.
+     * @param json object to write
+     * @return the UTF-8 encoded JSON terminated by a new line
+     * @throws IOException if an IO error occurs
+     */
+    static byte[] writeLine(Object json) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MAPPER.writeValue(baos, json);
+        baos.write('\n');
+        return baos.toByteArray();
+    }
+
+    /**
+     * Read a JSON tree.
+     * @param data UTF-8 encoded JSON
+     * @param offset offset of the JSON in data
+     * @param len length of the JSON
+     * @return JsonNode
+     * @throws IOException if an IO error occurs
+     */
+    static JsonNode readTree(byte[] data, int offset, int len) throws IOException {
+        return MAPPER.readTree(new ByteArrayInputStream(data, offset, len));
+    }
+
+    /**
+     * Convert a JSON tree to an object.
+     * @param <T> object type
+     * @param node JSON tree
+     * @param type type
+     * @return T
+     * @throws IOException if an IO error occurs
+     */
+    static <T> T read(JsonNode node, Class<T> type) throws IOException {
+        return MAPPER.treeToValue(node, type);
+    }
+
+    /**
+     * Create a non-blocking parser.
+     * The input is fed with the parser's {@link com.fasterxml.jackson.core.async.ByteArrayFeeder}.
+     * @param smile {@code true} if the input uses the Smile binary encoding, {@code false} if the input is JSON
+     * @return JsonParser
+     * @throws IOException if an IO error occurs
+     */
+    static JsonParser createNonBlockingParser(boolean smile) throws IOException {
+        return (smile ? SMILE_MAPPER : MAPPER).getFactory().createNonBlockingByteArrayParser();
+    }
+
+    /**
+     * Read an object from a token buffer.
+     * @param <T> object type
+     * @param buffer token buffer
+     * @param type type
+     * @return T
+     * @throws IOException if an IO error occurs
+     */
+    static <T> T read(TokenBuffer buffer, Class<T> type) throws IOException {
+        try (JsonParser parser = buffer.asParser(MAPPER)) {
+            return MAPPER.readValue(parser, type);
+        }
+    }
+
     /**
      * Missing field exception thrown when a field is missing while read a JSON tree.
      */
@@ -286,6 +414,7 @@ public final class JacksonSupport {
         PipelineInfo info = readPipelineInfo(node);
         Pipeline pipeline = new Pipeline(info);
         pipeline.error = optionalTextField(node, "error");
+        pipeline.revision = readRevision(node);
 
         // depth first traversal
         LinkedList<JsonNode> stack = new LinkedList<>();
@@ -355,6 +484,8 @@ public final class JacksonSupport {
         writePipelineInfo(pipeline.info, generator);
         generator.writeFieldName("error");
         generator.writeString(pipeline.error);
+        generator.writeFieldName("revision");
+        generator.writeNumber(pipeline.revision);
         generator.writeFieldName("items");
         generator.writeStartArray();
         for (Stage child : pipeline.children) {
@@ -364,13 +495,51 @@ public final class JacksonSupport {
         generator.writeEndObject();
     }
 
+    private static void writeChangedNode(Node node, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", node.id);
+        generator.writeStringField("parent", node.parent.id);
+        generator.writeNumberField("index", node.index());
+        generator.writeStringField("type", node.type());
+        generator.writeStringField("name", node.name());
+        if (node instanceof Step) {
+            generator.writeStringField("args", ((Step) node).args);
+        }
+        generator.writeStringField("status", node.status());
+        generator.writeStringField("date", node.date());
+        generator.writeNumberField("duration", node.duration());
+        if (node instanceof Steps) {
+            Steps steps = (Steps) node;
+            generator.writeNumberField("artifacts", steps.artifacts);
+            generator.writeObjectField("tests", steps.tests);
+        }
+        generator.writeNumberField("revision", node.revision);
+        if (node instanceof Steps) {
+            generator.writeArrayFieldStart("children");
+            for (Step step : ((Steps) node).children) {
+                generator.writeString(step.id);
+            }
+            generator.writeEndArray();
+        } else if (node instanceof Stages) {
+            generator.writeArrayFieldStart("children");
+            for (Stage stage : ((Stages) node).children) {
+                generator.writeString(stage.id);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
     private static Step readStep(JsonNode node, Steps parent) throws MissingFieldException {
-        return new Step(requiredTextField(node, "id"), parent, requiredTextField(node, "name"), requiredTextField(node, "args"),
-                /* meta */ false, /* declared */ true, readStatus(node), readTimings(node));
+        Step step = new Step(requiredTextField(node, "id"), parent, requiredTextField(node, "name"),
+                requiredTextField(node, "args"), /* meta */ false, /* declared */ true, readStatus(node), readTimings(node));
+        step.revision = readRevision(node);
+        return step;
     }
 
     private static Steps readSteps(JsonNode node, String id, Stages parent) throws MissingFieldException {
         Steps steps = new Steps(parent, id, readStatus(node), readTimings(node));
+        steps.revision = readRevision(node);
         steps.artifacts = requiredIntField(node, "artifacts");
         if (node.hasNonNull("tests")) {
             steps.tests = readTestsInfo(node.get("tests"));
@@ -386,12 +555,14 @@ public final class JacksonSupport {
 
     private static Sequence readSequence(JsonNode node, String id, Stages parent) throws MissingFieldException {
         Sequence sequence = new Sequence(parent, id, requiredTextField(node, "name"), readStatus(node), readTimings(node));
+        sequence.revision = readRevision(node);
         parent.addStage(sequence);
         return sequence;
     }
 
     private static Parallel readParallel(JsonNode node, String id, Stages parent) throws MissingFieldException {
         Parallel parallel = new Parallel(parent, id, requiredTextField(node, "name"), readStatus(node), readTimings(node));
+        parallel.revision = readRevision(node);
         parent.addStage(parallel);
         return parallel;
     }
@@ -400,7 +571,66 @@ public final class JacksonSupport {
         return Status.valueOf(requiredTextField(node, "status"));
     }
 
+    private static long readRevision(JsonNode node) {
+        // descriptors written before the revisions were introduced do not have a revision
+        if (node.hasNonNull("revision")) {
+            return node.get("revision").asLong();
+        }
+        return 0;
+    }
+
     private static Timings readTimings(JsonNode node) throws MissingFieldException {
         return new Timings(requiredTextField(node, "date"), requiredLongField(node, "duration"));
     }
+
+    /**
+     * Visitor that collects the nodes changed after a given revision.
+     */
+    private static final class ChangesVisitor implements PipelineVisitor {
+
+        private final long since;
+        private final List<Node> nodes;
+
+        ChangesVisitor(long since, List<Node> nodes) {
+            this.since = since;
+            this.nodes = nodes;
+        }
+
+        @Override
+        public void visitStart(Pipeline pipeline) {
+        }
+
+        @Override
+        public void visitStagesStart(Stages stages, int depth) {
+            collect(stages);
+        }
+
+        @Override
+        public void visitStepsStart(Steps steps, int depth) {
+            collect(steps);
+        }
+
+        @Override
+        public void visitStep(Step step, int depth) {
+            collect(step);
+        }
+
+        @Override
+        public void visitStepsEnd(Steps steps, int depth) {
+        }
+
+        @Override
+        public void visitStagesEnd(Stages stages, int depth) {
+        }
+
+        @Override
+        public void visitEnd(Pipeline pipeline) {
+        }
+
+        private void collect(Node node) {
+            if (node.revision > since) {
+                nodes.add(node);
+            }
+        }
+    }
 }
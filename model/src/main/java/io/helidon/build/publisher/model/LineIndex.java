@@ -0,0 +1,105 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Line index of a step log.
+ * The index of {@code step-N.log} is stored in {@code step-N.log.lines}, one big-endian long per {@link #STRIDE}
+ * lines: the entry {@code i} is the offset of the first byte of the line {@code (i + 1) * STRIDE}, i.e. the offset
+ * that follows the newline that ends the line {@code (i + 1) * STRIDE - 1}. The offsets are uncompressed offsets
+ * for the {@link BlockLog block compressed logs}.
+ * <p>
+ * The entries are appended after the data they refer to, a reader ignores the entries beyond the length of the log it
+ * sees. The index is only maintained for the logs created with it.
+ */
+public final class LineIndex {
+
+    /**
+     * Number of lines between two entries.
+     */
+    public static final int STRIDE = 1000;
+
+    static final int ENTRY_SIZE = 8;
+
+    private final long[] offsets;
+
+    private LineIndex(long[] offsets) {
+        this.offsets = offsets;
+    }
+
+    /**
+     * Get the path of the index file.
+     * @param log the log path
+     * @return Path
+     */
+    public static Path path(Path log) {
+        return log.resolveSibling(log.getFileName() + ".lines");
+    }
+
+    /**
+     * Load the index of a log.
+     * @param log the log path
+     * @param length the length of the log
+     * @return LineIndex or {@code null} if the log does not have an index
+     * @throws IOException if an IO error occurs
+     */
+    public static LineIndex load(Path log, long length) throws IOException {
+        Path indexPath = path(log);
+        if (!Files.exists(indexPath)) {
+            return null;
+        }
+        ByteBuffer entries;
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            entries = ByteBuffer.allocate((int) (channel.size() / ENTRY_SIZE * ENTRY_SIZE));
+            while (entries.hasRemaining()) {
+                if (channel.read(entries, entries.position()) < 0) {
+                    break;
+                }
+            }
+        }
+        int nentries = entries.position() / ENTRY_SIZE;
+        long[] offsets = new long[nentries];
+        int count = 0;
+        while (count < nentries) {
+            long offset = entries.getLong(count * ENTRY_SIZE);
+            if (offset > length) {
+                break;
+            }
+            offsets[count++] = offset;
+        }
+        return new LineIndex(Arrays.copyOf(offsets, count));
+    }
+
+    /**
+     * Get the number of entries.
+     * @return number of entries
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Find the last entry at or before a position.
+     * @param position the position
+     * @return the entry number, {@code 0} if the position is before the first entry
+     */
+    public int floor(long position) {
+        int i = Arrays.binarySearch(offsets, position);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    /**
+     * Get the offset of an entry, i.e. the offset of the line {@code entry * STRIDE}.
+     * @param entry the entry number, between {@code 0} and {@link #size()}
+     * @return offset
+     */
+    public long offset(int entry) {
+        return entry == 0 ? 0 : offsets[entry - 1];
+    }
+}
@@ -0,0 +1,182 @@
+package io.helidon.build.publisher.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static io.helidon.build.publisher.model.LineIndex.ENTRY_SIZE;
+import static io.helidon.build.publisher.model.LineIndex.STRIDE;
+
+/**
+ * Writer of {@link LineIndex line indexes}.
+ * The data is scanned with {@link #update(ByteBuffer, long)} before it is appended to the log, the resulting entries
+ * are written with {@link #flush()} once the data is written. Instances are not thread safe and an index must have a
+ * single writer at a time.
+ * <p>
+ * A writer is meant to be kept open across appends: the number of lines since the last entry is only kept in memory,
+ * opening a writer re-creates it by scanning the end of the log, which inflates blocks for a block compressed log.
+ */
+public final class LineIndexWriter implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(LineIndexWriter.class.getName());
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private ByteBuffer entries;
+    private long end;
+    private int count;
+
+    private LineIndexWriter(FileChannel channel, long end) {
+        this.channel = channel;
+        this.entries = ByteBuffer.allocate(ENTRY_SIZE);
+        this.end = end;
+    }
+
+    /**
+     * Open the index writer of a log.
+     * The index is created if the log is empty, the remaining lines of the log after the last entry are scanned
+     * otherwise.
+     * @param log the log path
+     * @param length the current length of the log
+     * @return LineIndexWriter or {@code null} if the log was created without index
+     * @throws IOException if an IO error occurs
+     */
+    public static LineIndexWriter open(Path log, long length) throws IOException {
+        Path indexPath = LineIndex.path(log);
+        boolean exists = Files.exists(indexPath);
+        if (!exists && length > 0) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long nentries = channel.size() / ENTRY_SIZE;
+            long offset = 0;
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+            // drop the entries beyond the log, e.g. if the last data write failed
+            while (nentries > 0) {
+                entry.clear();
+                readFully(channel, entry, (nentries - 1) * ENTRY_SIZE);
+                offset = entry.getLong(0);
+                if (offset <= length) {
+                    break;
+                }
+                nentries--;
+                offset = 0;
+            }
+            if (channel.size() != nentries * ENTRY_SIZE) {
+                LOGGER.log(Level.WARNING, "Recovering line index, log={0}, validEntries={1}", new Object[]{
+                    log,
+                    nentries
+                });
+                channel.truncate(nentries * ENTRY_SIZE);
+            }
+            LineIndexWriter writer = new LineIndexWriter(channel, nentries * ENTRY_SIZE);
+            // re-create the missing entries, if any
+            writer.scan(log, offset, length);
+            writer.flush();
+            return writer;
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Scan data about to be appended to the log.
+     * @param data the data, not consumed
+     * @param position the position of the data in the log
+     */
+    public void update(ByteBuffer data, long position) {
+        int pos = data.position();
+        int limit = data.limit();
+        for (int i = pos; i < limit; i++) {
+            if (data.get(i) == '\n' && ++count == STRIDE) {
+                count = 0;
+                if (!entries.hasRemaining()) {
+                    ByteBuffer buffer = ByteBuffer.allocate(entries.capacity() * 2);
+                    entries.flip();
+                    buffer.put(entries);
+                    entries = buffer;
+                }
+                entries.putLong(position + i - pos + 1);
+            }
+        }
+    }
+
+    /**
+     * Write the entries of the data scanned so far.
+     * @throws IOException if an IO error occurs
+     */
+    public void flush() throws IOException {
+        if (entries.position() == 0) {
+            return;
+        }
+        entries.flip();
+        while (entries.hasRemaining()) {
+            end += channel.write(entries, end);
+        }
+        entries.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void scan(Path log, long position, long length) throws IOException {
+        if (position == length) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        if (!Files.exists(log) && BlockLog.exists(log)) {
+            try (BlockLogReader reader = new BlockLogReader(log)) {
+                while (position < length) {
+                    buffer.clear();
+                    if (buffer.remaining() > length - position) {
+                        buffer.limit((int) (length - position));
+                    }
+                    int n = reader.read(position, buffer);
+                    if (n < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    update(buffer, position);
+                    position += n;
+                }
+            }
+        } else {
+            try (FileChannel file = FileChannel.open(log, StandardOpenOption.READ)) {
+                while (position < length) {
+                    buffer.clear();
+                    if (buffer.remaining() > length - position) {
+                        buffer.limit((int) (length - position));
+                    }
+                    int n = file.read(buffer, position);
+                    if (n < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    update(buffer, position);
+                    position += n;
+                }
+            }
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += n;
+        }
+    }
+}
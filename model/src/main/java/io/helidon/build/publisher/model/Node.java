@@ -26,6 +26,7 @@ public abstract class Node {
     final Status status;
     final Timings timings;
     final LinkedList<PipelineEventListener> listeners;
+    long revision;
 
     /**
      * Create a new non parented node.
@@ -191,6 +192,26 @@ public abstract class Node {
         return status.toString();
     }
 
+    /**
+     * Get the revision of the last change applied to this node.
+     * The revision of the pipeline is the revision of the last change applied to any node.
+     *
+     * @return long
+     */
+    @JsonProperty
+    public final long revision() {
+        return revision;
+    }
+
+    /**
+     * Get the state.
+     *
+     * @return State
+     */
+    public final Status.State state() {
+        return status.state;
+    }
+
     /**
      * Fire a created event.
      */
@@ -0,0 +1,180 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.PipelineEvents;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Push parser for {@link PipelineEvents}, encoded in JSON or with the Smile binary encoding.
+ * The input is fed one buffer at a time, each event of the {@code events} array is passed to the consumer as soon
+ * as it is parsed. Only the tokens of the current event are buffered. Instances are not thread safe.
+ */
+public final class PipelineEventsParser {
+
+    private enum State {
+        ROOT,
+        FIELDS,
+        SKIP,
+        EVENTS_START,
+        EVENTS,
+        EVENT,
+        DONE
+    }
+
+    private final Consumer<PipelineEvent> consumer;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private byte[] input;
+    private TokenBuffer buffer;
+    private State state;
+    private int depth;
+
+    /**
+     * Create a new JSON parser.
+     * @param consumer consumer of the parsed events
+     * @throws IOException if an error occurs while creating the parser
+     */
+    public PipelineEventsParser(Consumer<PipelineEvent> consumer) throws IOException {
+        this(consumer, false);
+    }
+
+    /**
+     * Create a new parser.
+     * @param consumer consumer of the parsed events
+     * @param smile {@code true} if the input uses the Smile binary encoding, {@code false} if the input is JSON
+     * @throws IOException if an error occurs while creating the parser
+     */
+    public PipelineEventsParser(Consumer<PipelineEvent> consumer, boolean smile) throws IOException {
+        this.consumer = Objects.requireNonNull(consumer, "consumer is null");
+        this.parser = JacksonSupport.createNonBlockingParser(smile);
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.state = State.ROOT;
+    }
+
+    /**
+     * Parse a buffer.
+     * The buffer is fully consumed.
+     * @param data the data to parse
+     * @throws IOException if the data is not valid
+     */
+    public void parse(ByteBuffer data) throws IOException {
+        int len = data.remaining();
+        if (len == 0) {
+            return;
+        }
+        if (data.hasArray()) {
+            int offset = data.arrayOffset() + data.position();
+            feeder.feedInput(data.array(), offset, offset + len);
+        } else {
+            // direct buffer, the feeder only accepts arrays
+            if (input == null || input.length < len) {
+                input = new byte[Math.max(len, 8192)];
+            }
+            data.duplicate().get(input, 0, len);
+            feeder.feedInput(input, 0, len);
+        }
+        data.position(data.position() + len);
+        parse();
+    }
+
+    /**
+     * Signal the end of the input.
+     * @throws IOException if the input is incomplete
+     */
+    public void end() throws IOException {
+        feeder.endOfInput();
+        parse();
+        if (state != State.DONE) {
+            throw new JsonParseException(parser, "Unexpected end of input");
+        }
+        parser.close();
+    }
+
+    private void parse() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (state) {
+                case ROOT:
+                    expect(token, JsonToken.START_OBJECT);
+                    state = State.FIELDS;
+                    break;
+                case FIELDS:
+                    if (token == JsonToken.END_OBJECT) {
+                        state = State.DONE;
+                    } else {
+                        expect(token, JsonToken.FIELD_NAME);
+                        if ("events".equals(parser.getCurrentName())) {
+                            state = State.EVENTS_START;
+                        } else {
+                            depth = 0;
+                            state = State.SKIP;
+                        }
+                    }
+                    break;
+                case SKIP:
+                    // value of an unknown field
+                    depth += depth(token);
+                    if (depth == 0) {
+                        state = State.FIELDS;
+                    }
+                    break;
+                case EVENTS_START:
+                    expect(token, JsonToken.START_ARRAY);
+                    state = State.EVENTS;
+                    break;
+                case EVENTS:
+                    if (token == JsonToken.END_ARRAY) {
+                        state = State.FIELDS;
+                    } else {
+                        expect(token, JsonToken.START_OBJECT);
+                        buffer = new TokenBuffer(parser);
+                        buffer.copyCurrentEvent(parser);
+                        depth = 1;
+                        state = State.EVENT;
+                    }
+                    break;
+                case EVENT:
+                    buffer.copyCurrentEvent(parser);
+                    depth += depth(token);
+                    if (depth == 0) {
+                        PipelineEvent event = JacksonSupport.read(buffer, PipelineEvent.class);
+                        buffer = null;
+                        state = State.EVENTS;
+                        consumer.accept(event);
+                    }
+                    break;
+                default:
+                    throw new JsonParseException(parser, "Unexpected token after the end of the document: " + token);
+            }
+        }
+    }
+
+    private void expect(JsonToken token, JsonToken expected) throws JsonParseException {
+        if (token != expected) {
+            throw new JsonParseException(parser, "Unexpected token: " + token + ", expected: " + expected);
+        }
+    }
+
+    private static int depth(JsonToken token) {
+        switch (token) {
+            case START_OBJECT:
+            case START_ARRAY:
+                return 1;
+            case END_OBJECT:
+            case END_ARRAY:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.PipelineEventListener;
+import io.helidon.build.publisher.model.events.PipelineEventType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Chronological index of the pipelines.
+ * The index is an append-only file in the storage directory with one JSON line per pipeline created, completed or
+ * error event. The writer side is an event listener, the reader side loads the new lines incrementally and keeps the
+ * pipeline infos in memory in creation order.
+ * <p>
+ * A rebuilt index starts with a header line that holds a random generation id. The reader remembers the first line
+ * of the file and reloads the index when it changes, a rebuilt index is thus detected regardless of its size.
+ */
+public final class PipelineIndex implements PipelineEventListener {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineIndex.class.getName());
+    private static final String INDEX_FNAME = "pipelines.idx";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String GENERATION_FIELD = "generation";
+
+    private final Path storage;
+    private final Path indexPath;
+    private final List<PipelineInfo> infos;
+    private final Map<String, PipelineInfo> infosByIds;
+    private byte[] firstLine;
+    private long position;
+
+    /**
+     * Create a new pipeline index.
+     * @param storage storage path
+     * @throws NullPointerException if storage is {@code null}
+     */
+    public PipelineIndex(Path storage) {
+        this.storage = Objects.requireNonNull(storage, "storage is null");
+        this.indexPath = storage.resolve(INDEX_FNAME);
+        this.infos = new ArrayList<>();
+        this.infosByIds = new HashMap<>();
+    }
+
+    /**
+     * Test if the index file exists.
+     * @return {@code true} if the index file exists, {@code false} otherwise
+     */
+    public boolean exists() {
+        return Files.exists(indexPath);
+    }
+
+    /**
+     * Re-create the index file from the pipeline descriptors in the storage directory.
+     * The pipelines are ordered by start time.
+     */
+    public synchronized void rebuild() {
+        LOGGER.log(Level.INFO, "Rebuilding pipeline index: {0}", indexPath);
+        DescriptorFileManager fileManager = new DescriptorFileManager(storage);
+        try {
+            List<PipelineInfo> allInfos;
+            try (Stream<Path> dirs = Files.list(storage)) {
+                allInfos = dirs.filter(Files::isDirectory)
+                        .map(fileManager::loadInfoFromDir)
+                        .filter((info) -> info != null)
+                        .sorted(Comparator.comparingLong((info) -> info.timings.startTime))
+                        .collect(Collectors.toList());
+            }
+            Path tmpPath = indexPath.resolveSibling(INDEX_FNAME + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(JacksonSupport.writeLine(
+                        Collections.singletonMap(GENERATION_FIELD, UUID.randomUUID().toString()))));
+                for (PipelineInfo info : allInfos) {
+                    channel.write(ByteBuffer.wrap(JacksonSupport.writeLine(new PipelineCreatedEvent(info))));
+                }
+            }
+            Files.move(tmpPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.log(Level.INFO, "Pipeline index rebuilt, size={0}", allInfos.size());
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Append the pipeline created, pipeline completed and pipeline error events to the index file.
+     * @param event event
+     */
+    @Override
+    public synchronized void onEvent(PipelineEvent event) {
+        PipelineEventType eventType = event.eventType();
+        if (eventType != PipelineEventType.PIPELINE_CREATED
+                && eventType != PipelineEventType.PIPELINE_COMPLETED
+                && eventType != PipelineEventType.PIPELINE_ERROR) {
+            return;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Adding index entry: {0}", event);
+        }
+        try {
+            Files.write(indexPath, JacksonSupport.writeLine(event), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Get a page of pipelines, most recent first.
+     * The lines appended to the index file since the last invocation are loaded first.
+     * @param pagenum page number, starting at {@code 1}
+     * @param numitems number of items per page
+     * @return PipelineInfos
+     * @throws IllegalArgumentException if pagenum or numitems is not a positive value
+     */
+    public synchronized PipelineInfos list(int pagenum, int numitems) {
+        if (pagenum <= 0 || numitems <= 0) {
+            throw new IllegalArgumentException("Invalid page, pagenum=" + pagenum + ", numitems=" + numitems);
+        }
+        refresh();
+        int totalsize = infos.size();
+        int totalpages = totalsize / numitems;
+        if (totalsize % numitems > 0) {
+            totalpages++;
+        }
+        List<PipelineInfo> items = new ArrayList<>();
+        long start = (long) totalsize - 1 - (long) (pagenum - 1) * numitems;
+        for (long i = start; i >= 0 && i > start - numitems; i--) {
+            items.add(infos.get((int) i));
+        }
+        return new PipelineInfos(items, pagenum, totalpages);
+    }
+
+    /**
+     * Read the pipelines in creation order.
+     * The lines appended to the index file since the last invocation are loaded first. The index is locked while the
+     * reader is invoked, the infos are only modified by the refresh and must not be modified by the reader.
+     * The reader can maintain derived data incrementally: the infos are only appended to the list, and the list is
+     * re-populated with new info instances when the index file is rebuilt.
+     * @param <T> result type
+     * @param reader function invoked with the list of pipeline infos
+     * @return the result of the reader
+     */
+    public synchronized <T> T read(Function<List<PipelineInfo>, T> reader) {
+        refresh();
+        return reader.apply(Collections.unmodifiableList(infos));
+    }
+
+    /**
+     * Load the complete lines appended to the index file since the last refresh.
+     */
+    private void refresh() {
+        if (!Files.exists(indexPath)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < position || (position > 0 && !isFirstLine(channel))) {
+                // the index was rebuilt
+                infos.clear();
+                infosByIds.clear();
+                firstLine = null;
+                position = 0;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            byte[] line = new byte[256];
+            int lineLen = 0;
+            long offset = position;
+            while (offset < size) {
+                buffer.clear();
+                int nbytes = channel.read(buffer, offset);
+                if (nbytes <= 0) {
+                    break;
+                }
+                offset += nbytes;
+                byte[] data = buffer.array();
+                for (int i = 0; i < nbytes; i++) {
+                    if (data[i] == '\n') {
+                        if (position == 0) {
+                            firstLine = Arrays.copyOf(line, lineLen);
+                        }
+                        addEntry(line, lineLen);
+                        position += lineLen + 1;
+                        lineLen = 0;
+                    } else {
+                        if (lineLen == line.length) {
+                            byte[] newLine = new byte[line.length * 2];
+                            System.arraycopy(line, 0, newLine, 0, lineLen);
+                            line = newLine;
+                        }
+                        line[lineLen++] = data[i];
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Test if the index file starts with the first line previously loaded.
+     * @param channel index file channel
+     * @return {@code true} if the first line is unchanged
+     * @throws IOException if an IO error occurs
+     */
+    private boolean isFirstLine(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(firstLine.length + 1);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) <= 0) {
+                return false;
+            }
+        }
+        byte[] data = buffer.array();
+        return data[firstLine.length] == '\n' && Arrays.equals(firstLine, Arrays.copyOf(data, firstLine.length));
+    }
+
+    private void addEntry(byte[] line, int len) {
+        PipelineEvent event;
+        try {
+            JsonNode node = JacksonSupport.readTree(line, 0, len);
+            if (node.has(GENERATION_FIELD)) {
+                // header of a rebuilt index
+                return;
+            }
+            event = JacksonSupport.read(node, PipelineEvent.class);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Invalid index entry, position={0}", position);
+            return;
+        }
+        switch (event.eventType()) {
+            case PIPELINE_CREATED:
+                PipelineInfo info = ((PipelineCreatedEvent) event).info();
+                if (infosByIds.putIfAbsent(info.id, info) == null) {
+                    infos.add(info);
+                }
+                break;
+            case PIPELINE_COMPLETED:
+                PipelineCompletedEvent completedEvent = (PipelineCompletedEvent) event;
+                PipelineInfo completedInfo = infosByIds.get(completedEvent.pipelineId());
+                if (completedInfo != null) {
+                    completedInfo.status.state = Status.State.FINISHED;
+                    completedInfo.status.result = completedEvent.result();
+                    completedInfo.timings.duration(completedEvent.duration());
+                }
+                break;
+            case PIPELINE_ERROR:
+                // the pipeline is aborted, see EventProcessor
+                PipelineInfo abortedInfo = infosByIds.get(event.pipelineId());
+                if (abortedInfo != null && abortedInfo.status.state != Status.State.FINISHED) {
+                    abortedInfo.status.state = Status.State.FINISHED;
+                    abortedInfo.status.result = Status.Result.ABORTED;
+                }
+                break;
+            default:
+        }
+    }
+}
@@ -222,6 +222,15 @@ public final class PipelineInfo {
         return timings.date;
     }
 
+    /**
+     * Get the start time.
+     *
+     * @return start time in milliseconds since the epoch
+     */
+    public long startTime() {
+        return timings.startTime;
+    }
+
     /**
      * Get the duration in seconds.
      *
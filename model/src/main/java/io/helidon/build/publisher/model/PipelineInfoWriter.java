@@ -0,0 +1,70 @@
+package io.helidon.build.publisher.model;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.PipelineEventListener;
+
+/**
+ * Event listener that maintains the pipeline info descriptors.
+ * The info descriptor is a small summary written next to the pipeline descriptor when the pipeline is created and when
+ * it completes or is aborted, it is read instead of the full pipeline descriptor when only the pipeline info is needed.
+ */
+public final class PipelineInfoWriter implements PipelineEventListener {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineInfoWriter.class.getName());
+
+    private final Path storage;
+    private final DescriptorFileManager fileManager;
+
+    /**
+     * Create a new pipeline info writer.
+     * @param storage storage path
+     * @throws NullPointerException if storage is {@code null}
+     */
+    public PipelineInfoWriter(Path storage) {
+        this.storage = Objects.requireNonNull(storage, "storage is null");
+        this.fileManager = new DescriptorFileManager(storage);
+    }
+
+    @Override
+    public void onEvent(PipelineEvent event) {
+        switch (event.eventType()) {
+            case PIPELINE_CREATED:
+                fileManager.saveInfo(((PipelineCreatedEvent) event).info());
+                break;
+            case PIPELINE_COMPLETED:
+                PipelineCompletedEvent completedEvent = (PipelineCompletedEvent) event;
+                PipelineInfo info = fileManager.loadInfoFromDir(storage.resolve(completedEvent.pipelineId()));
+                if (info == null) {
+                    return;
+                }
+                info.status.state = Status.State.FINISHED;
+                info.status.result = completedEvent.result();
+                info.timings.duration(completedEvent.duration());
+                fileManager.saveInfo(info);
+                break;
+            case PIPELINE_ERROR:
+                // the pipeline is aborted, see EventProcessor
+                PipelineInfo abortedInfo = fileManager.loadInfoFromDir(storage.resolve(event.pipelineId()));
+                if (abortedInfo == null || abortedInfo.status.state == Status.State.FINISHED) {
+                    return;
+                }
+                abortedInfo.status.state = Status.State.FINISHED;
+                abortedInfo.status.result = Status.Result.ABORTED;
+                abortedInfo.timings.endTime = System.currentTimeMillis();
+                fileManager.saveInfo(abortedInfo);
+                break;
+            default:
+                return;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Pipeline info descriptor updated, pipelineId={0}", event.pipelineId());
+        }
+    }
+}
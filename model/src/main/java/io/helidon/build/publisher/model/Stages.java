@@ -10,7 +10,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 /**
  * A stage node with nested stage nodes.
  */
-@JsonPropertyOrder({"id", "type", "name", "status", "date", "duration", "children"})
+@JsonPropertyOrder({"id", "type", "name", "status", "date", "duration", "revision", "children"})
 public abstract class Stages extends Stage {
 
     final LinkedList<Stage> children = new LinkedList<>();
@@ -16,7 +16,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 /**
  * A step node.
  */
-@JsonPropertyOrder({"id", "type", "name", "args", "state", "result", "startTime", "endTime"})
+@JsonPropertyOrder({"id", "type", "name", "args", "state", "result", "startTime", "endTime", "revision"})
 public final class Step extends Node {
 
     final String args;
@@ -12,7 +12,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 /**
  * A steps stage.
  */
-@JsonPropertyOrder({"id", "type", "name", "status", "date", "duration", "artifacts", "tests", "children"})
+@JsonPropertyOrder({"id", "type", "name", "status", "date", "duration", "artifacts", "tests", "revision", "children"})
 public final class Steps extends Stage {
 
     final List<Step> children = new LinkedList<>();
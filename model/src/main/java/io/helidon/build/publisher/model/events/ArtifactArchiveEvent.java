@@ -0,0 +1,103 @@
+package io.helidon.build.publisher.model.events;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link PipelineEventType#ARTIFACT_ARCHIVE} event.
+ */
+public final class ArtifactArchiveEvent extends PipelineEvent {
+
+    final File dir;
+    final List<String> filenames;
+    final String stepsId;
+
+    /**
+     * Create a new {@link PipelineEventType#ARTIFACT_ARCHIVE} event.
+     *
+     * @param pipelineId pipeline id
+     * @param stepsId the corresponding stepsId
+     * @param dir the artifacts directory
+     * @param filenames the artifact filenames relative to {@code dir}
+     */
+    public ArtifactArchiveEvent(String pipelineId, String stepsId, File dir, List<String> filenames) {
+        super(pipelineId);
+        this.stepsId = stepsId;
+        this.dir = dir;
+        this.filenames = Collections.unmodifiableList(filenames);
+    }
+
+    /**
+     * Get the steps id.
+     *
+     * @return String
+     */
+    public String stepsId() {
+        return stepsId;
+    }
+
+    /**
+     * Get the artifacts directory.
+     *
+     * @return File
+     */
+    public File dir() {
+        return dir;
+    }
+
+    /**
+     * Get the artifact filenames relative to the artifacts directory.
+     *
+     * @return {@code List<String>}
+     */
+    public List<String> filenames() {
+        return filenames;
+    }
+
+    @Override
+    public PipelineEventType eventType() {
+        return PipelineEventType.ARTIFACT_ARCHIVE;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 97 * hash + Objects.hashCode(this.dir);
+        hash = 97 * hash + Objects.hashCode(this.filenames);
+        hash = 97 * hash + Objects.hashCode(this.stepsId);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final ArtifactArchiveEvent other = (ArtifactArchiveEvent) obj;
+        if (!Objects.equals(this.stepsId, other.stepsId)) {
+            return false;
+        }
+        if (!Objects.equals(this.filenames, other.filenames)) {
+            return false;
+        }
+        return Objects.equals(this.dir, other.dir);
+    }
+
+    @Override
+    public String toString() {
+        return ArtifactArchiveEvent.class.getSimpleName() + "{"
+                + " pipelineId=" + pipelineId
+                + ", stepsId=" + stepsId
+                + ", dir=" + dir
+                + ", filenames=" + filenames.size()
+                + " }";
+    }
+}
@@ -20,7 +20,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
     @JsonSubTypes.Type(value = StageCompletedEvent.class, name = "STAGE_COMPLETED"),
     @JsonSubTypes.Type(value = StepOutputEvent.class, name = "STEP_OUTPUT"),
     @JsonSubTypes.Type(value = StepOutputDataEvent.class, name = "STEP_OUTPUT_DATA"),
-    @JsonSubTypes.Type(value = ArtifactDataEvent.class, name = "ARTIFACT_DATA"),
+    @JsonSubTypes.Type(value = ArtifactArchiveEvent.class, name = "ARTIFACT_ARCHIVE"),
     @JsonSubTypes.Type(value = ArtifactsInfoEvent.class, name = "ARTIFACTS_INFO"),
     @JsonSubTypes.Type(value = TestSuiteResultEvent.class, name = "TESTSUITE_RESULT"),
     @JsonSubTypes.Type(value = TestsInfoEvent.class, name = "TESTS_INFO"),
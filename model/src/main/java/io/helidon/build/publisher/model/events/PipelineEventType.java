@@ -36,9 +36,9 @@ public enum PipelineEventType {
     STEP_OUTPUT_DATA,
 
     /**
-     * Artifact file was archived.
+     * A set of artifact files was archived.
      */
-    ARTIFACT_DATA,
+    ARTIFACT_ARCHIVE,
 
     /**
      * Artifacts info for a steps stage.
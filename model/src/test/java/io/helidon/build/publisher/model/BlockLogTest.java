@@ -0,0 +1,123 @@
+package io.helidon.build.publisher.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link BlockLogWriter} and {@link BlockLogReader}.
+ */
+public class BlockLogTest {
+
+    @Test
+    public void testWriteRead() throws IOException {
+        byte[] content = createContent(5 * BlockLog.BLOCK_SIZE / 2);
+        Path log = Files.createTempDirectory("blocklog").resolve("step-1.log");
+        int offset = 0;
+        int chunkSize = 1;
+        while (offset < content.length) {
+            // re-open the writer for each append
+            try (BlockLogWriter writer = new BlockLogWriter(log)) {
+                int len = Math.min(chunkSize, content.length - offset);
+                writer.write(ByteBuffer.wrap(content, offset, len));
+                offset += len;
+                assertThat(writer.size(), is((long) offset));
+            }
+            chunkSize = chunkSize * 3 + 7;
+        }
+        // not finished, the last block is in the tail
+        assertThat(readAll(log), is(content));
+        try (BlockLogWriter writer = new BlockLogWriter(log)) {
+            writer.finish();
+        }
+        assertThat(readAll(log), is(content));
+        assertThat(Files.size(BlockLog.tailPath(log)), is(8L));
+        // the blocks are gzip members
+        try (InputStream is = new GZIPInputStream(Files.newInputStream(BlockLog.dataPath(log)))) {
+            assertThat(readFully(is), is(content));
+        }
+    }
+
+    @Test
+    public void testRandomRead() throws IOException {
+        byte[] content = createContent(3 * BlockLog.BLOCK_SIZE + 100);
+        Path log = Files.createTempDirectory("blocklog").resolve("step-1.log");
+        try (BlockLogWriter writer = new BlockLogWriter(log)) {
+            writer.write(ByteBuffer.wrap(content));
+        }
+        try (BlockLogReader reader = new BlockLogReader(log)) {
+            assertThat(reader.length(), is((long) content.length));
+            long[] positions = new long[]{content.length - 1, 0, BlockLog.BLOCK_SIZE, BlockLog.BLOCK_SIZE - 1, 12345};
+            for (long position : positions) {
+                ByteBuffer buffer = ByteBuffer.allocate(1);
+                assertThat(reader.read(position, buffer), is(1));
+                assertThat(buffer.get(0), is(content[(int) position]));
+            }
+            assertThat(reader.read(content.length, ByteBuffer.allocate(1)), is(-1));
+        }
+    }
+
+    @Test
+    public void testRecovery() throws IOException {
+        byte[] content = createContent(BlockLog.BLOCK_SIZE + 10);
+        Path log = Files.createTempDirectory("blocklog").resolve("step-1.log");
+        try (BlockLogWriter writer = new BlockLogWriter(log)) {
+            writer.write(ByteBuffer.wrap(content));
+        }
+        // interrupted block write: block and index entry written, tail not replaced
+        Files.write(BlockLog.dataPath(log), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        ByteBuffer entry = ByteBuffer.allocate(16);
+        entry.putLong(Files.size(BlockLog.dataPath(log))).putLong(content.length);
+        Files.write(BlockLog.indexPath(log), entry.array(), StandardOpenOption.APPEND);
+        assertThat(readAll(log), is(content));
+        try (BlockLogWriter writer = new BlockLogWriter(log)) {
+            writer.finish();
+        }
+        assertThat(readAll(log), is(content));
+        assertThat(Files.size(BlockLog.indexPath(log)), is(32L));
+    }
+
+    private static byte[] readAll(Path log) throws IOException {
+        try (BlockLogReader reader = new BlockLogReader(log)) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(1000);
+            long position = 0;
+            int n;
+            while ((n = reader.read(position, buffer)) >= 0) {
+                baos.write(buffer.array(), 0, n);
+                buffer.clear();
+                position += n;
+            }
+            return baos.toByteArray();
+        }
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) > 0) {
+            baos.write(buf, 0, n);
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] createContent(int size) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < size; i++) {
+            sb.append("[INFO] line ").append(i).append('\n');
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,144 @@
+package io.helidon.build.publisher.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedList;
+import java.util.List;
+
+import io.helidon.build.publisher.model.Status.Result;
+import io.helidon.build.publisher.model.Status.State;
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.StageCreatedEvent;
+import io.helidon.build.publisher.model.events.StepCompletedEvent;
+import io.helidon.build.publisher.model.events.StepCreatedEvent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link DescriptorJournalManager}.
+ */
+public class DescriptorJournalManagerTest {
+
+    @Test
+    public void testReplay() throws IOException {
+        Path storage = Files.createTempDirectory("journal");
+        PipelineInfo info = createInfo();
+        Pipeline pipeline = processAll(new DescriptorJournalManager(storage), info);
+
+        Path journalPath = storage.resolve(info.id).resolve("events.log");
+        assertThat(Files.exists(journalPath), is(true));
+        assertThat(Files.exists(storage.resolve(info.id).resolve("pipeline.json")), is(false));
+
+        Pipeline replayed = new DescriptorJournalManager(storage).loadPipeline(info.id);
+        assertThat(replayed, is(notNullValue()));
+        assertThat(toJson(replayed), is(toJson(pipeline)));
+    }
+
+    @Test
+    public void testIncompleteRecord() throws IOException {
+        Path storage = Files.createTempDirectory("journal");
+        PipelineInfo info = createInfo();
+        Pipeline pipeline = processAll(new DescriptorJournalManager(storage), info);
+
+        Path journalPath = storage.resolve(info.id).resolve("events.log");
+        long size = Files.size(journalPath);
+        Files.write(journalPath, "{\"events\":[{\"even".getBytes(), StandardOpenOption.APPEND);
+
+        Pipeline replayed = new DescriptorJournalManager(storage).loadPipeline(info.id);
+        assertThat(toJson(replayed), is(toJson(pipeline)));
+        assertThat(Files.size(journalPath), is(size));
+    }
+
+    @Test
+    public void testCompleted() throws IOException {
+        Path storage = Files.createTempDirectory("journal");
+        PipelineInfo info = createInfo();
+        DescriptorJournalManager manager = new DescriptorJournalManager(storage);
+        processAll(manager, info);
+
+        List<PipelineEvent> events = new LinkedList<>();
+        events.add(new PipelineCompletedEvent(info.id, Result.SUCCESS, 10));
+        new EventProcessor(manager, null).process(events);
+
+        assertThat(Files.exists(storage.resolve(info.id).resolve("events.log")), is(false));
+        Pipeline pipeline = new DescriptorJournalManager(storage).loadPipeline(info.id);
+        assertThat(pipeline, is(notNullValue()));
+        assertThat(pipeline.state(), is(State.FINISHED));
+        assertThat(pipeline.status(), is("SUCCESS"));
+    }
+
+    @Test
+    public void testExistingDescriptor() throws IOException {
+        Path storage = Files.createTempDirectory("journal");
+        PipelineInfo info = createInfo();
+        new DescriptorFileManager(storage).savePipeline(new Pipeline(info));
+        DescriptorJournalManager manager = new DescriptorJournalManager(storage);
+        EventProcessor processor = new EventProcessor(manager, null);
+
+        List<PipelineEvent> events = new LinkedList<>();
+        events.add(new StageCreatedEvent(info.id, "1", "0", 0, "build", now(), "SEQUENCE"));
+        processor.process(events);
+        // descriptor written back while the journal exists
+        manager.savePipeline(manager.loadPipeline(info.id));
+        events = new LinkedList<>();
+        events.add(new StageCreatedEvent(info.id, "2", "1", 0, null, now(), "STEPS"));
+        processor.process(events);
+
+        // each event is applied once
+        Pipeline pipeline = manager.loadPipeline(info.id);
+        Pipeline replayed = new DescriptorJournalManager(storage).loadPipeline(info.id);
+        assertThat(toJson(replayed), is(toJson(pipeline)));
+    }
+
+    private static Pipeline processAll(DescriptorJournalManager manager, PipelineInfo info) {
+        EventProcessor processor = new EventProcessor(manager, null);
+        // expected pipeline, built in memory without the manager
+        Pipeline pipeline = new Pipeline(info);
+        List<PipelineEvent> events = new LinkedList<>();
+        events.add(new PipelineCreatedEvent(info));
+        events.add(new StageCreatedEvent(info.id, "1", "0", 0, "build", now(), "SEQUENCE"));
+        events.add(new StageCreatedEvent(info.id, "2", "1", 0, null, now(), "STEPS"));
+        processor.process(events);
+        EventProcessor.process(pipeline, events);
+        for (int i = 0; i < 10; i++) {
+            String id = String.valueOf(3 + i);
+            events = new LinkedList<>();
+            events.add(new StepCreatedEvent(info.id, id, "2", i, "sh", now(), "echo " + i));
+            events.add(new StepCompletedEvent(info.id, id, Result.SUCCESS, 1));
+            processor.process(events);
+            EventProcessor.process(pipeline, events);
+        }
+        return pipeline;
+    }
+
+    private static String toJson(Pipeline pipeline) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JacksonSupport.write(baos, pipeline);
+        return new String(baos.toByteArray());
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    private static PipelineInfo createInfo() {
+        return PipelineInfo.builder()
+                .id("abcdefgh")
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(State.RUNNING))
+                .timings(new Timings(now()))
+                .build();
+    }
+}
@@ -1,5 +1,8 @@
 package io.helidon.build.publisher.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -17,6 +20,7 @@ import io.helidon.build.publisher.model.events.StepCompletedEvent;
 import io.helidon.build.publisher.model.events.StepCreatedEvent;
 import io.helidon.build.publisher.model.events.TestsInfoEvent;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -260,6 +264,51 @@ public class EventProcessorTest {
         assertThat(buildStep.status.result, is(Result.SUCCESS));
     }
 
+    @Test
+    public void testRevisions() throws IOException {
+        List<PipelineEvent> events = new LinkedList<>();
+        PipelineInfo info = createInfo();
+        events.add(new PipelineCreatedEvent(info));
+        events.add(new StageCreatedEvent(info.id, "1", "0", 0, "build", now(), "SEQUENCE"));
+        events.add(new StageCreatedEvent(info.id, "2", "1", 0, null, now(), "STEPS"));
+        events.add(new StepCreatedEvent(info.id, "3", "2", 0, "sh", now(), "echo foo"));
+        events.add(new StepCompletedEvent(info.id, "3", Result.SUCCESS, now()));
+        events.add(new TestsInfoEvent(info.id, "2", new TestsInfo(1, 1, 0, 0)));
+        events.add(new StageCompletedEvent(info.id, "2", Result.SUCCESS, now()));
+        TestManager manager = new TestManager();
+        new EventProcessor(manager, null).process(events);
+
+        Pipeline pipeline = manager.pipeline;
+        assertThat(pipeline.revision, is(7L));
+        assertThat(pipeline.node("1").revision, is(2L));
+        assertThat(pipeline.node("2").revision, is(7L));
+        assertThat(pipeline.node("3").revision, is(5L));
+
+        // revisions are persisted
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JacksonSupport.write(baos, pipeline);
+        Pipeline copy = JacksonSupport.read(new ByteArrayInputStream(baos.toByteArray()), Pipeline.class);
+        assertThat(copy.revision, is(7L));
+        assertThat(copy.node("3").revision, is(5L));
+
+        // changes since revision 5
+        baos = new ByteArrayOutputStream();
+        JacksonSupport.writeChanges(baos, pipeline, 5);
+        byte[] data = baos.toByteArray();
+        JsonNode changes = JacksonSupport.readTree(data, 0, data.length);
+        assertThat(changes.get("revision").asLong(), is(7L));
+        assertThat(changes.get("nodes").size(), is(1));
+        assertThat(changes.get("nodes").get(0).get("id").asText(), is("2"));
+        assertThat(changes.get("nodes").get(0).get("tests").get("passed").asInt(), is(1));
+        assertThat(changes.get("nodes").get(0).get("children").get(0).asText(), is("3"));
+
+        // no changes
+        baos = new ByteArrayOutputStream();
+        JacksonSupport.writeChanges(baos, pipeline, 7);
+        data = baos.toByteArray();
+        assertThat(JacksonSupport.readTree(data, 0, data.length).get("nodes").size(), is(0));
+    }
+
     private static long now() {
         return System.currentTimeMillis();
     }
@@ -0,0 +1,95 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link LineIndexWriter} and {@link LineIndex}.
+ */
+public class LineIndexTest {
+
+    @Test
+    public void testWriteRead() throws IOException {
+        Path log = Files.createTempDirectory("lineindex").resolve("step-1.log");
+        byte[] content = createContent(5 * LineIndex.STRIDE / 2);
+        int offset = 0;
+        int chunkSize = 1;
+        while (offset < content.length) {
+            // re-open the writer for each append
+            try (LineIndexWriter writer = LineIndexWriter.open(log, offset)) {
+                int len = Math.min(chunkSize, content.length - offset);
+                writer.update(ByteBuffer.wrap(content, offset, len), offset);
+                Files.write(log, copy(content, offset, len), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                writer.flush();
+                offset += len;
+            }
+            chunkSize = chunkSize * 3 + 7;
+        }
+        LineIndex index = LineIndex.load(log, content.length);
+        assertThat(index.size(), is(2));
+        assertThat(index.offset(0), is(0L));
+        assertThat(index.offset(1), is(lineOffset(content, LineIndex.STRIDE)));
+        assertThat(index.offset(2), is(lineOffset(content, 2 * LineIndex.STRIDE)));
+        assertThat(index.floor(index.offset(1) - 1), is(0));
+        assertThat(index.floor(index.offset(1)), is(1));
+        assertThat(index.floor(content.length), is(2));
+        // entries beyond the length are ignored
+        assertThat(LineIndex.load(log, index.offset(2) - 1).size(), is(1));
+    }
+
+    @Test
+    public void testRecovery() throws IOException {
+        Path log = Files.createTempDirectory("lineindex").resolve("step-1.log");
+        byte[] content = createContent(3 * LineIndex.STRIDE);
+        Files.write(log, content);
+        // the index of a log created without index is not maintained
+        assertThat(LineIndexWriter.open(log, content.length), is(nullValue()));
+        // missing entries and partial entry
+        Files.write(LineIndex.path(log), new byte[]{0, 0, 0});
+        try (LineIndexWriter writer = LineIndexWriter.open(log, content.length)) {
+            writer.flush();
+        }
+        LineIndex index = LineIndex.load(log, content.length);
+        assertThat(index.size(), is(3));
+        assertThat(index.offset(3), is(lineOffset(content, 3 * LineIndex.STRIDE)));
+        // entries beyond the log, e.g. the data write failed
+        try (LineIndexWriter writer = LineIndexWriter.open(log, index.offset(2))) {
+            writer.flush();
+        }
+        assertThat(Files.size(LineIndex.path(log)), is(16L));
+    }
+
+    private static long lineOffset(byte[] content, int line) {
+        int count = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n' && ++count == line) {
+                return i + 1;
+            }
+        }
+        return content.length;
+    }
+
+    private static byte[] copy(byte[] content, int offset, int len) {
+        byte[] copy = new byte[len];
+        System.arraycopy(content, offset, copy, 0, len);
+        return copy;
+    }
+
+    private static byte[] createContent(int nlines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nlines; i++) {
+            sb.append("[INFO] line ").append(i).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package io.helidon.build.publisher.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import io.helidon.build.publisher.model.Status.Result;
+import io.helidon.build.publisher.model.Status.State;
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineEvent;
+import io.helidon.build.publisher.model.events.PipelineEvents;
+import io.helidon.build.publisher.model.events.StageCreatedEvent;
+import io.helidon.build.publisher.model.events.StepCreatedEvent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link PipelineEventsParser}.
+ */
+public class PipelineEventsParserTest {
+
+    @Test
+    public void testSplitInput() throws IOException {
+        List<PipelineEvent> events = createEvents();
+        byte[] data = serialize(events);
+        for (int split = 1; split < data.length; split++) {
+            List<PipelineEvent> parsed = new ArrayList<>();
+            PipelineEventsParser parser = new PipelineEventsParser(parsed::add);
+            parser.parse(ByteBuffer.wrap(data, 0, split));
+            parser.parse(ByteBuffer.wrap(data, split, data.length - split));
+            parser.end();
+            assertThat(parsed, is(events));
+        }
+    }
+
+    @Test
+    public void testSmile() throws IOException {
+        List<PipelineEvent> events = createEvents();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JacksonSupport.writeSmile(baos, new PipelineEvents(events));
+        byte[] data = baos.toByteArray();
+        assertThat(data.length < serialize(events).length, is(true));
+        for (int split = 1; split < data.length; split++) {
+            List<PipelineEvent> parsed = new ArrayList<>();
+            PipelineEventsParser parser = new PipelineEventsParser(parsed::add, /* smile */ true);
+            parser.parse(ByteBuffer.wrap(data, 0, split));
+            parser.parse(ByteBuffer.wrap(data, split, data.length - split));
+            parser.end();
+            assertThat(parsed, is(events));
+        }
+    }
+
+    @Test
+    public void testDirectBuffer() throws IOException {
+        List<PipelineEvent> events = createEvents();
+        byte[] data = serialize(events);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        List<PipelineEvent> parsed = new ArrayList<>();
+        PipelineEventsParser parser = new PipelineEventsParser(parsed::add);
+        parser.parse(buffer);
+        parser.end();
+        assertThat(parsed, is(events));
+    }
+
+    @Test
+    public void testUnknownField() throws IOException {
+        String json = "{\"foo\":{\"bar\":[1,2]},\"events\":[" + new String(serialize(createEvents()),
+                StandardCharsets.UTF_8).replaceFirst("(?s)^.*?\\[", "");
+        List<PipelineEvent> parsed = new ArrayList<>();
+        PipelineEventsParser parser = new PipelineEventsParser(parsed::add);
+        parser.parse(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+        parser.end();
+        assertThat(parsed, is(createEvents()));
+    }
+
+    @Test
+    public void testIncompleteInput() throws IOException {
+        byte[] data = serialize(createEvents());
+        List<PipelineEvent> parsed = new ArrayList<>();
+        PipelineEventsParser parser = new PipelineEventsParser(parsed::add);
+        int len = new String(data, StandardCharsets.UTF_8).lastIndexOf("duration");
+        parser.parse(ByteBuffer.wrap(data, 0, len));
+        assertThrows(IOException.class, parser::end);
+        assertThat(parsed.size(), is(4));
+    }
+
+    private static byte[] serialize(List<PipelineEvent> events) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JacksonSupport.write(baos, new PipelineEvents(events));
+        return baos.toByteArray();
+    }
+
+    private static List<PipelineEvent> createEvents() {
+        PipelineInfo info = PipelineInfo.builder()
+                .id("pipeline1")
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(State.RUNNING))
+                .timings(new Timings(1000))
+                .build();
+        List<PipelineEvent> events = new LinkedList<>();
+        events.add(new PipelineCreatedEvent(info));
+        events.add(new StageCreatedEvent(info.id, "1", "0", 0, "build", 1000, "SEQUENCE"));
+        events.add(new StageCreatedEvent(info.id, "2", "1", 0, null, 1000, "STEPS"));
+        events.add(new StepCreatedEvent(info.id, "3", "2", 0, "sh", 1000, "echo \"foo\""));
+        events.add(new PipelineCompletedEvent(info.id, Result.SUCCESS, 2000));
+        return events;
+    }
+}
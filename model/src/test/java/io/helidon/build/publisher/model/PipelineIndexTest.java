@@ -0,0 +1,143 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import io.helidon.build.publisher.model.Status.Result;
+import io.helidon.build.publisher.model.Status.State;
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineErrorEvent;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link PipelineIndex}.
+ */
+public class PipelineIndexTest {
+
+    @Test
+    public void testList() throws IOException {
+        Path storage = Files.createTempDirectory("index");
+        PipelineIndex index = new PipelineIndex(storage);
+        EventProcessor processor = new EventProcessor(new DescriptorJournalManager(storage), null, singletonList(index));
+        for (int i = 1; i <= 5; i++) {
+            processor.process(singletonList(new PipelineCreatedEvent(createInfo("pipeline" + i))));
+        }
+
+        PipelineInfos page1 = new PipelineIndex(storage).list(1, 2);
+        assertThat(page1.totalpages(), is(3));
+        assertThat(page1.items().size(), is(2));
+        assertThat(page1.items().get(0).id(), is("pipeline5"));
+        assertThat(page1.items().get(1).id(), is("pipeline4"));
+
+        PipelineInfos page3 = new PipelineIndex(storage).list(3, 2);
+        assertThat(page3.items().size(), is(1));
+        assertThat(page3.items().get(0).id(), is("pipeline1"));
+    }
+
+    @Test
+    public void testCompleted() throws IOException {
+        Path storage = Files.createTempDirectory("index");
+        PipelineIndex index = new PipelineIndex(storage);
+        EventProcessor processor = new EventProcessor(new DescriptorJournalManager(storage), null, singletonList(index));
+        processor.process(singletonList(new PipelineCreatedEvent(createInfo("pipeline1"))));
+        processor.process(singletonList(new PipelineCreatedEvent(createInfo("pipeline2"))));
+
+        PipelineIndex reader = new PipelineIndex(storage);
+        assertThat(reader.list(1, 10).items().get(1).status(), is("RUNNING"));
+
+        processor.process(singletonList(new PipelineCompletedEvent("pipeline1", Result.SUCCESS, 10)));
+        processor.process(singletonList(new PipelineErrorEvent("pipeline2", 1, "error")));
+
+        // incremental refresh
+        List<PipelineInfo> items = reader.list(1, 10).items();
+        assertThat(items.get(0).status(), is("ABORTED"));
+        assertThat(items.get(1).status(), is("SUCCESS"));
+        assertThat(items.get(1).duration(), is(10L));
+    }
+
+    @Test
+    public void testError() throws IOException {
+        Path storage = Files.createTempDirectory("index");
+        PipelineIndex index = new PipelineIndex(storage);
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline1")));
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline2")));
+        index.onEvent(new PipelineCompletedEvent("pipeline2", Result.SUCCESS, 10));
+        index.onEvent(new PipelineErrorEvent("pipeline1", 1, "event queue is full"));
+        index.onEvent(new PipelineErrorEvent("pipeline2", 1, "event queue is full"));
+
+        List<PipelineInfo> items = new PipelineIndex(storage).list(1, 10).items();
+        assertThat(items.get(0).status(), is("SUCCESS"));
+        assertThat(items.get(1).status(), is("ABORTED"));
+    }
+
+    @Test
+    public void testIncompleteEntry() throws IOException {
+        Path storage = Files.createTempDirectory("index");
+        PipelineIndex index = new PipelineIndex(storage);
+        index.onEvent(new PipelineCreatedEvent(createInfo("pipeline1")));
+
+        // partially written entry
+        Path indexPath = storage.resolve("pipelines.idx");
+        byte[] line = JacksonSupport.writeLine(new PipelineCreatedEvent(createInfo("pipeline2")));
+        Files.write(indexPath, Arrays.copyOfRange(line, 0, 20), StandardOpenOption.APPEND);
+
+        PipelineIndex reader = new PipelineIndex(storage);
+        assertThat(reader.list(1, 10).items().size(), is(1));
+
+        Files.write(indexPath, Arrays.copyOfRange(line, 20, line.length), StandardOpenOption.APPEND);
+        List<PipelineInfo> items = reader.list(1, 10).items();
+        assertThat(items.size(), is(2));
+        assertThat(items.get(0).id(), is("pipeline2"));
+    }
+
+    @Test
+    public void testRebuild() throws IOException {
+        Path storage = Files.createTempDirectory("index");
+        DescriptorFileManager fileManager = new DescriptorFileManager(storage);
+        PipelineIndex index = new PipelineIndex(storage);
+        for (int i = 1; i <= 2; i++) {
+            PipelineInfo info = createInfo("pipeline" + i);
+            fileManager.savePipeline(new Pipeline(info));
+            index.onEvent(new PipelineCreatedEvent(info));
+        }
+        PipelineIndex reader = new PipelineIndex(storage);
+        assertThat(reader.list(1, 10).items().size(), is(2));
+
+        // not indexed
+        fileManager.savePipeline(new Pipeline(createInfo("pipeline3")));
+
+        // the rebuilt index is larger than the previous one
+        long size = Files.size(storage.resolve("pipelines.idx"));
+        index.rebuild();
+        assertThat(Files.size(storage.resolve("pipelines.idx")) > size, is(true));
+        List<PipelineInfo> items = reader.list(1, 10).items();
+        assertThat(items.size(), is(3));
+        assertThat(items.get(0).id(), is("pipeline3"));
+
+        // rebuilt index of the same size
+        index.rebuild();
+        assertThat(reader.list(1, 10).items().size(), is(3));
+    }
+
+    private static PipelineInfo createInfo(String id) {
+        return PipelineInfo.builder()
+                .id(id)
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(State.RUNNING))
+                .timings(new Timings(System.currentTimeMillis()))
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package io.helidon.build.publisher.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.helidon.build.publisher.model.Status.Result;
+import io.helidon.build.publisher.model.Status.State;
+import io.helidon.build.publisher.model.events.PipelineCompletedEvent;
+import io.helidon.build.publisher.model.events.PipelineCreatedEvent;
+import io.helidon.build.publisher.model.events.PipelineErrorEvent;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests {@link PipelineInfoWriter}.
+ */
+public class PipelineInfoWriterTest {
+
+    @Test
+    public void testInfo() throws IOException {
+        Path storage = Files.createTempDirectory("info");
+        PipelineInfoWriter writer = new PipelineInfoWriter(storage);
+        EventProcessor processor = new EventProcessor(new DescriptorJournalManager(storage), null,
+                singletonList(writer));
+        processor.process(singletonList(new PipelineCreatedEvent(createInfo("pipeline1"))));
+
+        Path infoPath = storage.resolve("pipeline1").resolve("info.json");
+        assertThat(Files.exists(infoPath), is(true));
+        DescriptorFileManager fileManager = new DescriptorFileManager(storage);
+        PipelineInfo info = fileManager.loadInfoFromDir(storage.resolve("pipeline1"));
+        assertThat(info.id(), is("pipeline1"));
+        assertThat(info.status(), is("RUNNING"));
+
+        processor.process(singletonList(new PipelineCompletedEvent("pipeline1", Result.SUCCESS, 10)));
+        info = fileManager.loadInfoFromDir(storage.resolve("pipeline1"));
+        assertThat(info.status(), is("SUCCESS"));
+        assertThat(info.duration(), is(10L));
+        assertThat(Files.size(infoPath) < Files.size(storage.resolve("pipeline1").resolve("pipeline.json")), is(true));
+    }
+
+    @Test
+    public void testError() throws IOException {
+        Path storage = Files.createTempDirectory("info");
+        PipelineInfoWriter writer = new PipelineInfoWriter(storage);
+        writer.onEvent(new PipelineCreatedEvent(createInfo("pipeline1")));
+        writer.onEvent(new PipelineErrorEvent("pipeline1", 1, "event queue is full"));
+
+        PipelineInfo info = new DescriptorFileManager(storage).loadInfoFromDir(storage.resolve("pipeline1"));
+        assertThat(info.status(), is("ABORTED"));
+
+        // the rebuilt index reads the info descriptors
+        PipelineIndex index = new PipelineIndex(storage);
+        index.rebuild();
+        assertThat(index.list(1, 10).items().get(0).status(), is("ABORTED"));
+    }
+
+    @Test
+    public void testFallback() throws IOException {
+        Path storage = Files.createTempDirectory("info");
+        DescriptorFileManager fileManager = new DescriptorFileManager(storage);
+        fileManager.savePipeline(new Pipeline(createInfo("pipeline1")));
+
+        // no info descriptor, the info is read from the pipeline descriptor
+        new PipelineInfoWriter(storage).onEvent(new PipelineCompletedEvent("pipeline1", Result.FAILURE, 5));
+        assertThat(Files.exists(storage.resolve("pipeline1").resolve("info.json")), is(true));
+        assertThat(fileManager.loadInfoFromDir(storage.resolve("pipeline1")).status(), is("FAILURE"));
+    }
+
+    private static PipelineInfo createInfo(String id) {
+        return PipelineInfo.builder()
+                .id(id)
+                .title("testJob")
+                .repositoryUrl("https://github.com/john_doe/repo.git")
+                .headRef("master")
+                .commit("123456789")
+                .status(new Status(State.RUNNING))
+                .timings(new Timings(System.currentTimeMillis()))
+                .build();
+    }
+}
@@ -2,13 +2,14 @@ package io.helidon.build.publisher.plugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import io.helidon.build.publisher.model.Steps;
-import io.helidon.build.publisher.model.events.ArtifactDataEvent;
+import io.helidon.build.publisher.model.events.ArtifactArchiveEvent;
 import io.helidon.build.publisher.model.events.ArtifactsInfoEvent;
 import io.helidon.build.publisher.plugin.config.DelegateArtifactManagerFactory;
 
@@ -75,16 +76,18 @@ final class ArtifactsProcessor extends StandardArtifactManager {
         super.archive(workspace, launcher, listener, artifacts);
         if (steps != null) {
             final String stepsId = steps.id();
-            final AtomicInteger artifactsCount = new AtomicInteger(0);
-            new FilePath.ExplicitlySpecifiedDirScanner(artifacts).scan(getArtifactsDir(), new FileVisitor() {
+            final File artifactsDir = getArtifactsDir();
+            final List<String> filenames = new ArrayList<>();
+            new FilePath.ExplicitlySpecifiedDirScanner(artifacts).scan(artifactsDir, new FileVisitor() {
                 @Override
                 public void visit(File file, String relativePath) throws IOException {
-                    client.onEvent(new ArtifactDataEvent(pipelineId, stepsId, file, relativePath));
-                    artifactsCount.incrementAndGet();
+                    filenames.add(relativePath);
                 }
             });
-            int count = artifactsCount.get();
+            int count = filenames.size();
             if (count > 0) {
+                // send all the files of this call as a single archive
+                client.onEvent(new ArtifactArchiveEvent(pipelineId, stepsId, artifactsDir, filenames));
                 client.onEvent(new ArtifactsInfoEvent(pipelineId, stepsId, count));
             }
         }
@@ -1,13 +1,14 @@
 package io.helidon.build.publisher.plugin;
 
-import java.io.FileInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
-import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -23,7 +24,7 @@ import java.util.logging.Logger;
 import java.util.zip.GZIPOutputStream;
 
 import io.helidon.build.publisher.model.JacksonSupport;
-import io.helidon.build.publisher.model.events.ArtifactDataEvent;
+import io.helidon.build.publisher.model.events.ArtifactArchiveEvent;
 import io.helidon.build.publisher.model.events.PipelineErrorEvent;
 import io.helidon.build.publisher.model.events.PipelineEvent;
 import io.helidon.build.publisher.model.events.PipelineEvents;
@@ -45,6 +46,11 @@ final class BackendClient implements PipelineEventListener {
     private static final int AGGREGATE_SIZE = 100; // max number of aggregated events
     private static final int CONNECT_TIMEOUT = 30 * 1000; // 30s
     private static final int READ_TIMEOUT = 60 * 2 * 1000; // 2min
+    private static final int MAX_RETRY_WAIT = 2 * 60; // 2min, max total wait when the server is busy
+    private static final int LARGE_PAYLOAD = 256 * 1024; // 256KiB, the budget is checked before sending
+    private static final int DEFAULT_RETRY_AFTER = 2; // 2s
+    private static final int MAX_RETRY_AFTER = 60; // 1min
+    private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024; // 64KiB
 
     private final BlockingQueue<PipelineEvent>[] queues;
     private final ExecutorService executor;
@@ -163,6 +169,8 @@ final class BackendClient implements PipelineEventListener {
         private final URI serverUri;
         private final String signatureHeader;
         private final int queueId;
+        private boolean compressEvents;
+        private boolean smileEvents;
 
         /**
          * Create a new client thread bound to the given queue.
@@ -204,8 +212,8 @@ final class BackendClient implements PipelineEventListener {
                         case STEP_OUTPUT_DATA:
                             processOutputEvent((StepOutputDataEvent) event);
                             break;
-                        case ARTIFACT_DATA:
-                            processArtifactEvent((ArtifactDataEvent) event);
+                        case ARTIFACT_ARCHIVE:
+                            processArtifactArchiveEvent((ArtifactArchiveEvent) event);
                             break;
                         case TESTSUITE_RESULT:
                             processTestSuiteEvent((TestSuiteResultEvent) event);
@@ -270,7 +278,7 @@ final class BackendClient implements PipelineEventListener {
                         }
                         break;
                     case STEP_OUTPUT_DATA:
-                    case ARTIFACT_DATA:
+                    case ARTIFACT_ARCHIVE:
                     case TESTSUITE_RESULT:
                         break;
                     default:
@@ -297,7 +305,11 @@ final class BackendClient implements PipelineEventListener {
                 throw new IllegalStateException("Not an HttpURLConnection");
             }
             HttpURLConnection hcon = (HttpURLConnection) con;
-            hcon.addRequestProperty("Content-Type", "application/json");
+            String contentType = smileEvents ? JacksonSupport.SMILE_CONTENT_TYPE : "application/json";
+            hcon.addRequestProperty("Content-Type", contentType);
+            if (compressEvents) {
+                hcon.addRequestProperty("Content-Encoding", "gzip");
+            }
             if (signatureHeader != null) {
                 hcon.addRequestProperty("Signature", signatureHeader);
             }
@@ -305,8 +317,22 @@ final class BackendClient implements PipelineEventListener {
             hcon.setDoOutput(true);
             hcon.setConnectTimeout(CONNECT_TIMEOUT);
             hcon.setReadTimeout(READ_TIMEOUT);
-            JacksonSupport.write(hcon.getOutputStream(), new PipelineEvents(events));
+            if (smileEvents) {
+                JacksonSupport.writeSmile(hcon.getOutputStream(), new PipelineEvents(events));
+            } else if (compressEvents) {
+                try (GZIPOutputStream out = new GZIPOutputStream(hcon.getOutputStream())) {
+                    JacksonSupport.writeCompact(out, new PipelineEvents(events));
+                }
+            } else {
+                JacksonSupport.write(hcon.getOutputStream(), new PipelineEvents(events));
+            }
             int code = hcon.getResponseCode();
+            // switch to binary events if the server advertises it, older servers only accept JSON
+            String acceptPut = hcon.getHeaderField("Accept-Put");
+            smileEvents = acceptPut != null && acceptPut.contains(JacksonSupport.SMILE_CONTENT_TYPE);
+            // otherwise switch to compressed events if the server advertises it (RFC 7694)
+            String acceptEncoding = hcon.getHeaderField("Accept-Encoding");
+            compressEvents = !smileEvents && acceptEncoding != null && acceptEncoding.contains("gzip");
             if (200 != code) {
                 LOGGER.log(Level.WARNING, "Invalid response code, queueId={0}, url={1}, code={2}",
                         new Object[]{
@@ -321,7 +347,7 @@ final class BackendClient implements PipelineEventListener {
          * Process a step output event.
          * @param event event to process
          */
-        private void processOutputEvent(StepOutputDataEvent event) throws IOException {
+        private void processOutputEvent(StepOutputDataEvent event) throws IOException, InterruptedException {
             URL url = serverUri.resolve("output/"
                     + event.pipelineId()
                     + "/"
@@ -336,21 +362,8 @@ final class BackendClient implements PipelineEventListener {
                 });
             }
 
-            URLConnection con = url.openConnection();
-            if (!(con instanceof HttpURLConnection)) {
-                throw new IllegalStateException("Not an HttpURLConnection");
-            }
-            HttpURLConnection hcon = (HttpURLConnection) con;
-            hcon.setDoOutput(true);
-            hcon.addRequestProperty("Content-Type", "text/plain");
-            hcon.addRequestProperty("Content-Encoding", "gzip");
-            if (signatureHeader != null) {
-                hcon.addRequestProperty("Signature", signatureHeader);
-            }
-            hcon.setRequestMethod("PUT");
-            hcon.setConnectTimeout(CONNECT_TIMEOUT);
-            hcon.setReadTimeout(READ_TIMEOUT);
-            try (GZIPOutputStream out = new  GZIPOutputStream(hcon.getOutputStream())) {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new  GZIPOutputStream(payload)) {
                 byte[] data = event.data();
                 out.write(data, 0, data.length);
                 int len = data.length;
@@ -369,7 +382,7 @@ final class BackendClient implements PipelineEventListener {
                 }
                 out.flush();
             }
-            int code = hcon.getResponseCode();
+            int code = send(url, event.pipelineId(), "PUT", "text/plain", /* compressed */ true, payload.toByteArray());
             if (200 != code) {
                 LOGGER.log(Level.WARNING, "Invalid response code, queueId={0}, url={1}, code={2}, event={3}",
                         new Object[]{
@@ -385,7 +398,7 @@ final class BackendClient implements PipelineEventListener {
          * Process a test suite event.
          * @param event event
          */
-        private void processTestSuiteEvent(TestSuiteResultEvent event) throws IOException {
+        private void processTestSuiteEvent(TestSuiteResultEvent event) throws IOException, InterruptedException {
             URL url = serverUri.resolve("files/"
                     + event.pipelineId()
                     + "/"
@@ -402,21 +415,10 @@ final class BackendClient implements PipelineEventListener {
                 });
             }
 
-            URLConnection con = url.openConnection();
-            if (!(con instanceof HttpURLConnection)) {
-                throw new IllegalStateException("Not an HttpURLConnection");
-            }
-            HttpURLConnection hcon = (HttpURLConnection) con;
-            hcon.setDoOutput(true);
-            hcon.addRequestProperty("Content-Type", "application/json");
-            if (signatureHeader != null) {
-                hcon.addRequestProperty("Signature", signatureHeader);
-            }
-            hcon.setRequestMethod("POST");
-            hcon.setConnectTimeout(CONNECT_TIMEOUT);
-            hcon.setReadTimeout(READ_TIMEOUT);
-            JacksonSupport.write(hcon.getOutputStream(), event.suite());
-            int code = hcon.getResponseCode();
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            JacksonSupport.write(payload, event.suite());
+            int code = send(url, event.pipelineId(), "POST", "application/json", /* compressed */ false,
+                    payload.toByteArray());
             if (201 != code) {
                 LOGGER.log(Level.WARNING, "Invalid response code, queueId={0}, url={1}, code={2}, event={3}",
                         new Object[]{
@@ -429,61 +431,232 @@ final class BackendClient implements PipelineEventListener {
         }
 
         /**
-         * Process an artifact event.
+         * Process an artifact archive event.
+         * The files are sent as a single {@code tar} stream that is re-created if the request is retried.
          * @param event event to process
          */
-        private void processArtifactEvent(ArtifactDataEvent event) throws IOException {
-            URL url = serverUri.resolve("files/"
+        private void processArtifactArchiveEvent(ArtifactArchiveEvent event) throws IOException, InterruptedException {
+            URL url = serverUri.resolve("archive/"
                     + event.pipelineId()
                     + "/"
-                    + event.stepsId()
-                    + "/artifacts/"
-                    + URLEncoder.encode(event.filename(), "UTF-8"))
+                    + event.stepsId())
                     .toURL();
 
             if (LOGGER.isLoggable(Level.FINEST)) {
-                LOGGER.log(Level.FINEST, "Sending artifact data event, queueId={0}, url={1}, event={2}", new Object[]{
-                    queueId,
-                    url,
-                    event
-                });
+                LOGGER.log(Level.FINEST, "Sending artifact archive event, queueId={0}, url={1}, event={2}",
+                        new Object[]{
+                            queueId,
+                            url,
+                            event
+                        });
+            }
+            // the files are hashed by the server while extracted, identical files are stored once
+            List<String> filenames = event.filenames();
+            // the size of the compressed tar is not known, the size of the files is an upper bound of it
+            long hint = 0;
+            for (String filename : filenames) {
+                hint += new File(event.dir(), filename).length();
+            }
+            URL hintUrl = new URL(url, url.getPath() + "?bytes=" + hint);
+            int code = send(hintUrl, event.pipelineId(), "POST", "application/x-tar", /* compressed */ true, -1, hint,
+                    (out) -> {
+                        try (TarWriter tar = new TarWriter(new GZIPOutputStream(out, ARCHIVE_BUFFER_SIZE))) {
+                            for (String filename : filenames) {
+                                tar.addFile(filename, new File(event.dir(), filename));
+                            }
+                        }
+                    });
+            if (201 != code) {
+                LOGGER.log(Level.WARNING, "Invalid response code, queueId={0}, url={1}, code={2}, event={3}",
+                        new Object[]{
+                            queueId,
+                            url,
+                            code,
+                            event
+                        });
             }
+        }
+
+        /**
+         * Send a request with a buffered payload.
+         * @param url request URL
+         * @param pipelineId the pipeline id
+         * @param method request method
+         * @param contentType payload content type
+         * @param compressed {@code true} if the payload is {@code gzip} compressed
+         * @param payload the payload
+         * @return the response code
+         */
+        private int send(URL url, String pipelineId, String method, String contentType, boolean compressed,
+                byte[] payload) throws IOException, InterruptedException {
+
+            return send(url, pipelineId, method, contentType, compressed, payload.length, payload.length,
+                    (out) -> out.write(payload));
+        }
+
+        /**
+         * Send a request.
+         * @param url request URL
+         * @param pipelineId the pipeline id
+         * @param method request method
+         * @param contentType payload content type
+         * @param compressed {@code true} if the payload is {@code gzip} compressed
+         * @param length the payload length, or {@code -1} if unknown
+         * @param hint the expected payload length used to check the budget, or {@code -1} if unknown
+         * @param payload the payload writer, invoked for each attempt
+         * @return the response code
+         */
+        private int send(URL url, String pipelineId, String method, String contentType, boolean compressed,
+                long length, long hint, Payload payload) throws IOException, InterruptedException {
+
+            return connect(url, pipelineId, method, contentType, compressed, length, hint, payload).getResponseCode();
+        }
+
+        /**
+         * Send a request.
+         * The budget of the pipeline is checked with a request without payload before sending a large payload, or a
+         * payload of unknown length, so that the payload is only sent when the server is likely to accept it. While the
+         * server responds with {@code 503}, the budget is checked again after waiting for the delay given by the
+         * {@code Retry-After} response header. The waits are bounded by {@link #MAX_RETRY_WAIT} in total since they
+         * hold up the other pipelines of the client thread.
+         * @param url request URL
+         * @param pipelineId the pipeline id
+         * @param method request method
+         * @param contentType payload content type
+         * @param compressed {@code true} if the payload is {@code gzip} compressed
+         * @param length the payload length, or {@code -1} if unknown
+         * @param hint the expected payload length used to check the budget, or {@code -1} if unknown
+         * @param payload the payload writer, invoked for each attempt
+         * @return the connection, with the response available
+         */
+        private HttpURLConnection connect(URL url, String pipelineId, String method, String contentType,
+                boolean compressed, long length, long hint, Payload payload) throws IOException, InterruptedException {
+
+            HttpURLConnection hcon = null;
+            if (length < 0 || length >= LARGE_PAYLOAD) {
+                hcon = checkBudget(pipelineId, hint);
+            }
+            int waited = 0;
+            while (true) {
+                if (hcon == null || 503 != hcon.getResponseCode()) {
+                    // the budget is available, or the check is not supported by the server
+                    if (hcon != null) {
+                        hcon.disconnect();
+                    }
+                    hcon = request(url, method, contentType, compressed, length, payload);
+                    if (503 != hcon.getResponseCode()) {
+                        return hcon;
+                    }
+                }
+                int retryAfter = retryAfter(hcon.getHeaderField("Retry-After"));
+                if (waited + retryAfter > MAX_RETRY_WAIT) {
+                    return hcon;
+                }
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Server busy, queueId={0}, url={1}, waited={2}, retryAfter={3}",
+                            new Object[]{
+                                queueId,
+                                url,
+                                waited,
+                                retryAfter
+                            });
+                }
+                hcon.disconnect();
+                Thread.sleep(retryAfter * 1000L);
+                waited += retryAfter;
+                hcon = checkBudget(pipelineId, hint);
+            }
+        }
+
+        /**
+         * Check the budget of a pipeline.
+         * @param pipelineId the pipeline id
+         * @param hint the expected payload length, or {@code -1} if unknown
+         * @return the connection, with the response available
+         */
+        private HttpURLConnection checkBudget(String pipelineId, long hint) throws IOException {
+            URL budgetUrl = serverUri.resolve("budget/"
+                    + pipelineId
+                    + (hint >= 0 ? "?bytes=" + hint : ""))
+                    .toURL();
+            HttpURLConnection hcon = open(budgetUrl, "GET");
+            hcon.getResponseCode();
+            return hcon;
+        }
+
+        /**
+         * Send a request once.
+         * @param url request URL
+         * @param method request method
+         * @param contentType payload content type
+         * @param compressed {@code true} if the payload is {@code gzip} compressed
+         * @param length the payload length, or {@code -1} if unknown
+         * @param payload the payload writer
+         * @return the connection
+         */
+        private HttpURLConnection request(URL url, String method, String contentType, boolean compressed, long length,
+                Payload payload) throws IOException {
+
+            HttpURLConnection hcon = open(url, method);
+            hcon.setDoOutput(true);
+            hcon.addRequestProperty("Content-Type", contentType);
+            if (compressed) {
+                hcon.addRequestProperty("Content-Encoding", "gzip");
+            }
+            if (length >= 0) {
+                hcon.setFixedLengthStreamingMode(length);
+            } else {
+                hcon.setChunkedStreamingMode(ARCHIVE_BUFFER_SIZE);
+            }
+            try (OutputStream out = hcon.getOutputStream()) {
+                payload.writeTo(out);
+            }
+            return hcon;
+        }
+
+        /**
+         * Open a connection.
+         * @param url request URL
+         * @param method request method
+         * @return the connection
+         */
+        private HttpURLConnection open(URL url, String method) throws IOException {
             URLConnection con = url.openConnection();
             if (!(con instanceof HttpURLConnection)) {
                 throw new IllegalStateException("Not an HttpURLConnection");
             }
             HttpURLConnection hcon = (HttpURLConnection) con;
-            hcon.setDoOutput(true);
-            hcon.addRequestProperty("Content-Type", "text/plain");
-            hcon.addRequestProperty("Content-Encoding", "gzip");
             if (signatureHeader != null) {
                 hcon.addRequestProperty("Signature", signatureHeader);
             }
-            hcon.setRequestMethod("POST");
+            hcon.setRequestMethod(method);
             hcon.setConnectTimeout(CONNECT_TIMEOUT);
             hcon.setReadTimeout(READ_TIMEOUT);
-            try (GZIPOutputStream out = new  GZIPOutputStream(hcon.getOutputStream());
-                    FileInputStream fis = new FileInputStream(event.file())) {
-                byte[] buf = new byte[1024];
-                int nbytes = 0;
-                while (nbytes >= 0) {
-                    nbytes = fis.read(buf);
-                    if (nbytes > 0) {
-                        out.write(buf, 0, nbytes);
-                    }
+            return hcon;
+        }
+
+        /**
+         * Request payload writer.
+         */
+        private interface Payload {
+
+            /**
+             * Write the payload.
+             * @param out the request output stream
+             * @throws IOException if an IO error occurs
+             */
+            void writeTo(OutputStream out) throws IOException;
+        }
+
+        private static int retryAfter(String header) {
+            if (header != null) {
+                try {
+                    return Math.max(1, Math.min(MAX_RETRY_AFTER, Integer.parseInt(header.trim())));
+                } catch (NumberFormatException ex) {
+                    // HTTP-date format is not supported
                 }
-                out.flush();
-            }
-            int code = hcon.getResponseCode();
-            if (201 != code) {
-                LOGGER.log(Level.WARNING, "Invalid response code, queueId={0}, url={1}, code={2}, event={3}",
-                        new Object[]{
-                            queueId,
-                            url,
-                            code,
-                            event
-                        });
             }
+            return DEFAULT_RETRY_AFTER;
         }
     }
 }
@@ -0,0 +1,123 @@
+package io.helidon.build.publisher.plugin;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal {@code tar} writer.
+ * Writes regular files in the {@code ustar} format, names longer than 100 bytes are written with a GNU long name
+ * entry.
+ */
+final class TarWriter implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final long MAX_SIZE = 077777777777L; // 11 octal digits
+    private static final byte[] ZEROS = new byte[BLOCK_SIZE];
+    private static final byte[] MAGIC = "ustar\u000000".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_LINK = "././@LongLink".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] header;
+    private final byte[] buf;
+
+    /**
+     * Create a new writer.
+     * @param out the output stream
+     */
+    TarWriter(OutputStream out) {
+        this.out = out;
+        this.header = new byte[BLOCK_SIZE];
+        this.buf = new byte[8192];
+    }
+
+    /**
+     * Add a regular file.
+     * @param name the entry name
+     * @param file the file
+     * @throws IOException if an IO error occurs
+     */
+    void addFile(String name, File file) throws IOException {
+        long size = file.length();
+        if (size > MAX_SIZE) {
+            throw new IOException("File too large: " + file);
+        }
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            writeHeader(LONG_LINK, nameBytes.length + 1, 0, (byte) 'L');
+            out.write(nameBytes);
+            out.write(0);
+            pad(nameBytes.length + 1);
+        }
+        writeHeader(nameBytes, size, file.lastModified() / 1000, (byte) '0');
+        long written = 0;
+        try (FileInputStream fis = new FileInputStream(file)) {
+            int nbytes;
+            while (written < size && (nbytes = fis.read(buf, 0, (int) Math.min(buf.length, size - written))) > 0) {
+                out.write(buf, 0, nbytes);
+                written += nbytes;
+            }
+        }
+        if (written != size) {
+            throw new IOException("File changed while archiving: " + file);
+        }
+        pad(size);
+    }
+
+    /**
+     * Write the end of archive marker and close the output stream.
+     * @throws IOException if an IO error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write(ZEROS);
+            out.write(ZEROS);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeHeader(byte[] name, long size, long mtime, byte type) throws IOException {
+        Arrays.fill(header, (byte) 0);
+        System.arraycopy(name, 0, header, 0, Math.min(name.length, 100));
+        writeOctal(100, 8, 0644);
+        writeOctal(108, 8, 0);
+        writeOctal(116, 8, 0);
+        writeOctal(124, 12, size);
+        writeOctal(136, 12, mtime);
+        header[156] = type;
+        System.arraycopy(MAGIC, 0, header, 257, MAGIC.length);
+        long checksum = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            // the checksum field is summed as spaces
+            checksum += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xFF);
+        }
+        writeOctal(148, 7, checksum);
+        header[155] = ' ';
+        out.write(header);
+    }
+
+    private void writeOctal(int offset, int length, long value) {
+        // zero padded octal digits terminated by a NUL
+        String digits = Long.toOctalString(value);
+        int ndigits = length - 1;
+        for (int i = 0; i < ndigits; i++) {
+            int j = digits.length() - ndigits + i;
+            header[offset + i] = (byte) (j >= 0 ? digits.charAt(j) : '0');
+        }
+        header[offset + ndigits] = 0;
+    }
+
+    private void pad(long size) throws IOException {
+        int padding = (int) ((BLOCK_SIZE - (size % BLOCK_SIZE)) % BLOCK_SIZE);
+        if (padding > 0) {
+            out.write(ZEROS, 0, padding);
+        }
+    }
+}